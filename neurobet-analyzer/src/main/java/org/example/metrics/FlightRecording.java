@@ -0,0 +1,90 @@
+package org.example.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Непрерывная запись Java Flight Recorder с профилем {@value #SETTINGS_RESOURCE} из ресурсов.
+ *
+ * <p>Профиль включает события приложения ({@code neurobet.*}: эпохи обучения, проверка, опросы ленты,
+ * разбор JSON, переходы состояний игр, запись результатов) и выборку событий JVM — сборки мусора,
+ * загрузку CPU, сэмплы стеков, ожидания мониторов и ввод-вывод, — чтобы всплески задержек можно было
+ * сопоставить с паузами GC и нагрузкой. Запись кольцевая: на диске хранится не больше
+ * {@link #MAX_AGE} и {@link #MAX_SIZE_BYTES}; при завершении процесса она сбрасывается в файл.
+ * Снять снимок работающего процесса — {@code jcmd <pid> JFR.dump name=neurobet filename=...}.</p>
+ *
+ * <p>Отключается системным свойством {@code -D}{@value #ENABLED_PROPERTY}{@code =false}. Тот же профиль можно
+ * передать JVM напрямую: {@code -XX:StartFlightRecording:settings=<путь>/neurobet.jfc}.</p>
+ */
+public final class FlightRecording {
+
+    private static final Logger logger = Logger.getLogger(FlightRecording.class.getName());
+
+    /** Системное свойство для отключения записи. */
+    public static final String ENABLED_PROPERTY = "neurobet.jfr";
+
+    static final String SETTINGS_RESOURCE = "/neurobet.jfc";
+    private static final String RECORDING_NAME = "neurobet";
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+    private static final long MAX_SIZE_BYTES = 512L * 1024 * 1024;
+
+    private FlightRecording() {
+    }
+
+    /**
+     * Запускает непрерывную запись, если JFR доступен и не отключён свойством.
+     *
+     * @param dumpOnExit файл, в который запись сбрасывается при завершении процесса
+     * @return запущенная запись или {@code null}
+     */
+    public static Recording startContinuous(Path dumpOnExit) {
+        if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            logger.info("Java Flight Recorder недоступен, запись не ведётся");
+            return null;
+        }
+        try {
+            Recording recording = new Recording(loadSettings());
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(MAX_AGE);
+            recording.setMaxSize(MAX_SIZE_BYTES);
+            recording.setDumpOnExit(true);
+            recording.setDestination(dumpOnExit);
+            recording.start();
+            logger.info("Запись JFR запущена, при завершении будет сохранена в " + dumpOnExit);
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            logger.log(Level.WARNING, "Не удалось запустить запись JFR", e);
+            return null;
+        }
+    }
+
+    /**
+     * Профиль настроек событий из ресурсов.
+     */
+    public static Configuration loadSettings() throws IOException, ParseException {
+        try (InputStream in = FlightRecording.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Профиль JFR не найден в ресурсах: " + SETTINGS_RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Мгновенное событие JFR: игра перешла в новое состояние.
+ */
+@Name("neurobet.GameStateTransition")
+@Label("Game State Transition")
+@Category({"Neurobet", "Game"})
+@Description("Смена состояния игры: создана, итог известен, записана, удалена")
+@StackTrace(false)
+public final class GameStateTransitionEvent extends Event {
+
+    public static final String CREATED = "CREATED";
+    public static final String RESULT_READY = "RESULT_READY";
+    public static final String WRITTEN = "WRITTEN";
+    public static final String EXPIRED = "EXPIRED";
+
+    @Label("Game Id")
+    int gameId;
+
+    @Label("State")
+    String state;
+
+    @Label("Game Time")
+    @Description("Игровое время в секундах")
+    int gameTimeSeconds;
+
+    /**
+     * Записывает переход, если событие включено; без активной записи JFR это одна проверка флага.
+     */
+    public static void emit(int gameId, String state, int gameTimeSeconds) {
+        GameStateTransitionEvent event = new GameStateTransitionEvent();
+        if (event.shouldCommit()) {
+            event.gameId = gameId;
+            event.state = state;
+            event.gameTimeSeconds = gameTimeSeconds;
+            event.commit();
+        }
+    }
+}
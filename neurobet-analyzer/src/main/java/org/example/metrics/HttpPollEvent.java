@@ -0,0 +1,39 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: один запрос к ленте, от открытия соединения до прочитанного тела.
+ */
+@Name("neurobet.HttpPoll")
+@Label("HTTP Poll")
+@Category({"Neurobet", "Feed"})
+@Description("Запрос к ленте событий")
+@StackTrace(false)
+public final class HttpPollEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    int status;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Not Modified")
+    @Description("Сервер ответил 304, использовано тело предыдущего ответа")
+    boolean notModified;
+
+    public void finish(String url, int status, long bytes, boolean notModified) {
+        end();
+        if (shouldCommit()) {
+            this.url = url;
+            this.status = status;
+            this.bytes = bytes;
+            this.notModified = notModified;
+            commit();
+        }
+    }
+}
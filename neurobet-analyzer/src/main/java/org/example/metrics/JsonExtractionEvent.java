@@ -0,0 +1,31 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: разбор одного ответа ленты в строки параметров игр.
+ */
+@Name("neurobet.JsonExtraction")
+@Label("JSON Extraction")
+@Category({"Neurobet", "Feed"})
+@Description("Извлечение параметров игр из ответа ленты")
+@StackTrace(false)
+public final class JsonExtractionEvent extends Event {
+
+    @Label("Events")
+    @Description("Событий в ответе")
+    int events;
+
+    @Label("Accepted")
+    @Description("Событий, прошедших условия отбора")
+    int accepted;
+
+    public void finish(int events, int accepted) {
+        end();
+        if (shouldCommit()) {
+            this.events = events;
+            this.accepted = accepted;
+            commit();
+        }
+    }
+}
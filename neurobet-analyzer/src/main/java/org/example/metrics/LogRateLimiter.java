@@ -0,0 +1,33 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничитель частоты для объёмных отладочных сообщений (например, тела ответа сервера):
+ * не больше {@code permits} сообщений за окно {@code windowMillis}. Без блокировок.
+ */
+public class LogRateLimiter {
+
+    private final int permits;
+    private final long windowMillis;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong used = new AtomicLong();
+
+    public LogRateLimiter(int permits, long windowMillis) {
+        this.permits = permits;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @return {@code true}, если сообщение можно записать в текущем окне
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            used.set(0);
+        }
+        return used.incrementAndGet() <= permits;
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Публикация снимков {@link MetricsRegistry}: локальный HTTP-эндпоинт {@code /metrics}
+ * и/или периодическая запись в файл. Оба варианта работают в собственных потоках-демонах.
+ */
+public class MetricsExporter implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(MetricsExporter.class.getName());
+
+    private final MetricsRegistry registry;
+
+    private HttpServer httpServer;
+    private ScheduledExecutorService fileScheduler;
+
+    public MetricsExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Поднимает HTTP-эндпоинт {@code http://127.0.0.1:port/metrics}.
+     */
+    public synchronized void startHttp(int port) throws IOException {
+        if (httpServer != null) return;
+
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext("/metrics", exchange -> respond(exchange, registry.snapshot()));
+        httpServer.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-http");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        httpServer.start();
+        logger.info("Метрики доступны на http://127.0.0.1:" + port + "/metrics");
+    }
+
+    /**
+     * Добавляет к запущенному HTTP-эндпоинту текстовую страницу, например статус шардов.
+     */
+    public synchronized void addTextEndpoint(String path, Supplier<String> body) {
+        if (httpServer == null) {
+            throw new IllegalStateException("HTTP-эндпоинт метрик не запущен");
+        }
+        httpServer.createContext(path, exchange -> respond(exchange, body.get()));
+        logger.info("Страница доступна на http://127.0.0.1:" + httpServer.getAddress().getPort() + path);
+    }
+
+    private static void respond(HttpExchange exchange, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Периодически перезаписывает файл снимком метрик (через временный файл и атомарное переименование).
+     */
+    public synchronized void startSnapshotFile(Path target, long periodSeconds) {
+        if (fileScheduler != null) return;
+
+        fileScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fileScheduler.scheduleAtFixedRate(() -> writeSnapshot(target), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        logger.info("Снимок метрик пишется в " + target + " каждые " + periodSeconds + " сек");
+    }
+
+    /**
+     * Немедленно записывает снимок метрик в файл.
+     */
+    public void writeSnapshot(Path target) {
+        try {
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, registry.snapshot(), StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Не удалось записать снимок метрик: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+        if (fileScheduler != null) {
+            fileScheduler.shutdownNow();
+            fileScheduler = null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Реестр метрик процесса без внешних зависимостей: счётчики и гистограммы задержек.
+ *
+ * <p>Поиск по имени идёт через {@link ConcurrentHashMap}, поэтому на горячем пути метрику
+ * стоит получить один раз и хранить в поле; сама запись в метрику не блокирует.</p>
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Общий реестр процесса.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Текстовый снимок всех метрик, по одной строке на значение, в алфавитном порядке.
+     * Гистограммы выводятся как count, mean, p50, p90, p99, p999 и max.
+     */
+    public String snapshot() {
+        StringBuilder sb = new StringBuilder();
+
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            sb.append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            String name = entry.getKey();
+            LatencyHistogram histogram = entry.getValue();
+            sb.append(name).append(".count ").append(histogram.getCount()).append('\n');
+            sb.append(name).append(".mean ").append(String.format(Locale.ROOT, "%.1f", histogram.getMean())).append('\n');
+            sb.append(name).append(".p50 ").append(histogram.getValueAtQuantile(0.50)).append('\n');
+            sb.append(name).append(".p90 ").append(histogram.getValueAtQuantile(0.90)).append('\n');
+            sb.append(name).append(".p99 ").append(histogram.getValueAtQuantile(0.99)).append('\n');
+            sb.append(name).append(".p999 ").append(histogram.getValueAtQuantile(0.999)).append('\n');
+            sb.append(name).append(".max ").append(histogram.getMax()).append('\n');
+        }
+
+        return sb.toString();
+    }
+}
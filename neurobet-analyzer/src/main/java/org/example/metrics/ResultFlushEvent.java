@@ -0,0 +1,33 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: запись строк выборки завершённой игры в файл.
+ */
+@Name("neurobet.ResultFlush")
+@Label("Result Flush")
+@Category({"Neurobet", "Game"})
+@Description("Запись строк выборки ResultWriter на диск")
+@StackTrace(false)
+public final class ResultFlushEvent extends Event {
+
+    @Label("Game Id")
+    int gameId;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public void finish(int gameId, int rows, boolean succeeded) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId;
+            this.rows = rows;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: одна эпоха обучения с параметрами точки перебора.
+ *
+ * <pre>
+ * TrainingEpochEvent event = new TrainingEpochEvent();
+ * event.begin();
+ * ... эпоха ...
+ * event.finish(...);
+ * </pre>
+ */
+@Name("neurobet.TrainingEpoch")
+@Label("Training Epoch")
+@Category({"Neurobet", "Training"})
+@Description("Одна эпоха обучения нейросети")
+@StackTrace(false)
+public final class TrainingEpochEvent extends Event {
+
+    @Label("Mode")
+    @Description("Режим обучения: построчный, сжатая выборка или имя оптимизатора")
+    String mode;
+
+    @Label("Epoch")
+    int epoch;
+
+    @Label("Samples")
+    long samples;
+
+    @Label("Input Weight")
+    double inputWeight;
+
+    @Label("Learning Rate")
+    double learningRate;
+
+    @Label("Hidden Weight")
+    double hiddenWeight;
+
+    @Label("Hidden Size")
+    int hiddenSize;
+
+    /**
+     * Завершает замер и записывает событие, если оно включено и прошло порог длительности.
+     */
+    public void finish(String mode, int epoch, long samples, double inputWeight, double learningRate,
+                       double hiddenWeight, int hiddenSize) {
+        end();
+        if (shouldCommit()) {
+            this.mode = mode;
+            this.epoch = epoch;
+            this.samples = samples;
+            this.inputWeight = inputWeight;
+            this.learningRate = learningRate;
+            this.hiddenWeight = hiddenWeight;
+            this.hiddenSize = hiddenSize;
+            commit();
+        }
+    }
+}
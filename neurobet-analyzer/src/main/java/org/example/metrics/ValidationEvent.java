@@ -0,0 +1,35 @@
+package org.example.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Событие JFR: проход по проверочной выборке.
+ */
+@Name("neurobet.Validation")
+@Label("Validation Pass")
+@Category({"Neurobet", "Training"})
+@Description("Оценка точности модели на проверочной выборке")
+@StackTrace(false)
+public final class ValidationEvent extends Event {
+
+    @Label("Source")
+    @Description("Кто проводил проверку: перебор параметров или бэктест")
+    String source;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Accuracy")
+    @Description("Доля верных решений при пороге 0.5, в процентах")
+    double accuracy;
+
+    public void finish(String source, long rows, double accuracy) {
+        end();
+        if (shouldCommit()) {
+            this.source = source;
+            this.rows = rows;
+            this.accuracy = accuracy;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.neuralnet;
+
+/**
+ * Adam: скользящие средние градиента и его квадрата с поправкой смещения.
+ * Номер шага общий для всех весов, поэтому для редко активных строк поправка смещения
+ * соответствует шагу сети, а не числу обновлений строки.
+ */
+public final class AdamOptimizer extends GradientOptimizer {
+
+    private final double beta1;
+    private final double beta2;
+    private final double epsilon;
+
+    private double[] firstMoment;
+    private double[] secondMoment;
+    private long step;
+    private double beta1Power;
+    private double beta2Power;
+
+    public AdamOptimizer() {
+        this(0.9, 0.999, 1e-8);
+    }
+
+    public AdamOptimizer(double beta1, double beta2, double epsilon) {
+        this.beta1 = beta1;
+        this.beta2 = beta2;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    protected void initializeState(int parameterCount) {
+        firstMoment = new double[parameterCount];
+        secondMoment = new double[parameterCount];
+        step = 0;
+        beta1Power = 1;
+        beta2Power = 1;
+    }
+
+    @Override
+    protected void beginStep() {
+        step++;
+        beta1Power *= beta1;
+        beta2Power *= beta2;
+    }
+
+    @Override
+    protected void update(double[] weights, double[] gradients, int from, int to, double learningRate) {
+        double correction1 = 1 - beta1Power;
+        double correction2 = 1 - beta2Power;
+        for (int i = from; i < to; i++) {
+            double g = gradients[i];
+            firstMoment[i] = beta1 * firstMoment[i] + (1 - beta1) * g;
+            secondMoment[i] = beta2 * secondMoment[i] + (1 - beta2) * g * g;
+            double m = firstMoment[i] / correction1;
+            double v = secondMoment[i] / correction2;
+            weights[i] -= learningRate * m / (Math.sqrt(v) + epsilon);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Adam";
+    }
+}
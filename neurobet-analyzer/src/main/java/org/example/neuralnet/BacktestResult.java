@@ -0,0 +1,183 @@
+package org.example.neuralnet;
+
+import java.util.Locale;
+
+/**
+ * Накопитель результатов бэктеста одной части данных. Части считаются независимо
+ * и объединяются {@link #merge(BacktestResult)} в хронологическом порядке.
+ *
+ * <p>Для каждого порога решения {@code t} ведутся:
+ * <ul>
+ *     <li>матрица ошибок для решения «меньше тотала» при {@code p > t} — как {@code p > 0.5} в {@link NeuralNetwork#run(byte[])};</li>
+ *     <li>имитация ставок единичного размера по фиксированному коэффициенту: «меньше» при {@code p > t},
+ *         «больше» при {@code p < 1 - t}, иначе ставки нет.</li>
+ * </ul>
+ * Калибровка — {@value #CALIBRATION_BINS} корзин по предсказанной вероятности и оценка Брайера.</p>
+ *
+ * <p>Строка выборки не хранит итоговый тотал, поэтому возврат ставки при совпадении целого тотала
+ * не различим и считается проигрышем ставки «меньше».</p>
+ */
+public final class BacktestResult {
+
+    public static final int CALIBRATION_BINS = 10;
+
+    private final String name;
+    private final double[] thresholds;
+    private final double odds;
+
+    private long rows;
+    private long malformedRows;
+    private double brierSum;
+
+    // [порог][TP, FP, TN, FN]; положительный класс — итоговый тотал меньше предложенного
+    private final long[][] confusion;
+    private final long[] bets;
+    private final long[] wins;
+    private final double[] profit;
+
+    private final long[] binCount = new long[CALIBRATION_BINS];
+    private final double[] binProbabilitySum = new double[CALIBRATION_BINS];
+    private final long[] binPositives = new long[CALIBRATION_BINS];
+
+    public BacktestResult(String name, double[] thresholds, double odds) {
+        this.name = name;
+        this.thresholds = thresholds.clone();
+        this.odds = odds;
+        this.confusion = new long[thresholds.length][4];
+        this.bets = new long[thresholds.length];
+        this.wins = new long[thresholds.length];
+        this.profit = new double[thresholds.length];
+    }
+
+    /**
+     * Учитывает одно предсказание.
+     *
+     * @param probability    предсказанная вероятность исхода «меньше тотала»
+     * @param label          фактический исход (1 — итоговый тотал меньше предложенного)
+     * @param bookmakerTotal тотал букмекера из строки или {@code NaN}, если линии нет — такие строки в ставках не участвуют
+     */
+    void record(double probability, int label, double bookmakerTotal) {
+        rows++;
+        double error = probability - label;
+        brierSum += error * error;
+
+        int bin = Math.min(CALIBRATION_BINS - 1, (int) (probability * CALIBRATION_BINS));
+        binCount[bin]++;
+        binProbabilitySum[bin] += probability;
+        binPositives[bin] += label;
+
+        boolean hasLine = !Double.isNaN(bookmakerTotal);
+        for (int t = 0; t < thresholds.length; t++) {
+            double threshold = thresholds[t];
+            boolean predictedUnder = probability > threshold;
+            confusion[t][predictedUnder ? (label == 1 ? 0 : 1) : (label == 0 ? 2 : 3)]++;
+
+            if (!hasLine) continue;
+            if (predictedUnder) {
+                settle(t, label == 1);
+            } else if (probability < 1 - threshold) {
+                settle(t, label == 0);
+            }
+        }
+    }
+
+    void recordMalformed(long count) {
+        malformedRows += count;
+    }
+
+    private void settle(int threshold, boolean won) {
+        bets[threshold]++;
+        if (won) {
+            wins[threshold]++;
+            profit[threshold] += odds - 1;
+        } else {
+            profit[threshold] -= 1;
+        }
+    }
+
+    /**
+     * Добавляет к этому результату результат следующей части.
+     */
+    public void merge(BacktestResult other) {
+        rows += other.rows;
+        malformedRows += other.malformedRows;
+        brierSum += other.brierSum;
+        for (int t = 0; t < thresholds.length; t++) {
+            for (int c = 0; c < 4; c++) {
+                confusion[t][c] += other.confusion[t][c];
+            }
+            bets[t] += other.bets[t];
+            wins[t] += other.wins[t];
+            profit[t] += other.profit[t];
+        }
+        for (int b = 0; b < CALIBRATION_BINS; b++) {
+            binCount[b] += other.binCount[b];
+            binProbabilitySum[b] += other.binProbabilitySum[b];
+            binPositives[b] += other.binPositives[b];
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getMalformedRows() {
+        return malformedRows;
+    }
+
+    /**
+     * Точность в процентах при пороге с номером {@code threshold}.
+     */
+    public double getAccuracy(int threshold) {
+        long[] c = confusion[threshold];
+        return rows == 0 ? 0 : (c[0] + c[2]) * 100.0 / rows;
+    }
+
+    public double getProfit(int threshold) {
+        return profit[threshold];
+    }
+
+    public double getBrierScore() {
+        return rows == 0 ? 0 : brierSum / rows;
+    }
+
+    /**
+     * Краткая строка для отчёта по частям: точность и прибыль при каждом пороге.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%s | строк %d", name, rows));
+        for (int t = 0; t < thresholds.length; t++) {
+            sb.append(String.format(Locale.ROOT, " | t=%.2f: %.2f%%, P&L %+.1f",
+                    thresholds[t], getAccuracy(t), profit[t]));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Полный отчёт: матрицы ошибок, ставки и калибровка.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Бэктест %s: строк %d, пропущено повреждённых %d, Брайер %.4f%n",
+                name, rows, malformedRows, getBrierScore()));
+
+        for (int t = 0; t < thresholds.length; t++) {
+            long[] c = confusion[t];
+            double roi = bets[t] == 0 ? 0 : profit[t] * 100.0 / bets[t];
+            sb.append(String.format(Locale.ROOT,
+                    "  порог %.2f | точность %.2f%% | TP %d FP %d TN %d FN %d"
+                            + " | ставок %d, выиграно %.2f%%, P&L %+.1f ед. при коэффициенте %.2f, ROI %+.2f%%%n",
+                    thresholds[t], getAccuracy(t), c[0], c[1], c[2], c[3],
+                    bets[t], bets[t] == 0 ? 0 : wins[t] * 100.0 / bets[t], profit[t], odds, roi));
+        }
+
+        sb.append("  калибровка (предсказано → фактически, строк):").append(System.lineSeparator());
+        for (int b = 0; b < CALIBRATION_BINS; b++) {
+            if (binCount[b] == 0) continue;
+            sb.append(String.format(Locale.ROOT, "    [%.1f–%.1f) %.3f → %.3f, %d%n",
+                    (double) b / CALIBRATION_BINS, (double) (b + 1) / CALIBRATION_BINS,
+                    binProbabilitySum[b] / binCount[b], (double) binPositives[b] / binCount[b], binCount[b]));
+        }
+        return sb.toString();
+    }
+}
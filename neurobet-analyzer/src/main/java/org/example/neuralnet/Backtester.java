@@ -0,0 +1,241 @@
+package org.example.neuralnet;
+
+import org.example.metrics.ValidationEvent;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.*;
+
+/**
+ * Бэктест замороженной модели на исторических выборках.
+ *
+ * <p>Файлы выборки передаются в хронологическом порядке (например, по одному на день) и делятся
+ * на части по границам строк. Каждая часть отображается в память и разбирается прямо из байтов —
+ * без строк на каждую запись — и оценивается пакетами через {@link InferenceModel#predictBatch}.
+ * Части считаются параллельно, результаты объединяются по порядку, поэтому отчёт по частям
+ * показывает, как качество модели меняется во времени.</p>
+ *
+ * <p>Строки разбирает {@link DatasetRows}: поддерживаются текстовая и плотная записи,
+ * строки-заголовки схемы пропускаются.</p>
+ */
+public class Backtester {
+
+    private static final Logger LOGGER = Logger.getLogger(Backtester.class.getName());
+
+    private static final long MAX_PARTITION_BYTES = 256L << 20;
+    private static final int BATCH_ROWS = 1000; // Меньше порога BatchInference: параллелизм — на уровне частей
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    private final InferenceModel model;
+    private final double[] thresholds;
+    private final double odds;
+    private final int threads;
+
+    /**
+     * @param model      замороженная модель
+     * @param thresholds пороги решения, для каждого считается отдельная матрица ошибок и P&L
+     * @param odds       десятичный коэффициент ставок на тотал для имитации P&L
+     * @param threads    количество потоков разбора и оценки
+     */
+    public Backtester(InferenceModel model, double[] thresholds, double odds, int threads) {
+        this.model = model;
+        this.thresholds = thresholds.clone();
+        this.odds = odds;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Часть файла выборки: байты {@code [start, end)}, начинающиеся с начала строки.
+     */
+    private static final class Partition {
+        final Path file;
+        final long start;
+        final long end;
+        final String name;
+
+        Partition(Path file, long start, long end, int number) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.name = file.getFileName() + "#" + number;
+        }
+    }
+
+    /**
+     * Прогоняет все файлы и возвращает результаты частей в хронологическом порядке.
+     */
+    public List<BacktestResult> runPartitions(List<Path> files) throws IOException {
+        List<Partition> partitions = new ArrayList<>();
+        for (Path file : files) {
+            partitions.addAll(split(file));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<BacktestResult>> futures = new ArrayList<>(partitions.size());
+            for (Partition partition : partitions) {
+                futures.add(executor.submit(() -> evaluate(partition)));
+            }
+            List<BacktestResult> results = new ArrayList<>(futures.size());
+            for (Future<BacktestResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Бэктест прерван", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Ошибка при разборе части выборки", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Прогоняет все файлы и возвращает объединённый результат.
+     */
+    public BacktestResult run(List<Path> files) throws IOException {
+        ValidationEvent validationEvent = new ValidationEvent();
+        validationEvent.begin();
+        BacktestResult total = new BacktestResult("всего", thresholds, odds);
+        for (BacktestResult partition : runPartitions(files)) {
+            total.merge(partition);
+        }
+        validationEvent.finish("backtest", total.getRows(), total.getAccuracy(0));
+        return total;
+    }
+
+    private List<Partition> split(Path file) throws IOException {
+        List<Partition> partitions = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) Math.max(threads, (size + MAX_PARTITION_BYTES - 1) / MAX_PARTITION_BYTES);
+            long target = Math.max(1, size / count);
+
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(size, start + target);
+                if (end < size) {
+                    end = DatasetRows.nextLineStart(channel, end, size);
+                }
+                partitions.add(new Partition(file, start, end, partitions.size()));
+                start = end;
+            }
+        }
+        return partitions;
+    }
+
+    private BacktestResult evaluate(Partition partition) throws IOException {
+        BacktestResult result = new BacktestResult(partition.name, thresholds, odds);
+
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(partition.file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, partition.start, partition.end - partition.start);
+        }
+
+        SparseBatch batch = new SparseBatch(BATCH_ROWS);
+        int[] labels = new int[BATCH_ROWS];
+        double[] totals = new double[BATCH_ROWS];
+        double[] probabilities = new double[BATCH_ROWS];
+        int[] active = new int[FeatureEncoder.INPUT_SIZE];
+
+        long malformedRows = DatasetRows.forEachRow(buffer, active, (rowActive, count, label) -> {
+            int row = batch.add(rowActive, count);
+            labels[row] = label;
+            totals[row] = bookmakerTotal(rowActive, count);
+            if (batch.size() == BATCH_ROWS) {
+                flush(batch, labels, totals, probabilities, result);
+            }
+        });
+        result.recordMalformed(malformedRows);
+        flush(batch, labels, totals, probabilities, result);
+        return result;
+    }
+
+    private void flush(SparseBatch batch, int[] labels, double[] totals, double[] probabilities,
+                       BacktestResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        model.predictBatch(batch, probabilities);
+        for (int row = 0; row < batch.size(); row++) {
+            result.record(probabilities[row], labels[row], totals[row]);
+        }
+        batch.clear();
+    }
+
+    private static double bookmakerTotal(int[] active, int count) {
+        for (int k = 0; k < count; k++) {
+            if (FeatureEncoder.isTotalCell(active[k])) {
+                return FeatureEncoder.suggestedTotal(active[k]);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Параметры запуска: {@code <модель.nbm> <выборка>... [--thresholds 0.5,0.55,0.6] [--odds 1.9]
+     * [--threads N] [--int8]}. Файлы выборки перечисляются в хронологическом порядке.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            LOGGER.warning("Использование: Backtester <модель.nbm> <выборка>... [--thresholds 0.5,0.55] [--odds 1.9] [--threads N] [--int8]");
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        double[] thresholds = {0.5, 0.55, 0.6, 0.65};
+        double odds = 1.9;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean quantized = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--thresholds" -> {
+                    String[] values = args[++i].split(",");
+                    thresholds = new double[values.length];
+                    for (int t = 0; t < values.length; t++) {
+                        thresholds[t] = Double.parseDouble(values[t]);
+                    }
+                }
+                case "--odds" -> odds = Double.parseDouble(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--int8" -> quantized = true;
+                default -> files.add(Paths.get(args[i]));
+            }
+        }
+
+        FloatInferenceModel floatModel = ModelFiles.load(Paths.get(args[0]));
+        InferenceModel model = quantized ? QuantizedInferenceModel.quantize(floatModel) : floatModel;
+        Backtester backtester = new Backtester(model, thresholds, odds, threads);
+
+        long start = System.nanoTime();
+        List<BacktestResult> partitions = backtester.runPartitions(files);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        BacktestResult total = new BacktestResult("всего", thresholds, odds);
+        for (BacktestResult partition : partitions) {
+            LOGGER.info(partition.summary());
+            total.merge(partition);
+        }
+        LOGGER.info(total.report());
+        LOGGER.info(String.format("Строк: %d за %d мс (%d потоков)", total.getRows(), elapsedMs, threads));
+    }
+}
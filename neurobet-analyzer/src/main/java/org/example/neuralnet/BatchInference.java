@@ -0,0 +1,114 @@
+package org.example.neuralnet;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Пакетный прямой проход для моделей с весами, лежащими построчно по входам.
+ *
+ * <p>Вместо прохода «образец за образцом» строится обратный индекс «вход → образцы, где он активен»
+ * (сортировкой подсчётом за {@code O(nnz)}), после чего каждая строка весов читается из памяти
+ * один раз и прибавляется к скрытым суммам всех своих образцов. Для one-hot входа 299 ячеек
+ * число прочитанных строк ограничено числом различных активных входов, а не размером пакета.</p>
+ *
+ * <p>Большие пакеты делятся на части по {@value #CHUNK_ROWS} образцов и считаются параллельно
+ * в общем пуле fork/join; каждая часть проходит по весам один раз.</p>
+ */
+final class BatchInference {
+
+    static final int PARALLEL_THRESHOLD = 1024; // Меньшие пакеты дешевле посчитать в одном потоке
+    static final int CHUNK_ROWS = 256;
+
+    /**
+     * Прибавляет строку весов входа {@code input} к скрытым суммам, начиная с {@code offset}.
+     */
+    interface RowAccumulator {
+        void addRow(int input, float[] hidden, int offset);
+    }
+
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    private BatchInference() {
+    }
+
+    static void predict(SparseBatch batch, double[] out, int inputSize, int hiddenSize,
+                        float[] hiddenWeights, RowAccumulator accumulator) {
+        int rows = batch.size();
+        if (out.length < rows) {
+            throw new IllegalArgumentException("Массив результатов короче пакета: " + out.length + " < " + rows);
+        }
+        if (rows < PARALLEL_THRESHOLD) {
+            predictRange(batch, out, 0, rows, inputSize, hiddenSize, hiddenWeights, accumulator);
+            return;
+        }
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_ROWS;
+            predictRange(batch, out, from, Math.min(rows, from + CHUNK_ROWS),
+                    inputSize, hiddenSize, hiddenWeights, accumulator);
+        });
+    }
+
+    private static void predictRange(SparseBatch batch, double[] out, int fromRow, int toRow,
+                                     int inputSize, int hiddenSize, float[] hiddenWeights,
+                                     RowAccumulator accumulator) {
+        int rows = toRow - fromRow;
+        int firstPosition = batch.rowStart(fromRow);
+        int nonZero = batch.rowStart(toRow) - firstPosition;
+
+        Workspace workspace = WORKSPACE.get();
+        workspace.ensure(rows * hiddenSize, nonZero, inputSize);
+        float[] hidden = workspace.hidden;
+        int[] inputStart = workspace.inputStart;
+        int[] samples = workspace.samples;
+        Arrays.fill(hidden, 0, rows * hiddenSize, 0f);
+        Arrays.fill(inputStart, 0, inputSize + 1, 0);
+
+        // Обратный индекс: для каждого входа — список образцов части, где он активен
+        for (int p = firstPosition; p < firstPosition + nonZero; p++) {
+            inputStart[batch.index(p) + 1]++;
+        }
+        for (int i = 0; i < inputSize; i++) {
+            inputStart[i + 1] += inputStart[i];
+        }
+        int[] cursor = workspace.cursor;
+        System.arraycopy(inputStart, 0, cursor, 0, inputSize);
+        for (int row = fromRow; row < toRow; row++) {
+            for (int p = batch.rowStart(row); p < batch.rowStart(row + 1); p++) {
+                samples[cursor[batch.index(p)]++] = row - fromRow;
+            }
+        }
+
+        // Один проход по строкам весов
+        for (int input = 0; input < inputSize; input++) {
+            for (int k = inputStart[input]; k < inputStart[input + 1]; k++) {
+                accumulator.addRow(input, hidden, samples[k] * hiddenSize);
+            }
+        }
+
+        for (int r = 0; r < rows; r++) {
+            int offset = r * hiddenSize;
+            double outputSum = 0;
+            for (int h = 0; h < hiddenSize; h++) {
+                outputSum += InferenceModel.sigmoid(hidden[offset + h]) * hiddenWeights[h];
+            }
+            out[fromRow + r] = InferenceModel.sigmoid(outputSum);
+        }
+    }
+
+    private static final class Workspace {
+        float[] hidden = new float[0];
+        int[] samples = new int[0];
+        int[] inputStart = new int[0];
+        int[] cursor = new int[0];
+
+        void ensure(int hiddenCells, int nonZero, int inputSize) {
+            if (hidden.length < hiddenCells) hidden = new float[hiddenCells];
+            if (samples.length < nonZero) samples = new int[nonZero];
+            if (inputStart.length < inputSize + 1) {
+                inputStart = new int[inputSize + 1];
+                cursor = new int[inputSize + 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.neuralnet;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Сравнение поштучной оценки ({@link InferenceModel#predictActive}) и пакетной
+ * ({@link InferenceModel#predictBatch}) на пакетах разного размера.
+ * Модель со случайными весами размера рабочей сети, входы — случайные закодированные минуты.
+ *
+ * <p>Параметры запуска: {@code [размер скрытого слоя]}.</p>
+ */
+public class BatchInferenceBenchmark {
+
+    private static final Logger logger = Logger.getLogger(BatchInferenceBenchmark.class.getName());
+
+    private static final int[] BATCH_SIZES = {1, 10, 50, 200, 1_000, 5_000, 20_000};
+
+    public static void main(String[] args) {
+        int hiddenSize = args.length > 0 ? Integer.parseInt(args[0]) : FeatureEncoder.INPUT_SIZE;
+        Random random = new Random(42);
+
+        float[] inputWeights = new float[FeatureEncoder.INPUT_SIZE * hiddenSize];
+        for (int i = 0; i < inputWeights.length; i++) {
+            inputWeights[i] = (float) random.nextGaussian() * 0.1f;
+        }
+        float[] hiddenWeights = new float[hiddenSize];
+        for (int h = 0; h < hiddenSize; h++) {
+            hiddenWeights[h] = (float) random.nextGaussian() * 0.1f;
+        }
+        FloatInferenceModel model = new FloatInferenceModel(FeatureEncoder.INPUT_SIZE, hiddenSize, inputWeights, hiddenWeights);
+
+        for (int batchSize : BATCH_SIZES) {
+            int[][] rows = new int[batchSize][FeatureEncoder.MAX_ACTIVE];
+            int[] counts = new int[batchSize];
+            SparseBatch batch = new SparseBatch(batchSize);
+            for (int r = 0; r < batchSize; r++) {
+                counts[r] = FeatureEncoder.encodeActive(random.nextInt(30), random.nextInt(30),
+                        30 + random.nextInt(60) * 0.5, 1 + random.nextInt(9), rows[r], 0);
+                batch.add(rows[r], counts[r]);
+            }
+
+            double[] single = new double[batchSize];
+            double[] batched = new double[batchSize];
+            int iterations = Math.max(5, 200_000 / batchSize);
+
+            for (int i = 0; i < iterations / 5; i++) { // Прогрев JIT
+                scoreOneByOne(model, rows, counts, single);
+                model.predictBatch(batch, batched);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                scoreOneByOne(model, rows, counts, single);
+            }
+            double singleUs = (System.nanoTime() - start) / 1e3 / iterations;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                model.predictBatch(batch, batched);
+            }
+            double batchUs = (System.nanoTime() - start) / 1e3 / iterations;
+
+            double maxDelta = 0;
+            for (int r = 0; r < batchSize; r++) {
+                maxDelta = Math.max(maxDelta, Math.abs(single[r] - batched[r]));
+            }
+
+            logger.info(String.format(Locale.ROOT,
+                    "Пакет %6d | поштучно %10.1f мкс | пакетом %10.1f мкс | ускорение %5.2fx | max Δp %.2e",
+                    batchSize, singleUs, batchUs, singleUs / batchUs, maxDelta));
+        }
+    }
+
+    private static void scoreOneByOne(InferenceModel model, int[][] rows, int[] counts, double[] out) {
+        for (int r = 0; r < rows.length; r++) {
+            out[r] = model.predictActive(rows[r], counts[r]);
+        }
+    }
+}
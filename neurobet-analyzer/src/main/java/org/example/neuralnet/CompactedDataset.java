@@ -0,0 +1,278 @@
+package org.example.neuralnet;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Сжатая выборка: каждый различный входной вектор хранится один раз со счётчиками
+ * исходов «0» и «1».
+ *
+ * <p>Строка выборки полностью определяется очками команд, тоталом, минутой и исходом, поэтому
+ * миллионы собранных строк сводятся к гораздо меньшему числу различных ситуаций. Вектор с не более
+ * чем {@value #MAX_PACKED_ACTIVE} активными входами упаковывается в {@code long} (по 9 бит на индекс)
+ * и служит ключом таблицы с открытой адресацией.</p>
+ *
+ * <p>Сжатие пополняется по мере поступления данных: {@link #addSegment(Path)} запоминает, сколько
+ * байт файла уже поглощено, и при повторном вызове читает только дописанные с тех пор полные строки —
+ * это подходит и для новых файлов-сегментов, и для дописываемого {@code ResultWriter} файла.
+ * Состояние сохраняется {@link #save(Path)} и загружается {@link #load(Path)}.</p>
+ *
+ * <p>Обучение на сжатой выборке — {@link NeuralNetwork#trainingWeighted(CompactedDataset)}.</p>
+ */
+public final class CompactedDataset {
+
+    private static final Logger logger = Logger.getLogger(CompactedDataset.class.getName());
+
+    static final int MAX_PACKED_ACTIVE = 7; // 7 × 9 бит = 63 бита
+    private static final int BITS_PER_INDEX = 9;
+    private static final long INDEX_MASK = (1L << BITS_PER_INDEX) - 1;
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    private static final int FILE_MAGIC = 0x4E42434D; // "NBCM"
+    private static final int FILE_VERSION = 1;
+
+    // Таблица ключ → номер вектора; 0 в slots — пустая ячейка
+    private long[] tableKeys = new long[1 << 12];
+    private int[] tableSlots = new int[1 << 12];
+
+    // Различные векторы в порядке первого появления
+    private long[] keys = new long[1024];
+    private int[] negatives = new int[1024];
+    private int[] positives = new int[1024];
+    private int size;
+
+    private long totalRows;
+    private long rejectedRows;
+    private final Map<String, Long> absorbedBytes = new LinkedHashMap<>(); // Файл → поглощено байт
+
+    /**
+     * Добавляет одну строку выборки.
+     *
+     * @return {@code false}, если вектор не упаковывается (больше {@value #MAX_PACKED_ACTIVE} активных входов)
+     */
+    public boolean add(int[] activeIndices, int count, int label) {
+        if (count > MAX_PACKED_ACTIVE) {
+            rejectedRows++;
+            return false;
+        }
+        long key = pack(activeIndices, count);
+        int index = findOrInsert(key);
+        if (label == 1) {
+            positives[index]++;
+        } else {
+            negatives[index]++;
+        }
+        totalRows++;
+        return true;
+    }
+
+    /**
+     * Поглощает полные строки файла выборки, дописанные после предыдущего вызова.
+     * Недописанная последняя строка остаётся до следующего раза.
+     *
+     * @return количество поглощённых байт (0, если новых строк нет)
+     */
+    public long addSegment(Path segment) throws IOException {
+        String segmentId = segment.toAbsolutePath().toString();
+        long absorbed = absorbedBytes.getOrDefault(segmentId, 0L);
+
+        int[] scratch = new int[FeatureEncoder.INPUT_SIZE];
+        long malformed = 0;
+        long size;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() < absorbed) {
+                throw new IOException("Файл выборки стал короче уже поглощённой части: " + segment);
+            }
+            size = lastLineEnd(channel, absorbed, channel.size());
+            long start = absorbed;
+            while (start < size) {
+                long end = Math.min(size, start + MAX_WINDOW_BYTES);
+                if (end < size) {
+                    end = DatasetRows.nextLineStart(channel, end, size);
+                }
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                malformed += DatasetRows.forEachRow(window, scratch, this::add);
+                start = end;
+            }
+        }
+        rejectedRows += malformed;
+        absorbedBytes.put(segmentId, size);
+        return size - absorbed;
+    }
+
+    /**
+     * Количество различных векторов.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Количество исходных строк, вошедших в сжатую выборку.
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public int getNegatives(int index) {
+        return negatives[index];
+    }
+
+    public int getPositives(int index) {
+        return positives[index];
+    }
+
+    /**
+     * Распаковывает индексы активных входов вектора {@code index}.
+     *
+     * @param out буфер длиной не меньше {@value #MAX_PACKED_ACTIVE}
+     * @return количество индексов
+     */
+    public int decode(int index, int[] out) {
+        long key = keys[index];
+        int count = 0;
+        while (key != 0) {
+            out[count++] = (int) (key & INDEX_MASK) - 1;
+            key >>>= BITS_PER_INDEX;
+        }
+        return count;
+    }
+
+    public void save(Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeInt(FeatureEncoder.SCHEMA_VERSION);
+            out.writeLong(totalRows);
+            out.writeLong(rejectedRows);
+            out.writeInt(absorbedBytes.size());
+            for (Map.Entry<String, Long> segment : absorbedBytes.entrySet()) {
+                out.writeUTF(segment.getKey());
+                out.writeLong(segment.getValue());
+            }
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(keys[i]);
+                out.writeInt(negatives[i]);
+                out.writeInt(positives[i]);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static CompactedDataset load(Path source) throws IOException {
+        CompactedDataset dataset = new CompactedDataset();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                throw new IOException("Неизвестный формат сжатой выборки: " + source);
+            }
+            FeatureEncoder.checkSchemaVersion(in.readInt(), source.toString());
+            dataset.totalRows = in.readLong();
+            dataset.rejectedRows = in.readLong();
+            int segments = in.readInt();
+            for (int i = 0; i < segments; i++) {
+                dataset.absorbedBytes.put(in.readUTF(), in.readLong());
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                int index = dataset.findOrInsert(in.readLong());
+                dataset.negatives[index] = in.readInt();
+                dataset.positives[index] = in.readInt();
+            }
+        }
+        logger.info("Загружена сжатая выборка: " + dataset.size + " векторов из " + dataset.totalRows + " строк");
+        return dataset;
+    }
+
+    // Конец последней полной строки в [from, size)
+    private static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+        long end = size;
+        while (end > from) {
+            long windowStart = Math.max(from, end - (1 << 16));
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, end - windowStart);
+            for (int i = (int) (end - windowStart) - 1; i >= 0; i--) {
+                if (window.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+            end = windowStart;
+        }
+        return from;
+    }
+
+    // Индексы упорядочиваются, чтобы одинаковые векторы давали одинаковый ключ; +1 отличает индекс 0 от пустоты
+    private static long pack(int[] activeIndices, int count) {
+        int[] sorted = activeIndices;
+        for (int k = 1; k < count; k++) {
+            if (activeIndices[k - 1] > activeIndices[k]) { // Разбор выборки даёт индексы по возрастанию
+                sorted = Arrays.copyOf(activeIndices, count);
+                Arrays.sort(sorted);
+                break;
+            }
+        }
+        long key = 0;
+        for (int k = count - 1; k >= 0; k--) {
+            key = (key << BITS_PER_INDEX) | (sorted[k] + 1);
+        }
+        return key;
+    }
+
+    private int findOrInsert(long key) {
+        int mask = tableKeys.length - 1;
+        int i = hash(key) & mask;
+        while (tableSlots[i] != 0) {
+            if (tableKeys[i] == key) {
+                return tableSlots[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            negatives = Arrays.copyOf(negatives, size * 2);
+            positives = Arrays.copyOf(positives, size * 2);
+        }
+        int index = size++;
+        keys[index] = key;
+        tableKeys[i] = key;
+        tableSlots[i] = index + 1;
+
+        if (size * 2 > tableKeys.length) {
+            rehash(tableKeys.length * 2);
+        }
+        return index;
+    }
+
+    private void rehash(int capacity) {
+        tableKeys = new long[capacity];
+        tableSlots = new int[capacity];
+        int mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int i = hash(keys[index]) & mask;
+            while (tableSlots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            tableKeys[i] = keys[index];
+            tableSlots[i] = index + 1;
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.*;
+
+/**
+ * Пополняет сжатую выборку ({@link CompactedDataset}) новыми сегментами.
+ *
+ * <p>Параметры запуска: {@code <сжатая выборка> <файл выборки>...}. Если файл сжатой выборки
+ * существует, он загружается, и из каждого файла выборки читаются только строки, дописанные
+ * после предыдущего запуска.</p>
+ */
+public class DatasetCompactor {
+
+    private static final Logger LOGGER = Logger.getLogger(DatasetCompactor.class.getName());
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            LOGGER.warning("Использование: DatasetCompactor <сжатая выборка> <файл выборки>...");
+            return;
+        }
+
+        Path target = Paths.get(args[0]);
+        CompactedDataset dataset = Files.exists(target) ? CompactedDataset.load(target) : new CompactedDataset();
+
+        long start = System.nanoTime();
+        for (int i = 1; i < args.length; i++) {
+            Path segment = Paths.get(args[i]);
+            long bytes = dataset.addSegment(segment);
+            LOGGER.info(String.format("%s: поглощено %d байт", segment, bytes));
+        }
+        dataset.save(target);
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info(String.format("Строк: %d → различных векторов: %d (сжатие %.1f×), пропущено %d строк, %d мс",
+                dataset.getTotalRows(), dataset.size(),
+                dataset.size() == 0 ? 0 : (double) dataset.getTotalRows() / dataset.size(),
+                dataset.getRejectedRows(), elapsedMs));
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Разбор строк выборки прямо из байтов (обычно отображённого в память файла), без строк Java.
+ *
+ * <p>Поддерживаются текстовая ({@code "0 1 0 ..."}) и плотная ({@code "010..."}) записи.
+ * Строки-заголовки схемы проверяются {@link FeatureEncoder#checkDatasetHeader} и пропускаются вместе
+ * с пустыми строками; строки не из 300 ячеек или с посторонними символами считаются повреждёнными.</p>
+ */
+final class DatasetRows {
+
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+
+    /**
+     * Выборка, целиком загруженная в память: входы в разреженном виде и целевые результаты.
+     */
+    static final class LabeledRows {
+
+        final SparseBatch inputs = new SparseBatch(1024);
+        byte[] labels = new byte[1024];
+        long malformedRows;
+
+        int size() {
+            return inputs.size();
+        }
+
+        private void add(int[] active, int count, int label) {
+            int row = inputs.add(active, count);
+            if (row == labels.length) {
+                labels = Arrays.copyOf(labels, row * 2);
+            }
+            labels[row] = (byte) label;
+        }
+    }
+
+    /**
+     * Получатель разобранной строки.
+     */
+    interface RowConsumer {
+        /**
+         * @param active индексы единичных входных ячеек (без целевой)
+         * @param count  количество значимых элементов в {@code active}
+         * @param label  целевой результат (0 или 1)
+         */
+        void accept(int[] active, int count, int label);
+    }
+
+    private DatasetRows() {
+    }
+
+    /**
+     * Загружает файл выборки целиком, отображая его в память окнами до 1 ГБ.
+     *
+     * @throws IOException если выборка записана в другой версии схемы признаков
+     */
+    static LabeledRows load(Path file) throws IOException {
+        LabeledRows rows = new LabeledRows();
+        int[] scratch = new int[FeatureEncoder.INPUT_SIZE];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(size, start + MAX_WINDOW_BYTES);
+                if (end < size) {
+                    end = nextLineStart(channel, end, size);
+                }
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                rows.malformedRows += forEachRow(window, scratch, rows::add);
+                start = end;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Разбирает все строки буфера от {@code position()} до {@code limit()}.
+     *
+     * @param scratch буфер индексов длиной не меньше {@link FeatureEncoder#INPUT_SIZE}
+     * @return количество повреждённых строк
+     * @throws IOException если заголовок схемы в буфере не совпадает с текущей версией
+     */
+    static long forEachRow(ByteBuffer buffer, int[] scratch, RowConsumer consumer) throws IOException {
+        long malformedRows = 0;
+        int limit = buffer.limit();
+        int position = buffer.position();
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            if (lineEnd > position && buffer.get(position) == '#') {
+                FeatureEncoder.checkDatasetHeader(lineString(buffer, position, lineEnd));
+            } else if (lineEnd > position && !isBlank(buffer, position, lineEnd)) {
+                int count = 0;
+                int cell = 0;
+                int label = -1;
+                boolean malformed = false;
+                for (int i = position; i < lineEnd && !malformed; i++) {
+                    byte b = buffer.get(i);
+                    if (b == '0' || b == '1') {
+                        if (cell < FeatureEncoder.INPUT_SIZE) {
+                            if (b == '1') scratch[count++] = cell;
+                        } else if (cell == FeatureEncoder.LABEL_INDEX) {
+                            label = b - '0';
+                        }
+                        cell++;
+                    } else if (b != ' ' && b != ',' && b != '\t' && b != '\r') {
+                        malformed = true;
+                    }
+                }
+
+                if (malformed || cell != FeatureEncoder.ROW_SIZE) {
+                    malformedRows++;
+                } else {
+                    consumer.accept(scratch, count, label);
+                }
+            }
+            position = lineEnd + 1;
+        }
+        return malformedRows;
+    }
+
+    /**
+     * Начало первой строки в позиции {@code position} или после неё.
+     */
+    static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        long windowSize = Math.min(size - position, 1 << 16);
+        while (windowSize > 0) {
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            for (int i = 0; i < windowSize; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += windowSize;
+            windowSize = Math.min(size - position, 1 << 16);
+        }
+        return size;
+    }
+
+    private static String lineString(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) != '\r' && buffer.get(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.neuralnet;
+
+import org.example.metrics.TrainingEpochEvent;
+
+import java.util.Arrays;
+
+/**
+ * Обучаемая сеть той же топологии, что и {@link NeuralNetwork}, с весами в плоских массивах
+ * и подключаемым правилом обновления {@link Optimizer}.
+ *
+ * <p>Все веса лежат в одном массиве: сначала вход → скрытый слой построчно по входам
+ * ({@code [input * hidden + h]}, как в {@link NeuralNetwork#exportInputWeights()}), затем
+ * скрытый слой → выход. При one-hot входе шаг затрагивает только строки активных входов.</p>
+ *
+ * <p>Сеть выполняет прямой проход и отдаёт его оптимизатору ({@link ForwardPass}); как менять веса,
+ * решает оптимизатор. С {@link LegacySgdOptimizer} обучение повторяет {@link NeuralNetwork} до бита.</p>
+ */
+public final class DenseNetwork {
+
+    private final int inputSize;
+    private final int hiddenSize;
+    private final int hiddenOffset;
+    private final double[] weights;
+    private final double[] hidden;
+    private final ForwardPass pass;
+
+    private final double initialInputWeight;
+    private final double initialHiddenWeight;
+
+    private Optimizer optimizer = new LegacySgdOptimizer();
+    private int epochs;
+
+    /**
+     * @param inputWeights        веса вход → скрытый слой, раскладка {@code [input * hidden + h]}
+     * @param hiddenWeights       веса скрытый слой → выход
+     * @param initialInputWeight  масштаб поправки входных весов в историческом правиле
+     * @param initialHiddenWeight масштаб поправки выходных весов в историческом правиле
+     */
+    public DenseNetwork(double[] inputWeights, double[] hiddenWeights,
+                        double initialInputWeight, double initialHiddenWeight) {
+        if (hiddenWeights.length == 0 || inputWeights.length % hiddenWeights.length != 0) {
+            throw new IllegalArgumentException("Размеры массивов весов не совпадают с топологией сети.");
+        }
+        this.hiddenSize = hiddenWeights.length;
+        this.inputSize = inputWeights.length / hiddenSize;
+        this.hiddenOffset = inputWeights.length;
+        this.weights = Arrays.copyOf(inputWeights, inputWeights.length + hiddenSize);
+        System.arraycopy(hiddenWeights, 0, weights, hiddenOffset, hiddenSize);
+        this.hidden = new double[hiddenSize];
+        this.pass = new ForwardPass(hidden, hiddenOffset, initialInputWeight, initialHiddenWeight);
+        this.initialInputWeight = initialInputWeight;
+        this.initialHiddenWeight = initialHiddenWeight;
+        optimizer.initialize(weights.length);
+    }
+
+    /**
+     * Копия начальных весов и масштабов инициализированной {@link NeuralNetwork}.
+     */
+    public static DenseNetwork fromNetwork(NeuralNetwork network) {
+        return new DenseNetwork(network.exportInputWeights(), network.exportHiddenWeights(),
+                network.getInitialWeight(), network.initialHiddenWeight);
+    }
+
+    /**
+     * Меняет правило обновления; состояние нового оптимизатора начинается с нуля.
+     */
+    public void setOptimizer(Optimizer optimizer) {
+        this.optimizer = optimizer;
+        this.epochs = 0;
+        optimizer.initialize(weights.length);
+    }
+
+    public Optimizer getOptimizer() {
+        return optimizer;
+    }
+
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    /**
+     * Вероятность исхода для one-hot входа. Индексы должны идти по возрастанию —
+     * тогда сумма совпадает с {@link NeuralNetwork#predict(byte[])} до бита.
+     */
+    public double predict(int[] activeIndices, int count) {
+        Arrays.fill(hidden, 0);
+        for (int k = 0; k < count; k++) {
+            int row = activeIndices[k] * hiddenSize;
+            for (int h = 0; h < hiddenSize; h++) {
+                hidden[h] += weights[row + h];
+            }
+        }
+        double outputSum = 0;
+        for (int h = 0; h < hiddenSize; h++) {
+            hidden[h] = sigmoid(hidden[h]);
+            outputSum += hidden[h] * weights[hiddenOffset + h];
+        }
+        return sigmoid(outputSum);
+    }
+
+    /**
+     * Один шаг обучения.
+     *
+     * @param sampleWeight   множитель градиента (историческое правило его не использует)
+     * @param learningRate   скорость обучения на этом шаге
+     * @return {@code true}, если веса изменились
+     */
+    public boolean trainSample(int[] activeIndices, int count, int expected, double sampleWeight, double learningRate) {
+        double actual = predict(activeIndices, count);
+        pass.set(activeIndices, count, actual, expected, sampleWeight);
+        return optimizer.step(weights, pass, learningRate);
+    }
+
+    /**
+     * Одна эпоха по сжатой выборке, как {@link NeuralNetwork#trainingWeighted(CompactedDataset)}.
+     *
+     * <p>Правило, зависящее от ошибки ({@link Optimizer#isErrorDriven()}), проходит строки вектора, встреченного
+     * {@code n} раз, в том же перемешанном порядке исходов ({@link NeuralNetwork#interleavedLabel}) и делает шаг
+     * только при ошибочном решении. Для градиентных оптимизаторов число строк вектора делится на среднее по выборке, чтобы
+     * средний шаг соответствовал одной строке и скорость обучения не зависела от степени сжатия.</p>
+     */
+    public void trainEpoch(CompactedDataset dataset, double learningRate) {
+        TrainingEpochEvent epochEvent = new TrainingEpochEvent();
+        epochEvent.begin();
+        boolean errorDriven = optimizer.isErrorDriven();
+        double weightScale = errorDriven || dataset.getTotalRows() == 0
+                ? 1 : (double) dataset.size() / dataset.getTotalRows();
+        int[] active = new int[CompactedDataset.MAX_PACKED_ACTIVE];
+        for (int index = 0; index < dataset.size(); index++) {
+            int count = dataset.decode(index, active);
+            int negatives = dataset.getNegatives(index);
+            int positives = dataset.getPositives(index);
+            if (errorDriven) {
+                trainInterleaved(active, count, negatives, positives, learningRate);
+                continue;
+            }
+            if (negatives > 0) trainSample(active, count, 0, negatives * weightScale, learningRate);
+            if (positives > 0) trainSample(active, count, 1, positives * weightScale, learningRate);
+        }
+        epochEvent.finish(optimizer.getName(), epochs++, dataset.getTotalRows(),
+                initialInputWeight, learningRate, initialHiddenWeight, hiddenSize);
+    }
+
+    /**
+     * Доля верных решений при пороге 0.5 по всем строкам сжатой выборки, в процентах.
+     */
+    public double accuracy(CompactedDataset dataset) {
+        int[] active = new int[CompactedDataset.MAX_PACKED_ACTIVE];
+        long correct = 0;
+        for (int index = 0; index < dataset.size(); index++) {
+            int count = dataset.decode(index, active);
+            correct += predict(active, count) > 0.5 ? dataset.getPositives(index) : dataset.getNegatives(index);
+        }
+        return dataset.getTotalRows() == 0 ? 0 : 100.0 * correct / dataset.getTotalRows();
+    }
+
+    public double[] exportInputWeights() {
+        return Arrays.copyOf(weights, hiddenOffset);
+    }
+
+    public double[] exportHiddenWeights() {
+        return Arrays.copyOfRange(weights, hiddenOffset, weights.length);
+    }
+
+    /**
+     * Замороженная float32-копия для оценки и сохранения.
+     */
+    public FloatInferenceModel toInferenceModel() {
+        float[] inputWeights = new float[hiddenOffset];
+        for (int i = 0; i < hiddenOffset; i++) {
+            inputWeights[i] = (float) weights[i];
+        }
+        float[] hiddenWeights = new float[hiddenSize];
+        for (int h = 0; h < hiddenSize; h++) {
+            hiddenWeights[h] = (float) weights[hiddenOffset + h];
+        }
+        return new FloatInferenceModel(inputSize, hiddenSize, inputWeights, hiddenWeights);
+    }
+
+    private void trainInterleaved(int[] activeIndices, int count, int negatives, int positives, double learningRate) {
+        int total = negatives + positives;
+        int settled = -1; // Исход, который вектор сейчас классифицирует верно; -1 — неизвестно
+        for (int i = 0; i < total; i++) {
+            int expected = NeuralNetwork.interleavedLabel(negatives, positives, i);
+            if (expected == settled) continue;
+            settled = trainSample(activeIndices, count, expected, 1, learningRate) ? -1 : expected;
+        }
+    }
+
+    private static double sigmoid(double x) {
+        return 1.0 / (1 + Math.exp(-x));
+    }
+}
@@ -0,0 +1,217 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+
+/**
+ * Единая схема признаков для записи выборки, обучения и живой оценки.
+ *
+ * <p>Строка выборки — 300 бинарных ячеек:
+ * <ul>
+ *     <li>[0..49] — очки первой команды</li>
+ *     <li>[50..99] — очки второй команды</li>
+ *     <li>[100..289] — тотал букмекера × 2 + 100 (шаг 0.5)</li>
+ *     <li>[290..298] — минута игры + 289</li>
+ *     <li>299 — целевой результат: 1, если итоговый тотал меньше предложенного</li>
+ * </ul>
+ * Вход сети — первые 299 ячеек.</p>
+ *
+ * <p>Проверки границ повторяют исторический {@code ResultWriter.encodeMinute} байт в байт:
+ * ячейка минуты принимается в диапазоне [289..297], поэтому 9-я минута не кодируется.
+ * Исправление изменит смысл уже собранных выборок и обученных моделей и потребует новой
+ * версии схемы ({@link #SCHEMA_VERSION}).</p>
+ *
+ * <p>Все методы пишут в буферы вызывающей стороны и ничего не выделяют.</p>
+ */
+public final class FeatureEncoder {
+
+    /** Версия схемы признаков. Записывается в заголовок выборки и в файл модели. */
+    public static final int SCHEMA_VERSION = 1;
+
+    public static final int INPUT_SIZE = 299;
+    public static final int ROW_SIZE = 300;
+    public static final int LABEL_INDEX = 299;
+
+    /** Максимальное число активных входов в одной строке. */
+    public static final int MAX_ACTIVE = 4;
+
+    /** Число {@code long} на одну строку в упакованном виде. */
+    public static final int WORDS_PER_ROW = (ROW_SIZE + 63) / 64;
+
+    /** Максимальная длина текстовой строки выборки: 300 цифр через пробел. */
+    public static final int TEXT_ROW_LENGTH = ROW_SIZE * 2 - 1;
+
+    private static final String HEADER_PREFIX = "# neurobet-features schema=";
+
+    private FeatureEncoder() {
+    }
+
+    /**
+     * Записывает индексы активных входов (без целевой ячейки).
+     *
+     * @param out    буфер, в котором свободно не меньше {@link #MAX_ACTIVE} элементов начиная с {@code offset}
+     * @param offset позиция первой записи
+     * @return количество записанных индексов
+     */
+    public static int encodeActive(int t1, int t2, double suggested, int minute, int[] out, int offset) {
+        int count = offset;
+
+        if (isSafeIndex(t1, 0, 49)) out[count++] = t1;
+        if (isSafeIndex(t2 + 50, 50, 99)) out[count++] = t2 + 50;
+
+        int totalIndex = totalIndex(suggested);
+        boolean totalSet = isSafeIndex(totalIndex, 100, 289);
+        if (totalSet) out[count++] = totalIndex;
+
+        // Ячейка 289 общая у тотала 94.5 и «минуты 0» — в разреженном виде она не должна дублироваться
+        int minuteIndex = 289 + minute;
+        if (isSafeIndex(minuteIndex, 289, 297) && !(totalSet && minuteIndex == totalIndex)) out[count++] = minuteIndex;
+
+        return count - offset;
+    }
+
+    /**
+     * Записывает строку в упакованном виде: бит {@code i} — ячейка {@code i}, включая целевую.
+     *
+     * @param out    буфер, в котором свободно не меньше {@link #WORDS_PER_ROW} слов начиная с {@code offset}
+     * @param offset первое слово строки
+     */
+    public static void encodeBits(int t1, int t2, double suggested, int minute, int finalTotal,
+                                  long[] out, int offset) {
+        for (int w = 0; w < WORDS_PER_ROW; w++) {
+            out[offset + w] = 0L;
+        }
+
+        if (isSafeIndex(t1, 0, 49)) setBit(out, offset, t1);
+        if (isSafeIndex(t2 + 50, 50, 99)) setBit(out, offset, t2 + 50);
+
+        int totalIndex = totalIndex(suggested);
+        if (isSafeIndex(totalIndex, 100, 289)) setBit(out, offset, totalIndex);
+
+        int minuteIndex = 289 + minute;
+        if (isSafeIndex(minuteIndex, 289, 297)) setBit(out, offset, minuteIndex);
+
+        if (label(finalTotal, suggested) == 1) setBit(out, offset, LABEL_INDEX);
+    }
+
+    /**
+     * Записывает строку в плотном виде (300 байт, включая целевую ячейку).
+     */
+    public static void encodeDense(int t1, int t2, double suggested, int minute, int finalTotal,
+                                   byte[] out, int offset) {
+        for (int i = 0; i < ROW_SIZE; i++) {
+            out[offset + i] = 0;
+        }
+
+        if (isSafeIndex(t1, 0, 49)) out[offset + t1] = 1;
+        if (isSafeIndex(t2 + 50, 50, 99)) out[offset + t2 + 50] = 1;
+
+        int totalIndex = totalIndex(suggested);
+        if (isSafeIndex(totalIndex, 100, 289)) out[offset + totalIndex] = 1;
+
+        int minuteIndex = 289 + minute;
+        if (isSafeIndex(minuteIndex, 289, 297)) out[offset + minuteIndex] = 1;
+
+        out[offset + LABEL_INDEX] = label(finalTotal, suggested);
+    }
+
+    /**
+     * Записывает строку выборки в текстовом виде ({@code "0 0 1 ... 0"}) в буфер символов.
+     *
+     * @param out буфер длиной не меньше {@link #TEXT_ROW_LENGTH}
+     * @return длина строки
+     */
+    public static int encodeText(int t1, int t2, double suggested, int minute, int finalTotal, char[] out) {
+        for (int i = 0; i < ROW_SIZE; i++) {
+            out[i * 2] = '0';
+            if (i < ROW_SIZE - 1) out[i * 2 + 1] = ' ';
+        }
+
+        if (isSafeIndex(t1, 0, 49)) out[t1 * 2] = '1';
+        if (isSafeIndex(t2 + 50, 50, 99)) out[(t2 + 50) * 2] = '1';
+
+        int totalIndex = totalIndex(suggested);
+        if (isSafeIndex(totalIndex, 100, 289)) out[totalIndex * 2] = '1';
+
+        int minuteIndex = 289 + minute;
+        if (isSafeIndex(minuteIndex, 289, 297)) out[minuteIndex * 2] = '1';
+
+        if (label(finalTotal, suggested) == 1) out[LABEL_INDEX * 2] = '1';
+
+        return TEXT_ROW_LENGTH;
+    }
+
+    /**
+     * Целевой результат: 1, если итоговый тотал меньше предложенного букмекером.
+     */
+    public static byte label(int finalTotal, double suggested) {
+        return (byte) (finalTotal < suggested ? 1 : 0);
+    }
+
+    /**
+     * Обратное преобразование ячейки тотала [100..289] в тотал букмекера.
+     */
+    public static double suggestedTotal(int totalCell) {
+        return (totalCell - 100) / 2.0;
+    }
+
+    public static boolean isTotalCell(int index) {
+        return isSafeIndex(index, 100, 289);
+    }
+
+    public static boolean isBitSet(long[] bits, int offset, int index) {
+        return (bits[offset + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    // —————————————————————————————————————————————— СХЕМА ВЫБОРКИ ————————————————————————————————————————————— //
+
+    /**
+     * Строка-заголовок, которой помечается начало данных в файле выборки.
+     */
+    public static String datasetHeader() {
+        return HEADER_PREFIX + SCHEMA_VERSION;
+    }
+
+    /**
+     * Проверяет строку файла выборки: если это заголовок схемы, версия должна совпадать с текущей.
+     *
+     * @return {@code true}, если строка — заголовок и её нужно пропустить
+     * @throws IOException если выборка записана в другой версии схемы
+     */
+    public static boolean checkDatasetHeader(String line) throws IOException {
+        if (!line.startsWith(HEADER_PREFIX)) {
+            return false;
+        }
+        int version;
+        try {
+            version = Integer.parseInt(line.substring(HEADER_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Повреждён заголовок схемы выборки: " + line);
+        }
+        checkSchemaVersion(version, "выборка");
+        return true;
+    }
+
+    /**
+     * @throws IOException если версия схемы не совпадает с текущей
+     */
+    public static void checkSchemaVersion(int version, String source) throws IOException {
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Несовместимая схема признаков (" + source + "): " + version
+                    + ", ожидается " + SCHEMA_VERSION);
+        }
+    }
+
+    // —————————————————————————————————————————————— ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ————————————————————————————————————————————— //
+
+    private static int totalIndex(double suggested) {
+        return (int) (suggested * 2) + 100; // 0.5 шаг
+    }
+
+    private static void setBit(long[] bits, int offset, int index) {
+        bits[offset + (index >>> 6)] |= 1L << index;
+    }
+
+    private static boolean isSafeIndex(int index, int min, int max) {
+        return index >= min && index <= max;
+    }
+}
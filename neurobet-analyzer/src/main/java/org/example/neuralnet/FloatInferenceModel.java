@@ -0,0 +1,104 @@
+package org.example.neuralnet;
+
+import java.util.Arrays;
+
+/**
+ * Модель для инференса с весами float32 в плоских массивах.
+ *
+ * <p>Веса вход → скрытый слой лежат построчно по входам ({@code [input * hidden + h]}),
+ * поэтому для one-hot входа прямой проход сводится к сложению нескольких непрерывных строк.
+ * Для сети 299×299 это около 350 КБ вместо нескольких мегабайт {@code HashMap<Neuron, Double>}.</p>
+ */
+public final class FloatInferenceModel implements InferenceModel {
+
+    private final int inputSize;
+    private final int hiddenSize;
+    private final float[] inputWeights;
+    private final float[] hiddenWeights;
+
+    private final ThreadLocal<float[]> hiddenBuffer;
+
+    public FloatInferenceModel(int inputSize, int hiddenSize, float[] inputWeights, float[] hiddenWeights) {
+        if (inputWeights.length != inputSize * hiddenSize || hiddenWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("Размеры массивов весов не совпадают с топологией сети.");
+        }
+        this.inputSize = inputSize;
+        this.hiddenSize = hiddenSize;
+        this.inputWeights = inputWeights;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBuffer = ThreadLocal.withInitial(() -> new float[hiddenSize]);
+    }
+
+    /**
+     * Снимает замороженную копию весов с обучаемой сети.
+     */
+    public static FloatInferenceModel fromNetwork(NeuralNetwork network) {
+        double[] input = network.exportInputWeights();
+        double[] hidden = network.exportHiddenWeights();
+
+        float[] inputWeights = new float[input.length];
+        for (int i = 0; i < input.length; i++) {
+            inputWeights[i] = (float) input[i];
+        }
+        float[] hiddenWeights = new float[hidden.length];
+        for (int h = 0; h < hidden.length; h++) {
+            hiddenWeights[h] = (float) hidden[h];
+        }
+        return new FloatInferenceModel(input.length / hidden.length, hidden.length, inputWeights, hiddenWeights);
+    }
+
+    @Override
+    public double predictActive(int[] activeIndices, int count) {
+        float[] hidden = hiddenBuffer.get();
+        Arrays.fill(hidden, 0f);
+
+        for (int k = 0; k < count; k++) {
+            int row = activeIndices[k] * hiddenSize;
+            for (int h = 0; h < hiddenSize; h++) {
+                hidden[h] += inputWeights[row + h];
+            }
+        }
+
+        double outputSum = 0;
+        for (int h = 0; h < hiddenSize; h++) {
+            outputSum += InferenceModel.sigmoid(hidden[h]) * hiddenWeights[h];
+        }
+        return InferenceModel.sigmoid(outputSum);
+    }
+
+    /**
+     * Пакетный проход: каждая строка весов читается один раз на весь пакет (см. {@link BatchInference}).
+     */
+    @Override
+    public void predictBatch(SparseBatch batch, double[] out) {
+        BatchInference.predict(batch, out, inputSize, hiddenSize, hiddenWeights, (input, hidden, offset) -> {
+            int row = input * hiddenSize;
+            for (int h = 0; h < hiddenSize; h++) {
+                hidden[offset + h] += inputWeights[row + h];
+            }
+        });
+    }
+
+    @Override
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    @Override
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    @Override
+    public long getWeightBytes() {
+        return (long) (inputWeights.length + hiddenWeights.length) * Float.BYTES;
+    }
+
+    float[] inputWeights() {
+        return inputWeights;
+    }
+
+    float[] hiddenWeights() {
+        return hiddenWeights;
+    }
+}
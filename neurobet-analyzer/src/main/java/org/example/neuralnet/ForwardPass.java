@@ -0,0 +1,95 @@
+package org.example.neuralnet;
+
+/**
+ * Состояние прямого прохода {@link DenseNetwork} на одном образце — всё, что нужно {@link Optimizer}
+ * для шага: активные входы, активации скрытого слоя, выход сети и целевой результат.
+ *
+ * <p>Раскладка весов та же, что у сети: строка входа {@code i} начинается с {@code i * hiddenSize},
+ * веса скрытый → выход — с {@link #hiddenOffset()}. Объект переиспользуется между шагами.</p>
+ */
+public final class ForwardPass {
+
+    private final double[] hidden;
+    private final int hiddenOffset;
+    private final double initialInputWeight;
+    private final double initialHiddenWeight;
+
+    private int[] activeIndices;
+    private int activeCount;
+    private double output;
+    private int expected;
+    private double sampleWeight;
+
+    ForwardPass(double[] hidden, int hiddenOffset, double initialInputWeight, double initialHiddenWeight) {
+        this.hidden = hidden;
+        this.hiddenOffset = hiddenOffset;
+        this.initialInputWeight = initialInputWeight;
+        this.initialHiddenWeight = initialHiddenWeight;
+    }
+
+    void set(int[] activeIndices, int activeCount, double output, int expected, double sampleWeight) {
+        this.activeIndices = activeIndices;
+        this.activeCount = activeCount;
+        this.output = output;
+        this.expected = expected;
+        this.sampleWeight = sampleWeight;
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    /**
+     * Начало строки весов {@code k}-го активного входа.
+     */
+    public int inputRow(int k) {
+        return activeIndices[k] * hidden.length;
+    }
+
+    public int hiddenSize() {
+        return hidden.length;
+    }
+
+    /**
+     * Активация скрытого нейрона {@code h} после сигмоиды.
+     */
+    public double hidden(int h) {
+        return hidden[h];
+    }
+
+    /**
+     * Начало весов скрытый слой → выход.
+     */
+    public int hiddenOffset() {
+        return hiddenOffset;
+    }
+
+    public double output() {
+        return output;
+    }
+
+    public int expected() {
+        return expected;
+    }
+
+    /**
+     * Множитель градиента образца (доля строк, которые представляет вектор сжатой выборки).
+     */
+    public double sampleWeight() {
+        return sampleWeight;
+    }
+
+    /**
+     * Начальный вес вход → скрытый слой; историческое правило масштабирует им поправку.
+     */
+    public double initialInputWeight() {
+        return initialInputWeight;
+    }
+
+    /**
+     * Начальный вес скрытый слой → выход; историческое правило масштабирует им поправку.
+     */
+    public double initialHiddenWeight() {
+        return initialHiddenWeight;
+    }
+}
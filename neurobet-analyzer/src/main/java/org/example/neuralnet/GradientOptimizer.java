@@ -0,0 +1,61 @@
+package org.example.neuralnet;
+
+/**
+ * Основа градиентных правил: шаг на каждом образце по градиенту логистической функции потерь.
+ *
+ * <p>При one-hot входе градиент отличен от нуля только в строках активных входов, поэтому
+ * {@link #update} вызывается лишь для этих диапазонов и для весов скрытый → выход. Состояние
+ * (скорость, моменты) строк, не попавших в шаг, не меняется — «ленивое» разреженное обновление.</p>
+ */
+public abstract class GradientOptimizer implements Optimizer {
+
+    private double[] gradients;
+
+    @Override
+    public final void initialize(int parameterCount) {
+        gradients = new double[parameterCount];
+        initializeState(parameterCount);
+    }
+
+    @Override
+    public final boolean step(double[] weights, ForwardPass pass, double learningRate) {
+        int hiddenSize = pass.hiddenSize();
+        int hiddenOffset = pass.hiddenOffset();
+        int count = pass.activeCount();
+
+        double outputDelta = (pass.output() - pass.expected()) * pass.sampleWeight();
+        for (int h = 0; h < hiddenSize; h++) {
+            double activation = pass.hidden(h);
+            double hiddenDelta = outputDelta * weights[hiddenOffset + h] * activation * (1 - activation);
+            gradients[hiddenOffset + h] = outputDelta * activation;
+            for (int k = 0; k < count; k++) {
+                gradients[pass.inputRow(k) + h] = hiddenDelta;
+            }
+        }
+
+        beginStep();
+        for (int k = 0; k < count; k++) {
+            int row = pass.inputRow(k);
+            update(weights, gradients, row, row + hiddenSize, learningRate);
+        }
+        update(weights, gradients, hiddenOffset, hiddenOffset + hiddenSize, learningRate);
+        return true;
+    }
+
+    /**
+     * Готовит собственное состояние правила (моменты и т.п.).
+     */
+    protected void initializeState(int parameterCount) {
+    }
+
+    /**
+     * Начало шага (одного образца).
+     */
+    protected void beginStep() {
+    }
+
+    /**
+     * Обновляет веса в диапазоне {@code [from, to)}.
+     */
+    protected abstract void update(double[] weights, double[] gradients, int from, int to, double learningRate);
+}
@@ -0,0 +1,63 @@
+package org.example.neuralnet;
+
+/**
+ * Замороженная модель только для прямого прохода (инференса).
+ *
+ * <p>В отличие от {@link NeuralNetwork}, реализации не изменяются после создания
+ * и могут безопасно использоваться из нескольких потоков.</p>
+ */
+public interface InferenceModel {
+
+    /**
+     * Вероятность исхода для плотного бинарного вектора длиной {@link #getInputSize()}.
+     */
+    default double predict(byte[] inputValues) {
+        if (inputValues.length != getInputSize()) {
+            throw new IllegalArgumentException("Ожидалось " + getInputSize() + " входных значений.");
+        }
+        int[] active = new int[inputValues.length];
+        int count = 0;
+        for (int i = 0; i < inputValues.length; i++) {
+            if (inputValues[i] != 0) {
+                active[count++] = i;
+            }
+        }
+        return predictActive(active, count);
+    }
+
+    /**
+     * Вероятность исхода для разреженного входа: перечислены только индексы единичных ячеек.
+     *
+     * @param activeIndices индексы активных входов
+     * @param count         количество значимых элементов в {@code activeIndices}
+     */
+    double predictActive(int[] activeIndices, int count);
+
+    /**
+     * Вероятности исхода для всех образцов пакета: {@code out[i]} — результат для образца {@code i}.
+     * Реализация по умолчанию оценивает образцы по одному.
+     */
+    default void predictBatch(SparseBatch batch, double[] out) {
+        int[] active = new int[getInputSize()];
+        for (int row = 0; row < batch.size(); row++) {
+            int count = 0;
+            for (int p = batch.rowStart(row); p < batch.rowStart(row + 1); p++) {
+                active[count++] = batch.index(p);
+            }
+            out[row] = predictActive(active, count);
+        }
+    }
+
+    int getInputSize();
+
+    int getHiddenSize();
+
+    /**
+     * Объём памяти под веса модели в байтах (без заголовков объектов).
+     */
+    long getWeightBytes();
+
+    static double sigmoid(double x) {
+        return 1.0 / (1 + Math.exp(-x));
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.*;
+
+/**
+ * Сравнение инференс-вариантов модели (float32 и int8) с исходной double-сетью
+ * на валидационной выборке: точность, доля совпавших решений, максимальное
+ * расхождение вероятностей, размер весов и время одного предсказания.
+ *
+ * <p>Параметры запуска: {@code [путь к выборке] [входной вес] [скорость обучения] [скрытый→выходной вес]}.</p>
+ */
+public class InferenceModelComparison {
+
+    private static final Logger LOGGER = Logger.getLogger(InferenceModelComparison.class.getName());
+
+    private static final String DEFAULT_DATASET = "C:/basketball_training_set.txt";
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String datasetPath = args.length > 0 ? args[0] : DEFAULT_DATASET;
+        double inputWeight = args.length > 1 ? Double.parseDouble(args[1]) : 0.1;
+        double learningRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+        double hiddenWeight = args.length > 3 ? Double.parseDouble(args[3]) : 0.1;
+
+        NeuralNetwork network = new NeuralNetwork();
+        network.setInitialWeight(inputWeight);
+        network.setLearningRate(learningRate);
+        network.setInitialHiddenWeight(hiddenWeight);
+        network.setNumTrainingCycles(100);
+        network.initializeNeuralNetwork();
+        network.training(datasetPath);
+
+        FloatInferenceModel floatModel = FloatInferenceModel.fromNetwork(network);
+        QuantizedInferenceModel int8Model = QuantizedInferenceModel.quantize(floatModel);
+
+        // Разбор строк тот же, что и при обучении: с пробелами и без, с заголовком схемы
+        DatasetRows.LabeledRows validationRows = DatasetRows.load(Paths.get(datasetPath));
+        SparseBatch inputs = validationRows.inputs;
+        int totalLines = validationRows.size();
+        int correctDouble = 0, correctFloat = 0, correctInt8 = 0;
+        int agreeFloat = 0, agreeInt8 = 0;
+        double maxDeltaFloat = 0, maxDeltaInt8 = 0;
+        long nanosDouble = 0, nanosFloat = 0, nanosInt8 = 0;
+
+        int[] active = new int[FeatureEncoder.INPUT_SIZE];
+
+        for (int row = 0; row < totalLines; row++) {
+            int count = 0;
+            for (int k = inputs.rowStart(row); k < inputs.rowStart(row + 1); k++) {
+                active[count++] = inputs.index(k);
+            }
+            int expected = validationRows.labels[row];
+
+            long start = System.nanoTime();
+            double pDouble = network.predict(inputs, row);
+            long afterDouble = System.nanoTime();
+            double pFloat = floatModel.predictActive(active, count);
+            long afterFloat = System.nanoTime();
+            double pInt8 = int8Model.predictActive(active, count);
+            long afterInt8 = System.nanoTime();
+
+            nanosDouble += afterDouble - start;
+            nanosFloat += afterFloat - afterDouble;
+            nanosInt8 += afterInt8 - afterFloat;
+
+            int decisionDouble = pDouble > 0.5 ? 1 : 0;
+            int decisionFloat = pFloat > 0.5 ? 1 : 0;
+            int decisionInt8 = pInt8 > 0.5 ? 1 : 0;
+
+            if (decisionDouble == expected) correctDouble++;
+            if (decisionFloat == expected) correctFloat++;
+            if (decisionInt8 == expected) correctInt8++;
+            if (decisionFloat == decisionDouble) agreeFloat++;
+            if (decisionInt8 == decisionDouble) agreeInt8++;
+
+            maxDeltaFloat = Math.max(maxDeltaFloat, Math.abs(pFloat - pDouble));
+            maxDeltaInt8 = Math.max(maxDeltaInt8, Math.abs(pInt8 - pDouble));
+        }
+
+        if (totalLines == 0) {
+            LOGGER.warning("Валидационная выборка пуста: " + datasetPath);
+            return;
+        }
+
+        double accuracyDouble = correctDouble * 100.0 / totalLines;
+        LOGGER.info(String.format("double  | Точность: %.2f%% | %d нс/предсказание",
+                accuracyDouble, nanosDouble / totalLines));
+        LOGGER.info(String.format(
+                "float32 | Точность: %.2f%% (Δ %+.2f п.п.) | совпадение решений %.2f%% | max |Δp| %.6f | %d КБ | %d нс/предсказание",
+                correctFloat * 100.0 / totalLines, correctFloat * 100.0 / totalLines - accuracyDouble,
+                agreeFloat * 100.0 / totalLines, maxDeltaFloat,
+                floatModel.getWeightBytes() / 1024, nanosFloat / totalLines));
+        LOGGER.info(String.format(
+                "int8    | Точность: %.2f%% (Δ %+.2f п.п.) | совпадение решений %.2f%% | max |Δp| %.6f | %d КБ | %d нс/предсказание",
+                correctInt8 * 100.0 / totalLines, correctInt8 * 100.0 / totalLines - accuracyDouble,
+                agreeInt8 * 100.0 / totalLines, maxDeltaInt8,
+                int8Model.getWeightBytes() / 1024, nanosInt8 / totalLines));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.neuralnet;
+
+import java.util.Locale;
+
+/**
+ * Скорость обучения в зависимости от номера эпохи.
+ */
+public interface LearningRateSchedule {
+
+    /**
+     * @param epoch       номер эпохи, с нуля
+     * @param totalEpochs запланированное число эпох
+     */
+    double rate(int epoch, int totalEpochs);
+
+    String getName();
+
+    static LearningRateSchedule constant(double learningRate) {
+        return new LearningRateSchedule() {
+            @Override
+            public double rate(int epoch, int totalEpochs) {
+                return learningRate;
+            }
+
+            @Override
+            public String getName() {
+                return String.format(Locale.ROOT, "постоянная %.4g", learningRate);
+            }
+        };
+    }
+
+    /**
+     * Ступенчатое уменьшение: скорость умножается на {@code factor} каждые {@code everyEpochs} эпох.
+     */
+    static LearningRateSchedule step(double learningRate, double factor, int everyEpochs) {
+        return new LearningRateSchedule() {
+            @Override
+            public double rate(int epoch, int totalEpochs) {
+                return learningRate * Math.pow(factor, epoch / everyEpochs);
+            }
+
+            @Override
+            public String getName() {
+                return String.format(Locale.ROOT, "ступени %.4g×%.2f/%d", learningRate, factor, everyEpochs);
+            }
+        };
+    }
+
+    /**
+     * Косинусное затухание от {@code learningRate} до {@code minLearningRate} за все эпохи.
+     */
+    static LearningRateSchedule cosine(double learningRate, double minLearningRate) {
+        return new LearningRateSchedule() {
+            @Override
+            public double rate(int epoch, int totalEpochs) {
+                double progress = totalEpochs <= 1 ? 0 : (double) epoch / (totalEpochs - 1);
+                return minLearningRate + (learningRate - minLearningRate) * 0.5 * (1 + Math.cos(Math.PI * progress));
+            }
+
+            @Override
+            public String getName() {
+                return String.format(Locale.ROOT, "косинус %.4g→%.4g", learningRate, minLearningRate);
+            }
+        };
+    }
+}
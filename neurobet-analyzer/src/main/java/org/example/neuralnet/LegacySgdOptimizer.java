@@ -0,0 +1,51 @@
+package org.example.neuralnet;
+
+/**
+ * Исторический шаг {@link NeuralNetwork}: обновление только на ошибочно классифицированных образцах,
+ * с поправками, масштабированными начальными весами слоёв. Порядок операций тот же, что
+ * в {@code NeuralNetwork.adjustWeights}, поэтому веса совпадают до бита; нулевые входы вклада не дают.
+ */
+public final class LegacySgdOptimizer implements Optimizer {
+
+    @Override
+    public void initialize(int parameterCount) {
+    }
+
+    @Override
+    public boolean step(double[] weights, ForwardPass pass, double learningRate) {
+        double outputValue = pass.output();
+        int expected = pass.expected();
+        if ((outputValue > 0.5 ? 1 : 0) == expected) {
+            return false;
+        }
+
+        int hiddenSize = pass.hiddenSize();
+        int hiddenOffset = pass.hiddenOffset();
+        double error = outputValue - expected;
+        double delta = error * (1 - error) * learningRate;
+
+        for (int h = 0; h < hiddenSize; h++) {
+            weights[hiddenOffset + h] = weights[hiddenOffset + h] - pass.hidden(h) * delta * pass.initialHiddenWeight();
+        }
+
+        for (int h = 0; h < hiddenSize; h++) {
+            double error2 = weights[hiddenOffset + h] * delta;
+            double delta2 = error2 * (1 - error2) * learningRate;
+            for (int k = 0; k < pass.activeCount(); k++) {
+                int index = pass.inputRow(k) + h;
+                weights[index] = weights[index] - 1.0 * delta2 * pass.initialInputWeight();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isErrorDriven() {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "SGD (исторический)";
+    }
+}
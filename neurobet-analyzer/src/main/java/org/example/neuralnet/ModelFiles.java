@@ -0,0 +1,94 @@
+package org.example.neuralnet;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Чтение и запись файлов модели для инференса.
+ *
+ * <p>Формат (big-endian): магическое число {@code NBM1}, версия формата, версия схемы признаков
+ * ({@link FeatureEncoder#SCHEMA_VERSION}), размеры входного и скрытого слоёв, затем веса вход → скрытый слой (построчно по входам) и скрытый → выход во float32.
+ * Запись идёт во временный файл с последующим атомарным переименованием, поэтому
+ * наблюдатель каталога никогда не видит недописанную модель.</p>
+ *
+ * <p>Обучение сохраняет модели в собственный каталог кандидатов; в работу модель попадает только
+ * через {@link #promote}, который заменяет {@link ModelRegistry#ACTIVE_MODEL_FILE} в наблюдаемом каталоге.</p>
+ */
+public final class ModelFiles {
+
+    public static final String EXTENSION = ".nbm";
+
+    private static final int MAGIC = 0x4E424D31; // "NBM1"
+    private static final int FORMAT_VERSION = 1;
+
+    private ModelFiles() {
+    }
+
+    public static void save(FloatInferenceModel model, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(FeatureEncoder.SCHEMA_VERSION);
+            out.writeInt(model.getInputSize());
+            out.writeInt(model.getHiddenSize());
+            for (float w : model.inputWeights()) {
+                out.writeFloat(w);
+            }
+            for (float w : model.hiddenWeights()) {
+                out.writeFloat(w);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Развёртывает модель: проверяет файл и атомарно заменяет им {@link ModelRegistry#ACTIVE_MODEL_FILE}
+     * в каталоге, за которым наблюдает работающий процесс.
+     *
+     * @param source         файл модели (например, из каталога кандидатов)
+     * @param modelDirectory наблюдаемый каталог моделей
+     * @return путь развёрнутого файла
+     * @throws IOException если файл не является моделью текущей схемы или не удалось его скопировать
+     */
+    public static Path promote(Path source, Path modelDirectory) throws IOException {
+        load(source); // Файл, который реестр всё равно отклонит, не разворачиваем
+        Files.createDirectories(modelDirectory);
+        Path target = modelDirectory.resolve(ModelRegistry.ACTIVE_MODEL_FILE);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    public static FloatInferenceModel load(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Файл не является моделью: " + source);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Неподдерживаемая версия формата модели " + version + ": " + source);
+            }
+            FeatureEncoder.checkSchemaVersion(in.readInt(), source.toString());
+            int inputSize = in.readInt();
+            int hiddenSize = in.readInt();
+            if (inputSize != FeatureEncoder.INPUT_SIZE) {
+                throw new IOException("Модель рассчитана на " + inputSize + " входов, ожидается "
+                        + FeatureEncoder.INPUT_SIZE + ": " + source);
+            }
+
+            float[] inputWeights = new float[inputSize * hiddenSize];
+            for (int i = 0; i < inputWeights.length; i++) {
+                inputWeights[i] = in.readFloat();
+            }
+            float[] hiddenWeights = new float[hiddenSize];
+            for (int h = 0; h < hiddenSize; h++) {
+                hiddenWeights[h] = in.readFloat();
+            }
+            return new FloatInferenceModel(inputSize, hiddenSize, inputWeights, hiddenWeights);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.*;
+
+/**
+ * Явное развёртывание модели в работающий парсер.
+ *
+ * <p>Параметры запуска: {@code <файл модели> [каталог моделей]}. Файл проверяется и атомарно
+ * копируется в {@link ModelRegistry#ACTIVE_MODEL_FILE} наблюдаемого каталога (по умолчанию {@code C:/models}),
+ * после чего {@link ModelRegistry} публикует его. Прочие файлы каталога реестр не трогает.</p>
+ */
+public class ModelPromoter {
+
+    private static final Logger LOGGER = Logger.getLogger(ModelPromoter.class.getName());
+
+    // Каталог, за которым наблюдает ModelRegistry работающего парсера
+    private static final String MODEL_DIRECTORY = "C:/models";
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            LOGGER.warning("Использование: ModelPromoter <файл модели> [каталог моделей]");
+            return;
+        }
+
+        Path source = Paths.get(args[0]);
+        Path modelDirectory = Paths.get(args.length > 1 ? args[1] : MODEL_DIRECTORY);
+        Path target = ModelFiles.promote(source, modelDirectory);
+        LOGGER.info("Модель " + source + " развёрнута как " + target);
+    }
+}
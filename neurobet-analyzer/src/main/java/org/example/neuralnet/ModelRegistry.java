@@ -0,0 +1,228 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Реестр моделей для работающего процесса.
+ *
+ * <p>Текущая версия хранится за {@link AtomicReference}: замена — одна атомарная операция,
+ * предсказания, начатые на старой версии, дорабатывают на ней же. Предсказания выполняются
+ * через {@link Lease}; старая версия освобождается, когда завершилось последнее из них.</p>
+ *
+ * <p>Реестр может наблюдать за каталогом, но публикует из него только назначенный файл
+ * {@value #ACTIVE_MODEL_FILE}: прочие файлы каталога игнорируются, поэтому результаты обучения
+ * попадают в работу только явным развёртыванием ({@link ModelPromoter}). Новая версия файла
+ * загружается в фоновом потоке, «прогревается» несколькими предсказаниями и только затем становится
+ * текущей, поэтому развёртывание модели не останавливает сбор данных. Версия файла определяется
+ * временем изменения, так что повторное развёртывание под тем же именем тоже применяется.</p>
+ */
+public class ModelRegistry implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ModelRegistry.class.getName());
+
+    /** Имя файла в наблюдаемом каталоге, который реестр публикует как текущую модель. */
+    public static final String ACTIVE_MODEL_FILE = "active" + ModelFiles.EXTENSION;
+
+    private static final int WARMUP_PREDICTIONS = 1_000;
+
+    private final AtomicReference<ModelVersion> current = new AtomicReference<>();
+
+    private String loadedFileVersion; // Имя и время изменения последнего загруженного файла; только поток наблюдения
+    private volatile boolean watching;
+    private Thread watcherThread;
+    private WatchService watchService;
+
+    /**
+     * Аренда текущей версии на время одного или нескольких предсказаний.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final ModelVersion version;
+        private boolean closed;
+
+        private Lease(ModelVersion version) {
+            this.version = version;
+        }
+
+        public ModelVersion getVersion() {
+            return version;
+        }
+
+        public InferenceModel getModel() {
+            return version.getModel();
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (version.exit() == 0 && version.isRetired()) {
+                released(version);
+            }
+        }
+    }
+
+    /**
+     * Арендует текущую версию модели.
+     *
+     * @return аренда, которую нужно закрыть после предсказания
+     * @throws IllegalStateException если ни одна модель ещё не опубликована
+     */
+    public Lease acquire() {
+        while (true) {
+            ModelVersion version = current.get();
+            if (version == null) {
+                throw new IllegalStateException("В реестре нет ни одной модели.");
+            }
+            version.enter();
+            if (current.get() == version) {
+                return new Lease(version);
+            }
+            // Версию заменили между чтением и входом — откатываемся и берём новую
+            if (version.exit() == 0 && version.isRetired()) {
+                released(version);
+            }
+        }
+    }
+
+    public boolean hasModel() {
+        return current.get() != null;
+    }
+
+    public ModelVersion getCurrentVersion() {
+        return current.get();
+    }
+
+    /**
+     * Прогревает модель и атомарно делает её текущей.
+     *
+     * @param id    идентификатор версии (например, имя файла)
+     * @param model замороженная модель
+     * @return опубликованная версия
+     * @throws IllegalStateException если модель не подходит к текущей схеме признаков; текущая версия остаётся прежней
+     */
+    public ModelVersion publish(String id, InferenceModel model) {
+        warmUp(model);
+
+        ModelVersion next = new ModelVersion(id, model);
+        ModelVersion previous = current.getAndSet(next);
+        logger.info("Активирована модель " + id);
+
+        if (previous != null) {
+            previous.retire();
+            if (previous.getInFlight() == 0) {
+                released(previous);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Загружает развёрнутую модель ({@value #ACTIVE_MODEL_FILE}) из каталога, если она есть,
+     * и запускает фоновое наблюдение за ним.
+     */
+    public synchronized void watch(Path modelDirectory) throws IOException {
+        if (watching) return;
+
+        Files.createDirectories(modelDirectory);
+        loadActive(modelDirectory);
+
+        watchService = modelDirectory.getFileSystem().newWatchService();
+        modelDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watching = true;
+        watcherThread = new Thread(() -> watchLoop(modelDirectory), "model-registry-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("Наблюдение за каталогом моделей: " + modelDirectory);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        watching = false;
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+    }
+
+    // —————————————————————————————————————————————— ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ————————————————————————————————————————————— //
+
+    private void watchLoop(Path modelDirectory) {
+        while (watching) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || ACTIVE_MODEL_FILE.equals(event.context().toString())) {
+                    loadActive(modelDirectory);
+                }
+            }
+
+            if (!key.reset()) {
+                logger.warning("Каталог моделей больше недоступен: " + modelDirectory);
+                break;
+            }
+        }
+    }
+
+    private void loadActive(Path modelDirectory) {
+        Path file = modelDirectory.resolve(ACTIVE_MODEL_FILE);
+        try {
+            if (!Files.isRegularFile(file)) return;
+            String fileVersion = ACTIVE_MODEL_FILE + "@" + Files.getLastModifiedTime(file).toMillis();
+            if (fileVersion.equals(loadedFileVersion)) {
+                return; // повторное событие для уже загруженной версии файла
+            }
+            FloatInferenceModel model = ModelFiles.load(file);
+            loadedFileVersion = fileVersion;
+            publish(fileVersion, model);
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Не удалось загрузить модель {0}: {1}", new Object[]{file, e.getMessage()});
+        }
+    }
+
+    /**
+     * Прогоняет модель на случайных разреженных входах, чтобы JIT скомпилировал горячий путь
+     * и веса оказались в кэше до того, как модель начнёт обслуживать реальные предсказания.
+     */
+    private void warmUp(InferenceModel model) {
+        if (model.getInputSize() != FeatureEncoder.INPUT_SIZE) {
+            throw new IllegalStateException("Модель рассчитана на " + model.getInputSize() + " входов, ожидается "
+                    + FeatureEncoder.INPUT_SIZE + ".");
+        }
+        Random rnd = new Random(42);
+        int[] active = new int[4];
+        int inputSize = model.getInputSize();
+        double checksum = 0;
+        for (int i = 0; i < WARMUP_PREDICTIONS; i++) {
+            for (int k = 0; k < active.length; k++) {
+                active[k] = rnd.nextInt(inputSize);
+            }
+            checksum += model.predictActive(active, active.length);
+        }
+        if (Double.isNaN(checksum)) {
+            throw new IllegalStateException("Модель возвращает NaN при прогреве.");
+        }
+    }
+
+    private void released(ModelVersion version) {
+        if (version.markReleased()) {
+            logger.info("Освобождена модель " + version.getId());
+        }
+    }
+}
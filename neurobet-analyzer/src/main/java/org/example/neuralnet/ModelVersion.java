@@ -0,0 +1,73 @@
+package org.example.neuralnet;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неизменяемая версия модели в {@link ModelRegistry} вместе со счётчиком предсказаний,
+ * которые выполняются на ней в данный момент.
+ */
+public final class ModelVersion {
+
+    private final String id;
+    private final InferenceModel model;
+    private final long activatedAt;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean released = new AtomicBoolean();
+    private volatile boolean retired;
+
+    ModelVersion(String id, InferenceModel model) {
+        this.id = id;
+        this.model = model;
+        this.activatedAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public InferenceModel getModel() {
+        return model;
+    }
+
+    public long getActivatedAt() {
+        return activatedAt;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    int enter() {
+        return inFlight.incrementAndGet();
+    }
+
+    int exit() {
+        return inFlight.decrementAndGet();
+    }
+
+    void retire() {
+        retired = true;
+    }
+
+    /**
+     * @return {@code true} только для первого вызова — версия освобождается ровно один раз
+     */
+    boolean markReleased() {
+        return released.compareAndSet(false, true);
+    }
+
+    @Override
+    public String toString() {
+        return "ModelVersion{" +
+                "id='" + id + '\'' +
+                ", inFlight=" + inFlight.get() +
+                ", retired=" + retired +
+                '}';
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.neuralnet;
+
+/**
+ * Градиентный спуск с моментом: {@code v = μv + g; w -= lr * v}.
+ */
+public final class MomentumOptimizer extends GradientOptimizer {
+
+    private final double momentum;
+    private double[] velocity;
+
+    public MomentumOptimizer() {
+        this(0.9);
+    }
+
+    public MomentumOptimizer(double momentum) {
+        this.momentum = momentum;
+    }
+
+    @Override
+    protected void initializeState(int parameterCount) {
+        velocity = new double[parameterCount];
+    }
+
+    @Override
+    protected void update(double[] weights, double[] gradients, int from, int to, double learningRate) {
+        for (int i = from; i < to; i++) {
+            velocity[i] = momentum * velocity[i] + gradients[i];
+            weights[i] -= learningRate * velocity[i];
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "Momentum " + momentum;
+    }
+}
@@ -1,7 +1,11 @@
 package org.example.neuralnet;
 
+import org.example.metrics.Counter;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.TrainingEpochEvent;
+
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.logging.Logger;
@@ -18,7 +22,11 @@ public class NeuralNetwork {
 
     private static final Logger logger = Logger.getLogger(NeuralNetwork.class.getName());
 
-    private String[][] trainingDataCache;
+    private static final LatencyHistogram EPOCH_TIME = MetricsRegistry.global().histogram("training.epoch.time.ns");
+    private static final LatencyHistogram SAMPLES_PER_SECOND = MetricsRegistry.global().histogram("training.samples.per.sec");
+    private static final Counter SAMPLES_TRAINED = MetricsRegistry.global().counter("training.samples");
+
+    private DatasetRows.LabeledRows trainingDataCache;
     private boolean isDataCached = false;
 
     private List<Neuron> inputNeurons = new ArrayList<>();
@@ -29,15 +37,24 @@ public class NeuralNetwork {
     public double initialHiddenWeight;      // Начальные веса между скрытыми и выходным нейронами
     private double learningRate;            // Скорость обучения
     private int trainingCycles;             // Количество итераций обучения
+    private int hiddenSize = 299;           // Количество скрытых нейронов
 
     public void setInitialWeight(double weight) {
         this.initialInputWeight = weight;
     }
 
+    public double getInitialWeight() {
+        return initialInputWeight;
+    }
+
     public void setLearningRate(double rate) {
         this.learningRate = rate;
     }
 
+    public double getLearningRate() {
+        return learningRate;
+    }
+
     public void setNumTrainingCycles(int cycles) {
         this.trainingCycles = cycles;
     }
@@ -46,9 +63,16 @@ public class NeuralNetwork {
         this.initialHiddenWeight = initialHiddenWeight;
     }
 
+    /**
+     * Размер скрытого слоя; применяется при следующем {@link #initializeNeuralNetwork()}.
+     */
+    public void setHiddenSize(int hiddenSize) {
+        this.hiddenSize = hiddenSize;
+    }
+
     /**
      * Инициализация структуры нейронной сети.
-     * Входные и скрытые нейроны создаются в количестве 299.
+     * Входных нейронов 299, скрытых — {@link #setHiddenSize(int)} (по умолчанию тоже 299).
      * Связи между ними и весовые коэффициенты задаются случайно.
      */
     public void initializeNeuralNetwork() {
@@ -57,8 +81,10 @@ public class NeuralNetwork {
         inputNeurons.clear();
         hiddenNeurons.clear();
 
-        for (int i = 0; i < 299; i++) {
+        for (int i = 0; i < FeatureEncoder.INPUT_SIZE; i++) {
             inputNeurons.add(new Neuron());
+        }
+        for (int h = 0; h < hiddenSize; h++) {
             hiddenNeurons.add(new Neuron());
         }
 
@@ -80,11 +106,11 @@ public class NeuralNetwork {
      * @param values массив бинарных значений (0 или 1), размер — 299
      */
     public void setInputValues(byte[] values) {
-        if (values.length != 299) {
-            throw new IllegalArgumentException("Ожидалось 299 входных значений.");
+        if (values.length != FeatureEncoder.INPUT_SIZE) {
+            throw new IllegalArgumentException("Ожидалось " + FeatureEncoder.INPUT_SIZE + " входных значений.");
         }
 
-        for (int i = 0; i < 299; i++) {
+        for (int i = 0; i < FeatureEncoder.INPUT_SIZE; i++) {
             inputNeurons.get(i).value = values[i] != 0 ? 1 : 0;
         }
     }
@@ -98,38 +124,293 @@ public class NeuralNetwork {
         return result > 0.5 ? "Ставим" : "Отказываемся от ставки";
     }
 
+    /**
+     * Выгружает веса между входным и скрытым слоями в плоский массив.
+     * Раскладка — построчно по входным нейронам: {@code [input * 299 + hidden]},
+     * чтобы при one-hot входе активный признак давал непрерывную строку весов.
+     *
+     * @return копия весов входной слой → скрытый слой
+     */
+    public double[] exportInputWeights() {
+        int hiddenCount = hiddenNeurons.size();
+        double[] weights = new double[inputNeurons.size() * hiddenCount];
+        for (int i = 0; i < inputNeurons.size(); i++) {
+            Map<Neuron, Double> axons = inputNeurons.get(i).strelkaMap;
+            for (int h = 0; h < hiddenCount; h++) {
+                weights[i * hiddenCount + h] = axons.get(hiddenNeurons.get(h));
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Выгружает веса между скрытым слоем и выходным нейроном.
+     *
+     * @return копия весов скрытый слой → выход
+     */
+    public double[] exportHiddenWeights() {
+        double[] weights = new double[hiddenNeurons.size()];
+        for (int h = 0; h < weights.length; h++) {
+            weights[h] = hiddenNeurons.get(h).strelkaMap.get(outputNeuron);
+        }
+        return weights;
+    }
+
+    /**
+     * Вероятность исхода для входного вектора (значение выходного нейрона без порога 0.5).
+     */
+    public double predict(byte[] inputValues) {
+        setInputValues(inputValues);
+        return calc();
+    }
+
     /**
      * Обучение нейросети на указанном текстовом файле.
-     * Каждая строка содержит 299 бинарных значений и 1 целевой результат.
+     * Каждая строка содержит 299 бинарных значений и 1 целевой результат; строки разбирает {@link DatasetRows},
+     * заголовки схемы ({@link FeatureEncoder#datasetHeader()}) проверяются на совместимость и пропускаются.
      */
     public void training(String filePath) throws IOException {
         if (!isDataCached) {
-            List<String> lines = Files.readAllLines(Paths.get(filePath));
-            trainingDataCache = new String[lines.size()][];
-            for (int i = 0; i < lines.size(); i++) {
-                trainingDataCache[i] = lines.get(i).split(" ");
-            }
+            trainingDataCache = DatasetRows.load(Paths.get(filePath));
             isDataCached = true;
-            logger.info("Загружены данные из файла: " + filePath);
+            logger.info("Загружены данные из файла: " + filePath + " (строк: " + trainingDataCache.size()
+                    + ", повреждённых: " + trainingDataCache.malformedRows + ")");
         }
+        SparseBatch inputs = trainingDataCache.inputs;
+        byte[] labels = trainingDataCache.labels;
 
         for (int cycle = 0; cycle < trainingCycles; cycle++) {
-            for (String[] row : trainingDataCache) {
-                if (row.length < 300) continue; // защита от пустых или кривых строк
+            TrainingEpochEvent epochEvent = new TrainingEpochEvent();
+            epochEvent.begin();
+            long epochStart = System.nanoTime();
+            int samples = 0;
+
+            for (int row = 0; row < inputs.size(); row++) {
+                setActiveInputs(inputs, row);
+                trainCurrentInput(labels[row]);
+                samples++;
+            }
 
-                for (int i = 0; i < 299; i++) {
-                    inputNeurons.get(i).value = Double.parseDouble(row[i]);
-                }
+            long epochNanos = System.nanoTime() - epochStart;
+            EPOCH_TIME.record(epochNanos);
+            SAMPLES_TRAINED.add(samples);
+            if (epochNanos > 0) {
+                SAMPLES_PER_SECOND.record(samples * 1_000_000_000L / epochNanos);
+            }
+            epochEvent.finish("rows", cycle, samples, initialInputWeight, learningRate, initialHiddenWeight, hiddenSize);
+        }
+
+        logger.info("Обучение завершено.");
+    }
+
+    /**
+     * Обучение на сжатой выборке: каждый различный вектор проходится один раз за цикл
+     * для каждого встреченного исхода.
+     *
+     * <p>Вектор, встреченный {@code n} раз, даёт до {@code n} обычных шагов, и решение перепроверяется
+     * после каждого. Как и в {@link #training(String)}, веса меняются только при ошибочном решении,
+     * поэтому строки с исходом, который вектор уже классифицирует верно, пропускаются без прохода
+     * по сети — ровно как подряд идущие одинаковые строки. Стоимость цикла определяется числом
+     * различных ситуаций и числом реальных поправок, а не собранных строк.</p>
+     *
+     * <p>Строки вектора со смешанными исходами проходятся вперемешку, пропорционально числу каждого
+     * исхода ({@link #interleavedLabel}): преобладающий исход идёт первым и последним, поэтому
+     * последнее слово за ним, а не за положительными строками. Отличия от построчного обучения
+     * остаются: все строки вектора идут подряд, а не в порядке файла между строками других векторов,
+     * и порядок исходов внутри вектора — равномерный, а не тот, в котором их записал парсер.</p>
+     */
+    public void trainingWeighted(CompactedDataset dataset) {
+        int[] active = new int[CompactedDataset.MAX_PACKED_ACTIVE];
 
-                double expected = Double.parseDouble(row[299]);
-                double actual = calc();
-                if ((actual > 0.5 ? 1 : 0) != expected) {
-                    adjustWeights(actual, expected);
+        for (int cycle = 0; cycle < trainingCycles; cycle++) {
+            TrainingEpochEvent epochEvent = new TrainingEpochEvent();
+            epochEvent.begin();
+            long epochStart = System.nanoTime();
+            long samples = 0;
+
+            for (int index = 0; index < dataset.size(); index++) {
+                int count = dataset.decode(index, active);
+                for (Neuron input : inputNeurons) {
+                    input.value = 0;
+                }
+                for (int k = 0; k < count; k++) {
+                    inputNeurons.get(active[k]).value = 1;
                 }
+
+                int negatives = dataset.getNegatives(index);
+                int positives = dataset.getPositives(index);
+                trainInterleaved(negatives, positives);
+                samples += negatives + positives;
+            }
+
+            long epochNanos = System.nanoTime() - epochStart;
+            EPOCH_TIME.record(epochNanos);
+            SAMPLES_TRAINED.add(samples);
+            if (epochNanos > 0) {
+                SAMPLES_PER_SECOND.record(samples * 1_000_000_000L / epochNanos);
             }
+            epochEvent.finish("compacted", cycle, samples, initialInputWeight, learningRate, initialHiddenWeight, hiddenSize);
         }
 
-        logger.info("Обучение завершено.");
+        logger.info("Обучение на сжатой выборке завершено: " + dataset.size() + " векторов, "
+                + dataset.getTotalRows() + " строк.");
+    }
+
+    /**
+     * Обучение на сжатой выборке с другим правилом обновления весов через {@link DenseNetwork};
+     * обученные веса загружаются обратно в эту сеть. С {@link LegacySgdOptimizer} результат
+     * совпадает с {@link #trainingWeighted(CompactedDataset)} до бита.
+     */
+    public void trainingWeighted(CompactedDataset dataset, Optimizer optimizer) {
+        DenseNetwork network = DenseNetwork.fromNetwork(this);
+        network.setOptimizer(optimizer);
+        for (int cycle = 0; cycle < trainingCycles; cycle++) {
+            network.trainEpoch(dataset, learningRate);
+        }
+        importWeights(network.exportInputWeights(), network.exportHiddenWeights());
+
+        logger.info("Обучение (" + optimizer.getName() + ") на сжатой выборке завершено: " + dataset.size()
+                + " векторов, " + dataset.getTotalRows() + " строк.");
+    }
+
+    /**
+     * Вероятность исхода для образца {@code row} разреженного пакета.
+     */
+    double predict(SparseBatch inputs, int row) {
+        setActiveInputs(inputs, row);
+        return calc();
+    }
+
+    private void setActiveInputs(SparseBatch inputs, int row) {
+        for (Neuron input : inputNeurons) {
+            input.value = 0;
+        }
+        for (int k = inputs.rowStart(row); k < inputs.rowStart(row + 1); k++) {
+            inputNeurons.get(inputs.index(k)).value = 1;
+        }
+    }
+
+    /**
+     * Один шаг онлайн-обучения на одном векторе.
+     *
+     * @param inputValues бинарный вектор длиной 299
+     * @param expected    целевой результат (0 или 1)
+     */
+    public void trainSample(byte[] inputValues, double expected) {
+        setInputValues(inputValues);
+        trainCurrentInput(expected);
+    }
+
+    /**
+     * Шаг обучения на текущем входе.
+     *
+     * @return {@code true}, если решение было ошибочным и веса изменились
+     */
+    private boolean trainCurrentInput(double expected) {
+        double actual = calc();
+        if ((actual > 0.5 ? 1 : 0) != expected) {
+            adjustWeights(actual, expected);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Шаги на текущем входе по его строкам в порядке {@link #interleavedLabel}. Строки с исходом,
+     * который вектор уже классифицирует верно, пропускаются: до следующей поправки решение не изменится.
+     */
+    private void trainInterleaved(int negatives, int positives) {
+        int total = negatives + positives;
+        int settled = -1; // Исход, который вектор сейчас классифицирует верно; -1 — неизвестно
+        for (int i = 0; i < total; i++) {
+            int expected = interleavedLabel(negatives, positives, i);
+            if (expected == settled) continue;
+            settled = trainCurrentInput(expected) ? -1 : expected;
+        }
+    }
+
+    /**
+     * Исход {@code i}-й строки вектора, встреченного {@code negatives} раз с исходом 0 и {@code positives}
+     * раз с исходом 1, если его строки равномерно перемешать. Строки меньшинства распределены по
+     * середине с округлением к ближайшему, поэтому первая и последняя строки — преобладающего исхода
+     * (при равенстве последняя — 0). Общая для {@link DenseNetwork}, чтобы оба пути совпадали до бита.
+     */
+    static int interleavedLabel(int negatives, int positives, int i) {
+        int total = negatives + positives;
+        int minorityLabel = positives <= negatives ? 1 : 0;
+        long minority = minorityLabel == 1 ? positives : negatives;
+        // Строка меньшинства — та, на которой округлённая доля меньшинства среди первых строк растёт
+        long before = (minority * i + total / 2) / total;
+        long after = (minority * (i + 1) + total / 2) / total;
+        return after > before ? minorityLabel : 1 - minorityLabel;
+    }
+
+    /**
+     * Создаёт независимую копию сети с теми же параметрами и весами.
+     * Используется как «теневая» модель для дообучения без влияния на рабочую.
+     */
+    public NeuralNetwork copy() {
+        NeuralNetwork copy = new NeuralNetwork();
+        copy.setInitialWeight(initialInputWeight);
+        copy.setLearningRate(learningRate);
+        copy.setInitialHiddenWeight(initialHiddenWeight);
+        copy.setNumTrainingCycles(trainingCycles);
+        copy.setHiddenSize(hiddenSize);
+        copy.initializeNeuralNetwork();
+        copy.importWeights(exportInputWeights(), exportHiddenWeights());
+        return copy;
+    }
+
+    /**
+     * Восстанавливает обучаемую сеть из сохранённой модели для дообучения.
+     * Гиперпараметры в файл модели не входят, поэтому передаются явно.
+     *
+     * @throws IllegalArgumentException если размер входа модели не совпадает с текущей схемой признаков
+     */
+    public static NeuralNetwork fromModel(FloatInferenceModel model, double initialWeight, double learningRate,
+                                          double initialHiddenWeight) {
+        if (model.getInputSize() != FeatureEncoder.INPUT_SIZE) {
+            throw new IllegalArgumentException("Модель рассчитана на " + model.getInputSize()
+                    + " входов, ожидалось " + FeatureEncoder.INPUT_SIZE + ".");
+        }
+        NeuralNetwork network = new NeuralNetwork();
+        network.setInitialWeight(initialWeight);
+        network.setLearningRate(learningRate);
+        network.setInitialHiddenWeight(initialHiddenWeight);
+        network.setHiddenSize(model.getHiddenSize());
+        network.initializeNeuralNetwork();
+
+        float[] input = model.inputWeights();
+        float[] hidden = model.hiddenWeights();
+        double[] inputWeights = new double[input.length];
+        for (int i = 0; i < input.length; i++) {
+            inputWeights[i] = input[i];
+        }
+        double[] hiddenWeights = new double[hidden.length];
+        for (int h = 0; h < hidden.length; h++) {
+            hiddenWeights[h] = hidden[h];
+        }
+        network.importWeights(inputWeights, hiddenWeights);
+        return network;
+    }
+
+    /**
+     * Загружает веса в уже инициализированную сеть (раскладка как в {@link #exportInputWeights()}).
+     */
+    public void importWeights(double[] inputWeights, double[] hiddenWeights) {
+        int hiddenCount = hiddenNeurons.size();
+        if (inputWeights.length != inputNeurons.size() * hiddenCount || hiddenWeights.length != hiddenCount) {
+            throw new IllegalArgumentException("Размеры массивов весов не совпадают с топологией сети.");
+        }
+        for (int i = 0; i < inputNeurons.size(); i++) {
+            Map<Neuron, Double> axons = inputNeurons.get(i).strelkaMap;
+            for (int h = 0; h < hiddenCount; h++) {
+                axons.put(hiddenNeurons.get(h), inputWeights[i * hiddenCount + h]);
+            }
+        }
+        for (int h = 0; h < hiddenCount; h++) {
+            hiddenNeurons.get(h).strelkaMap.put(outputNeuron, hiddenWeights[h]);
+        }
     }
 
     /**
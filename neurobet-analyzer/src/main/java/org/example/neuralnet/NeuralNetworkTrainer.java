@@ -1,7 +1,13 @@
 package org.example.neuralnet;
 
+import org.example.metrics.MetricsExporter;
+import org.example.metrics.FlightRecording;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.ValidationEvent;
+
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.logging.*;
@@ -18,6 +24,31 @@ public class NeuralNetworkTrainer {
 
     private static final Logger LOGGER = Logger.getLogger(NeuralNetworkTrainer.class.getName());
 
+    // Каталог кандидатов; в работу модель попадает только через ModelPromoter
+    private static final Path MODEL_DIRECTORY = Paths.get("C:/model-candidates");
+
+    // Снимок метрик обучения (время эпохи, образцов в секунду) для долгих переборов
+    private static final Path METRICS_SNAPSHOT = Paths.get("C:/trainer-metrics.txt");
+
+    // Запись JFR (эпохи, проверки, GC) для сопоставления замедлений перебора
+    private static final Path FLIGHT_RECORDING = Paths.get("C:/trainer.jfr");
+
+    // === Перебираемые параметры (общие с распределённым перебором SweepLauncher) ===
+
+    // Массив начальных весов между входным и скрытым слоями
+    static final double[] POSSIBLE_INITIAL_WEIGHTS = {0.001, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+
+    // Массив скоростей обучения (learning rate)
+    static final double[] POSSIBLE_LEARNING_RATES = {0.1, 0.2, 0.09, 0.08, 0.07, 0.06, 0.05, 0.04, 0.03, 0.02, 0.01};
+
+    // Массив весов между скрытым и выходным слоями (второй уровень)
+    static final double[] POSSIBLE_HIDDEN_TO_OUTPUT_WEIGHTS = {0.001, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+
+    static final int TRAINING_CYCLES = 100;
+
+    // Порог точности, начиная с которого модель сохраняется для горячей замены
+    static final double SAVE_ACCURACY_THRESHOLD = 70.0;
+
     static {
         ConsoleHandler handler = new ConsoleHandler();
         handler.setLevel(Level.ALL);
@@ -32,28 +63,40 @@ public class NeuralNetworkTrainer {
         List<Double> successfulScores = new ArrayList<>();
         NeuralNetwork neuralNetwork = new NeuralNetwork();
 
-        // Загрузка валидационных данных из файла
-        List<String> validationLines = Files.readAllLines(Paths.get("C:/basketball_training_set.txt"));
-        int totalLines = validationLines.size();
-
-        // === Перебираемые параметры ===
-        
-        // Массив начальных весов между входным и скрытым слоями
-        double[] possibleInitialWeights = {0.001, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+        // Необязательные параметры: сжатая выборка (DatasetCompactor) для взвешенного обучения
+        // и --optimizer legacy|sgd|momentum|adam для обучения на ней через DenseNetwork
+        CompactedDataset compactedDataset = null;
+        String optimizerName = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--optimizer".equals(args[i])) {
+                optimizerName = args[++i];
+            } else {
+                compactedDataset = CompactedDataset.load(Paths.get(args[i]));
+            }
+        }
+        if (optimizerName != null && compactedDataset == null) {
+            throw new IllegalArgumentException("Параметр --optimizer требует сжатую выборку.");
+        }
 
-        // Массив скоростей обучения (learning rate)
-        double[] possibleLearningRates = {0.1, 0.2, 0.09, 0.08, 0.07, 0.06, 0.05, 0.04, 0.03, 0.02, 0.01};
+        // Загрузка валидационных данных из файла (тот же разбор, что и при обучении)
+        DatasetRows.LabeledRows validationRows = DatasetRows.load(Paths.get("C:/basketball_training_set.txt"));
+        int totalLines = validationRows.size();
 
-        // Массив весов между скрытым и выходным слоями (второй уровень)
-        double[] possibleHiddenToOutputWeights = {0.001, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9};
+        double[] possibleInitialWeights = POSSIBLE_INITIAL_WEIGHTS;
+        double[] possibleLearningRates = POSSIBLE_LEARNING_RATES;
+        double[] possibleHiddenToOutputWeights = POSSIBLE_HIDDEN_TO_OUTPUT_WEIGHTS;
 
-        int trainingCycles = 100;
+        int trainingCycles = TRAINING_CYCLES;
 
         long startTime = System.currentTimeMillis();
         long checkpointTime = startTime;
 
         LOGGER.info("Запуск процесса настройки нейросети...");
 
+        MetricsExporter metricsExporter = new MetricsExporter(MetricsRegistry.global());
+        metricsExporter.startSnapshotFile(METRICS_SNAPSHOT, 60);
+        FlightRecording.startContinuous(FLIGHT_RECORDING);
+
         neuralNetwork.setNumTrainingCycles(trainingCycles);
 
         for (double inputWeight : possibleInitialWeights) {
@@ -67,34 +110,37 @@ public class NeuralNetworkTrainer {
 
                     // Инициализация и тренировка
                     neuralNetwork.initializeNeuralNetwork();
-                    neuralNetwork.training("C:/basketball_training_set.txt");
+                    if (optimizerName != null) {
+                        neuralNetwork.trainingWeighted(compactedDataset, Optimizer.forName(optimizerName));
+                    } else if (compactedDataset != null) {
+                        neuralNetwork.trainingWeighted(compactedDataset);
+                    } else {
+                        neuralNetwork.training("C:/basketball_training_set.txt");
+                    }
 
+                    ValidationEvent validationEvent = new ValidationEvent();
+                    validationEvent.begin();
                     int correctCount = 0;
 
-                    for (String line : validationLines) {
-                        byte[] input = new byte[299];
-                        for (int i = 0; i < line.length() - 1; i++) {
-                            input[i] = Byte.parseByte(String.valueOf(line.charAt(i)));
-                        }
-                        byte result = (byte) line.charAt(line.length() - 1);
-
-                        String prediction = neuralNetwork.run(input);
-
-                        if ((prediction.equals("Ставим") && result == '1') ||
-                            (prediction.equals("Отказываемся от ставки") && result == '0')) {
+                    for (int row = 0; row < totalLines; row++) {
+                        boolean bet = neuralNetwork.predict(validationRows.inputs, row) > 0.5;
+                        if (bet == (validationRows.labels[row] == 1)) {
                             correctCount++;
                         }
                     }
 
                     double accuracy = (correctCount / (double) totalLines) * 100;
+                    validationEvent.finish("sweep", totalLines, accuracy);
 
                     LOGGER.info(String.format(
                             "Параметры: входной вес = %.3f, скорость обучения = %.3f, скрытый→выходной = %.3f | Точность: %.2f%%",
                             inputWeight, learningRate, hiddenWeight, accuracy));
 
-                    if (accuracy > 70.0) {
+                    if (accuracy > SAVE_ACCURACY_THRESHOLD) {
                         LOGGER.info("🎯 ВЫСОКАЯ ТОЧНОСТЬ: " + accuracy);
                         successfulScores.add(accuracy);
+                        saveModel(neuralNetwork, String.format(Locale.ROOT, "model-%.2f-%.3f-%.3f-%.3f",
+                                accuracy, inputWeight, learningRate, hiddenWeight));
                     } else if (accuracy > 62.0) {
                         LOGGER.info("✅ Целевая точность достигнута: " + accuracy);
                         successfulScores.add(accuracy);
@@ -120,5 +166,23 @@ public class NeuralNetworkTrainer {
         long seconds = (executionTimeMillis / 1000) % 60;
 
         LOGGER.info(String.format("⏱ Общее время выполнения: %d мин %d сек", minutes, seconds));
+
+        metricsExporter.writeSnapshot(METRICS_SNAPSHOT);
+        metricsExporter.close();
+    }
+
+    /**
+     * Сохраняет замороженную копию сети в каталог кандидатов. Работающий процесс её не видит,
+     * пока модель не развёрнута через {@link ModelPromoter}.
+     */
+    private static void saveModel(NeuralNetwork neuralNetwork, String name) {
+        try {
+            Files.createDirectories(MODEL_DIRECTORY);
+            Path target = MODEL_DIRECTORY.resolve(name + ModelFiles.EXTENSION);
+            ModelFiles.save(FloatInferenceModel.fromNetwork(neuralNetwork), target);
+            LOGGER.info("💾 Модель сохранена: " + target);
+        } catch (IOException e) {
+            LOGGER.warning("Не удалось сохранить модель: " + e.getMessage());
+        }
     }
 }
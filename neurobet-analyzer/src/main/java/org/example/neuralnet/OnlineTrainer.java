@@ -0,0 +1,209 @@
+package org.example.neuralnet;
+
+import org.example.metrics.LogRateLimiter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Онлайн-дообучение модели на только что завершившихся играх.
+ *
+ * <p>Векторы минут поступают в очередь без блокировки вызывающего потока (цикл парсера).
+ * Фоновый поток применяет к «теневой» копии сети шаги SGD ({@link NeuralNetwork#trainSample}),
+ * а по расписанию публикует замороженный снимок весов ({@link FloatInferenceModel})
+ * в {@link ModelRegistry}, где он атомарно заменяет текущую версию.
+ * Рабочая модель никогда не изменяется на месте.</p>
+ *
+ * <p>Развёртывание через каталог моделей ({@link ModelPromoter}) имеет приоритет: если в реестре
+ * появилась версия, опубликованная не этим тренером, теневая сеть засевается ею заново (с прежними
+ * параметрами обучения), и дообучение продолжается уже от неё. Векторы, применённые к прежней теневой
+ * сети после последней публикации, при этом теряются. Если внешняя модель не может засеять сеть
+ * (например, квантованная), тренер уступает: публикации приостанавливаются до следующего развёртывания.</p>
+ */
+public class OnlineTrainer {
+
+    private static final Logger logger = Logger.getLogger(OnlineTrainer.class.getName());
+
+    private static final int QUEUE_CAPACITY = 10_000;
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    // Имя модели из NeuralNetworkTrainer: model-<точность>-<входной вес>-<скорость обучения>-<скрытый вес>.nbm;
+    // SweepWorker добавляет -h<размер скрытого слоя> (сам размер берётся из файла модели)
+    private static final Pattern MODEL_NAME = Pattern.compile(
+            "model-[0-9.]+-([0-9.]+)-([0-9.]+)-([0-9.]+)(?:-h[0-9]+)?" + Pattern.quote(ModelFiles.EXTENSION));
+
+    private static final LogRateLimiter OVERFLOW_LOG_LIMITER = new LogRateLimiter(1, 60_000);
+
+    private NeuralNetwork shadowNetwork; // Только поток дообучения (и конструктор до его запуска)
+    private final ModelRegistry registry;
+    private final long publishIntervalMs;
+
+    private final BlockingQueue<byte[]> sampleQueue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong droppedSamples = new AtomicLong();
+
+    private ModelVersion baseVersion; // Версия в реестре, от которой ведётся теневая сеть: своя или внешняя
+    private boolean yielding; // Внешнюю модель нельзя дообучать — публикации приостановлены
+    private int samplesSincePublish;
+    private int publishedVersions;
+    private volatile boolean running;
+    private Thread workerThread;
+
+    /**
+     * @param seedNetwork       обученная сеть; копируется, исходный объект не изменяется
+     * @param registry          реестр, в который публикуются дообученные версии
+     * @param publishIntervalMs период публикации обновлённой модели
+     */
+    public OnlineTrainer(NeuralNetwork seedNetwork, ModelRegistry registry, long publishIntervalMs) {
+        this.shadowNetwork = seedNetwork.copy();
+        this.registry = registry;
+        this.publishIntervalMs = publishIntervalMs;
+        if (!registry.hasModel()) {
+            publish();
+        }
+    }
+
+    /**
+     * Создаёт тренер, засеянный сохранённой моделью. Гиперпараметры обучения
+     * берутся из имени файла, которое даёт {@code NeuralNetworkTrainer} или {@link SweepWorker}.
+     *
+     * @param modelFile         файл {@code *.nbm} из каталога моделей
+     * @param registry          реестр, в который публикуются дообученные версии
+     * @param publishIntervalMs период публикации обновлённой модели
+     * @throws IllegalArgumentException если имя файла не содержит гиперпараметров или модель не подходит к схеме
+     */
+    public static OnlineTrainer fromModelFile(Path modelFile, ModelRegistry registry, long publishIntervalMs)
+            throws IOException {
+        Matcher name = MODEL_NAME.matcher(modelFile.getFileName().toString());
+        if (!name.matches()) {
+            throw new IllegalArgumentException("Имя модели не содержит параметров обучения: " + modelFile);
+        }
+        double initialWeight = Double.parseDouble(name.group(1));
+        double learningRate = Double.parseDouble(name.group(2));
+        double initialHiddenWeight = Double.parseDouble(name.group(3));
+
+        NeuralNetwork seed = NeuralNetwork.fromModel(ModelFiles.load(modelFile), initialWeight, learningRate,
+                initialHiddenWeight);
+        logger.info(String.format(Locale.ROOT,
+                "Онлайн-дообучение засеяно моделью %s (входной вес %.3f, скорость %.3f, скрытый вес %.3f)",
+                modelFile.getFileName(), initialWeight, learningRate, initialHiddenWeight));
+        return new OnlineTrainer(seed, registry, publishIntervalMs);
+    }
+
+    /**
+     * Запускает фоновый поток дообучения.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        workerThread = new Thread(this::trainingLoop, "online-trainer");
+        workerThread.setDaemon(true);
+        workerThread.start();
+        logger.info("Онлайн-дообучение запущено, период публикации модели: " + publishIntervalMs + " мс");
+    }
+
+    /**
+     * Останавливает фоновый поток. Необработанные векторы остаются в очереди.
+     */
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (workerThread != null) {
+            workerThread.interrupt();
+            workerThread.join();
+            workerThread = null;
+        }
+    }
+
+    /**
+     * Ставит в очередь векторы минут одной игры. Не блокирует: при переполнении очереди векторы отбрасываются.
+     *
+     * @param minuteRows строки длиной {@link FeatureEncoder#ROW_SIZE} — входы и целевой результат
+     *                   в ячейке {@link FeatureEncoder#LABEL_INDEX}
+     * @return количество принятых векторов
+     */
+    public int submit(byte[][] minuteRows) {
+        int accepted = 0;
+        int dropped = 0;
+        for (byte[] row : minuteRows) {
+            if (row == null || row.length < FeatureEncoder.ROW_SIZE) continue;
+            if (sampleQueue.offer(row)) {
+                accepted++;
+            } else {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            long total = droppedSamples.addAndGet(dropped);
+            if (OVERFLOW_LOG_LIMITER.tryAcquire()) {
+                logger.warning("Очередь онлайн-обучения переполнена, всего отброшено векторов: " + total);
+            }
+        }
+        return accepted;
+    }
+
+    public int getPendingSamples() {
+        return sampleQueue.size();
+    }
+
+    private void trainingLoop() {
+        long nextPublish = System.currentTimeMillis() + publishIntervalMs;
+
+        while (running) {
+            ModelVersion active = registry.getCurrentVersion();
+            if (active != null && active != baseVersion) {
+                followExternalVersion(active);
+            }
+            try {
+                byte[] row = sampleQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (row != null) {
+                    shadowNetwork.trainSample(Arrays.copyOf(row, FeatureEncoder.INPUT_SIZE), row[FeatureEncoder.LABEL_INDEX]);
+                    samplesSincePublish++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            long now = System.currentTimeMillis();
+            if (now >= nextPublish) {
+                if (samplesSincePublish > 0 && !yielding) {
+                    publish();
+                    logger.info("Опубликована дообученная модель, новых векторов: " + samplesSincePublish);
+                    samplesSincePublish = 0;
+                }
+                nextPublish = now + publishIntervalMs;
+            }
+        }
+    }
+
+    private void publish() {
+        publishedVersions++;
+        baseVersion = registry.publish("online-" + publishedVersions, FloatInferenceModel.fromNetwork(shadowNetwork));
+    }
+
+    /**
+     * Переключает дообучение на версию, опубликованную в обход тренера (развёртывание через каталог).
+     */
+    private void followExternalVersion(ModelVersion version) {
+        baseVersion = version;
+        samplesSincePublish = 0;
+        if (version.getModel() instanceof FloatInferenceModel model) {
+            shadowNetwork = NeuralNetwork.fromModel(model, shadowNetwork.getInitialWeight(),
+                    shadowNetwork.getLearningRate(), shadowNetwork.initialHiddenWeight);
+            yielding = false;
+            logger.info("Онлайн-дообучение продолжено от развёрнутой модели " + version.getId());
+        } else {
+            yielding = true;
+            logger.warning("Развёрнутую модель " + version.getId()
+                    + " нельзя дообучать, публикации онлайн-дообучения приостановлены");
+        }
+    }
+}
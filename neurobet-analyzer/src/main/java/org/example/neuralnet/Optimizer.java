@@ -0,0 +1,52 @@
+package org.example.neuralnet;
+
+import java.util.Locale;
+
+/**
+ * Правило обновления весов {@link DenseNetwork}.
+ *
+ * <p>Сеть выполняет прямой проход и передаёт его состояние ({@link ForwardPass}) в {@link #step};
+ * правило само решает, менять ли веса и как. Градиентные правила наследуют {@link GradientOptimizer},
+ * историческое правило {@link NeuralNetwork} — {@link LegacySgdOptimizer}.</p>
+ */
+public interface Optimizer {
+
+    /**
+     * Готовит состояние под {@code parameterCount} весов. Вызывается один раз перед обучением.
+     */
+    void initialize(int parameterCount);
+
+    /**
+     * Шаг обучения на одном образце.
+     *
+     * @param weights      все веса сети в раскладке {@link ForwardPass}
+     * @param pass         прямой проход на этом образце
+     * @param learningRate скорость обучения на этом шаге
+     * @return {@code true}, если веса изменились
+     */
+    boolean step(double[] weights, ForwardPass pass, double learningRate);
+
+    /**
+     * {@code true}, если правило меняет веса только на ошибочно классифицированных образцах.
+     * Тогда вектор, встреченный в сжатой выборке {@code n} раз, обучается до {@code n} шагами
+     * с перепроверкой решения, а не одним шагом с множителем.
+     */
+    default boolean isErrorDriven() {
+        return false;
+    }
+
+    String getName();
+
+    /**
+     * Правило по имени параметра запуска: {@code legacy}, {@code sgd}, {@code momentum} или {@code adam}.
+     */
+    static Optimizer forName(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "legacy" -> new LegacySgdOptimizer();
+            case "sgd" -> new SgdOptimizer();
+            case "momentum" -> new MomentumOptimizer();
+            case "adam" -> new AdamOptimizer();
+            default -> throw new IllegalArgumentException("Неизвестный оптимизатор: " + name);
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.neuralnet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.logging.*;
+
+/**
+ * Сравнение оптимизаторов и расписаний скорости обучения по числу эпох до целевой точности.
+ *
+ * <p>Все варианты стартуют с одних и тех же весов {@link NeuralNetwork#initializeNeuralNetwork()}
+ * и обучаются на сжатой выборке ({@link DenseNetwork#trainEpoch}). После каждой эпохи точность
+ * считается на проверочной выборке (по умолчанию — на обучающей, как в {@link NeuralNetworkTrainer}).</p>
+ *
+ * <p>Параметры запуска: {@code <выборка> [--validation файл] [--target 70] [--epochs 100] [--hidden N]
+ * [--input-weight w] [--hidden-weight w] [--learning-rate r]}; последние три задают точку исторического
+ * правила и начальные веса.</p>
+ */
+public class OptimizerBenchmark {
+
+    private static final Logger LOGGER = Logger.getLogger(OptimizerBenchmark.class.getName());
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            LOGGER.warning("Использование: OptimizerBenchmark <выборка> [--validation файл] [--target 70] [--epochs 100]"
+                    + " [--hidden N] [--input-weight w] [--hidden-weight w] [--learning-rate r]");
+            return;
+        }
+
+        Path trainPath = Paths.get(args[0]);
+        Path validationPath = trainPath;
+        double target = NeuralNetworkTrainer.SAVE_ACCURACY_THRESHOLD;
+        int epochs = NeuralNetworkTrainer.TRAINING_CYCLES;
+        int hiddenSize = FeatureEncoder.INPUT_SIZE;
+        double inputWeight = 0.1;
+        double hiddenWeight = 0.1;
+        double legacyRate = 0.05;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--validation" -> validationPath = Paths.get(args[++i]);
+                case "--target" -> target = Double.parseDouble(args[++i]);
+                case "--epochs" -> epochs = Integer.parseInt(args[++i]);
+                case "--hidden" -> hiddenSize = Integer.parseInt(args[++i]);
+                case "--input-weight" -> inputWeight = Double.parseDouble(args[++i]);
+                case "--hidden-weight" -> hiddenWeight = Double.parseDouble(args[++i]);
+                case "--learning-rate" -> legacyRate = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        CompactedDataset train = new CompactedDataset();
+        train.addSegment(trainPath);
+        CompactedDataset validation = train;
+        if (!validationPath.equals(trainPath)) {
+            validation = new CompactedDataset();
+            validation.addSegment(validationPath);
+        }
+
+        NeuralNetwork initial = new NeuralNetwork();
+        initial.setInitialWeight(inputWeight);
+        initial.setInitialHiddenWeight(hiddenWeight);
+        initial.setHiddenSize(hiddenSize);
+        initial.initializeNeuralNetwork();
+
+        LOGGER.info(String.format(Locale.ROOT, "Выборка: %d векторов из %d строк; цель %.2f%%, не более %d эпох",
+                train.size(), train.getTotalRows(), target, epochs));
+
+        List<String> report = new ArrayList<>();
+        for (Variant variant : variants(legacyRate)) {
+            DenseNetwork network = DenseNetwork.fromNetwork(initial);
+            network.setOptimizer(variant.optimizer());
+
+            long start = System.nanoTime();
+            int reachedAt = -1;
+            double best = 0;
+            double accuracy = 0;
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                network.trainEpoch(train, variant.schedule().rate(epoch, epochs));
+                accuracy = network.accuracy(validation);
+                best = Math.max(best, accuracy);
+                if (accuracy >= target) {
+                    reachedAt = epoch + 1;
+                    break;
+                }
+            }
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            String line = String.format(Locale.ROOT, "%-20s %-28s %10s %8.2f%% %8.2f%% %8d мс",
+                    variant.optimizer().getName(), variant.schedule().getName(),
+                    reachedAt > 0 ? String.valueOf(reachedAt) : "> " + epochs, accuracy, best, elapsedMs);
+            LOGGER.info(line);
+            report.add(line);
+        }
+
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-20s %-28s %10s %9s %9s %11s%n",
+                "Оптимизатор", "Расписание", "Эпох", "Точность", "Лучшая", "Время"));
+        report.forEach(line -> table.append(line).append(System.lineSeparator()));
+        LOGGER.info(table.toString());
+    }
+
+    private static List<Variant> variants(double legacyRate) {
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant(new LegacySgdOptimizer(), LearningRateSchedule.constant(legacyRate)));
+        addScheduled(variants, SgdOptimizer::new, 0.1);
+        addScheduled(variants, MomentumOptimizer::new, 0.01);
+        addScheduled(variants, AdamOptimizer::new, 0.001);
+        return variants;
+    }
+
+    // Каждый вариант получает свой экземпляр: состояние оптимизатора не переносится между прогонами
+    private static void addScheduled(List<Variant> variants, Supplier<Optimizer> factory,
+                                     double learningRate) {
+        variants.add(new Variant(factory.get(), LearningRateSchedule.constant(learningRate)));
+        variants.add(new Variant(factory.get(), LearningRateSchedule.step(learningRate, 0.5, 10)));
+        variants.add(new Variant(factory.get(), LearningRateSchedule.cosine(learningRate, learningRate / 100)));
+    }
+
+    private record Variant(Optimizer optimizer, LearningRateSchedule schedule) {
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.neuralnet;
+
+import java.util.Arrays;
+
+/**
+ * Модель для инференса с симметричным int8-квантованием весов вход → скрытый слой.
+ *
+ * <p>Каждая строка весов (все связи одного входного нейрона) хранится как {@code byte}
+ * со своим масштабом: {@code w ≈ q * scale}, где {@code scale = max|w| / 127}.
+ * Веса скрытый → выход оставлены во float32 — их всего {@code hiddenSize}.
+ * Для сети 299×299 модель занимает около 90 КБ и целиком помещается в L2-кэш.</p>
+ */
+public final class QuantizedInferenceModel implements InferenceModel {
+
+    private final int inputSize;
+    private final int hiddenSize;
+    private final byte[] quantizedWeights;
+    private final float[] rowScales;
+    private final float[] hiddenWeights;
+
+    private final ThreadLocal<float[]> hiddenBuffer;
+
+    public QuantizedInferenceModel(int inputSize, int hiddenSize, byte[] quantizedWeights,
+                                   float[] rowScales, float[] hiddenWeights) {
+        if (quantizedWeights.length != inputSize * hiddenSize
+                || rowScales.length != inputSize
+                || hiddenWeights.length != hiddenSize) {
+            throw new IllegalArgumentException("Размеры массивов весов не совпадают с топологией сети.");
+        }
+        this.inputSize = inputSize;
+        this.hiddenSize = hiddenSize;
+        this.quantizedWeights = quantizedWeights;
+        this.rowScales = rowScales;
+        this.hiddenWeights = hiddenWeights;
+        this.hiddenBuffer = ThreadLocal.withInitial(() -> new float[hiddenSize]);
+    }
+
+    /**
+     * Квантует float32-модель построчно.
+     */
+    public static QuantizedInferenceModel quantize(FloatInferenceModel model) {
+        int inputSize = model.getInputSize();
+        int hiddenSize = model.getHiddenSize();
+        float[] weights = model.inputWeights();
+
+        byte[] quantized = new byte[weights.length];
+        float[] scales = new float[inputSize];
+
+        for (int i = 0; i < inputSize; i++) {
+            int row = i * hiddenSize;
+            float maxAbs = 0f;
+            for (int h = 0; h < hiddenSize; h++) {
+                maxAbs = Math.max(maxAbs, Math.abs(weights[row + h]));
+            }
+            float scale = maxAbs == 0f ? 1f : maxAbs / 127f;
+            scales[i] = scale;
+            for (int h = 0; h < hiddenSize; h++) {
+                int q = Math.round(weights[row + h] / scale);
+                quantized[row + h] = (byte) Math.max(-127, Math.min(127, q));
+            }
+        }
+
+        return new QuantizedInferenceModel(inputSize, hiddenSize, quantized, scales,
+                model.hiddenWeights().clone());
+    }
+
+    @Override
+    public double predictActive(int[] activeIndices, int count) {
+        float[] hidden = hiddenBuffer.get();
+        Arrays.fill(hidden, 0f);
+
+        for (int k = 0; k < count; k++) {
+            int input = activeIndices[k];
+            int row = input * hiddenSize;
+            float scale = rowScales[input];
+            for (int h = 0; h < hiddenSize; h++) {
+                hidden[h] += quantizedWeights[row + h] * scale;
+            }
+        }
+
+        double outputSum = 0;
+        for (int h = 0; h < hiddenSize; h++) {
+            outputSum += InferenceModel.sigmoid(hidden[h]) * hiddenWeights[h];
+        }
+        return InferenceModel.sigmoid(outputSum);
+    }
+
+    @Override
+    public void predictBatch(SparseBatch batch, double[] out) {
+        BatchInference.predict(batch, out, inputSize, hiddenSize, hiddenWeights, (input, hidden, offset) -> {
+            int row = input * hiddenSize;
+            float scale = rowScales[input];
+            for (int h = 0; h < hiddenSize; h++) {
+                hidden[offset + h] += quantizedWeights[row + h] * scale;
+            }
+        });
+    }
+
+    @Override
+    public int getInputSize() {
+        return inputSize;
+    }
+
+    @Override
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    @Override
+    public long getWeightBytes() {
+        return quantizedWeights.length + (long) (rowScales.length + hiddenWeights.length) * Float.BYTES;
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.neuralnet;
+
+/**
+ * Стохастический градиентный спуск: {@code w -= lr * g}.
+ */
+public final class SgdOptimizer extends GradientOptimizer {
+
+    @Override
+    protected void update(double[] weights, double[] gradients, int from, int to, double learningRate) {
+        for (int i = from; i < to; i++) {
+            weights[i] -= learningRate * gradients[i];
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "SGD";
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.neuralnet;
+
+import java.util.Arrays;
+
+/**
+ * Пакет разреженных входных векторов для {@link InferenceModel#predictBatch}.
+ *
+ * <p>Хранится как разреженная матрица по строкам: индексы активных входов всех образцов
+ * лежат подряд в одном массиве, {@code rowStart[i]..rowStart[i + 1]} — границы образца {@code i}.
+ * Образцы добавляются перечнем индексов ({@link FeatureEncoder#encodeActive}) или упакованным
+ * битсетом ({@link FeatureEncoder#encodeBits}). Пакет переиспользуется между опросами через {@link #clear()}.</p>
+ */
+public final class SparseBatch {
+
+    private int[] indices;
+    private int[] rowStart;
+    private int size;
+
+    public SparseBatch() {
+        this(64);
+    }
+
+    public SparseBatch(int expectedRows) {
+        int rows = Math.max(1, expectedRows);
+        indices = new int[rows * FeatureEncoder.MAX_ACTIVE];
+        rowStart = new int[rows + 1];
+    }
+
+    /**
+     * Добавляет образец, заданный индексами активных входов.
+     *
+     * @return номер образца в пакете
+     */
+    public int add(int[] activeIndices, int count) {
+        ensureCapacity(count);
+        int end = rowStart[size];
+        System.arraycopy(activeIndices, 0, indices, end, count);
+        rowStart[++size] = end + count;
+        return size - 1;
+    }
+
+    /**
+     * Добавляет образец из упакованного битсета в формате {@link FeatureEncoder#encodeBits}.
+     * Целевая ячейка {@link FeatureEncoder#LABEL_INDEX} не входит во вход модели и пропускается.
+     *
+     * @param bits   массив слов
+     * @param offset первое слово строки
+     * @return номер образца в пакете
+     */
+    public int addBits(long[] bits, int offset) {
+        ensureCapacity(FeatureEncoder.INPUT_SIZE);
+        int end = rowStart[size];
+        for (int w = 0; w < FeatureEncoder.WORDS_PER_ROW; w++) {
+            long word = bits[offset + w];
+            while (word != 0) {
+                int index = w * 64 + Long.numberOfTrailingZeros(word);
+                if (index < FeatureEncoder.INPUT_SIZE) {
+                    indices[end++] = index;
+                }
+                word &= word - 1;
+            }
+        }
+        rowStart[++size] = end;
+        return size - 1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Общее количество активных входов во всех образцах.
+     */
+    public int nonZeroCount() {
+        return rowStart[size];
+    }
+
+    int rowStart(int row) {
+        return rowStart[row];
+    }
+
+    int index(int position) {
+        return indices[position];
+    }
+
+    private void ensureCapacity(int count) {
+        if (size + 1 == rowStart.length) {
+            rowStart = Arrays.copyOf(rowStart, rowStart.length * 2);
+        }
+        int required = rowStart[size] + count;
+        if (required > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(required, indices.length * 2));
+        }
+    }
+}
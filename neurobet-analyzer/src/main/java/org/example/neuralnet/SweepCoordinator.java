@@ -0,0 +1,267 @@
+package org.example.neuralnet;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Координатор распределённого перебора гиперпараметров.
+ *
+ * <p>Слушает локальный TCP-порт и раздаёт точки перебора подключившимся {@link SweepWorker}.
+ * Протокол строковый, по одной команде в строке:
+ * <pre>
+ * исполнитель → HELLO &lt;имя&gt;
+ * координатор → TASK &lt;id&gt; ... | DONE
+ * исполнитель → RESULT &lt;id&gt; &lt;точность&gt; &lt;путь к модели или -&gt; | FAILED &lt;id&gt; &lt;причина&gt;
+ * </pre>
+ * Каждому исполнителю выдаётся одно задание за раз. Если соединение оборвалось или ответ не пришёл
+ * за отведённое время, задание возвращается в начало очереди и достаётся другому исполнителю;
+ * запоздавший результат повторно выполненного задания отбрасывается. Задание, упавшее
+ * {@value #MAX_ATTEMPTS} раза, считается неудачным.</p>
+ *
+ * <p>Каждый результат дописывается строкой в файл результатов, поэтому прогресс долгого
+ * перебора виден и после аварийной остановки. Неудачное задание тоже получает строку:
+ * вместо точности в ней {@code FAILED}.</p>
+ */
+public class SweepCoordinator implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(SweepCoordinator.class.getName());
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final List<SweepTask> tasks;
+    private final Path resultsFile;
+    private final long taskTimeoutMs;
+
+    private final BlockingDeque<SweepTask> pending = new LinkedBlockingDeque<>();
+    private final int[] attempts;
+    private final double[] accuracies;
+    private final String[] modelHandles;
+    private final boolean[] completed;
+    private final CountDownLatch remaining;
+
+    private ServerSocket serverSocket;
+    private volatile boolean closed;
+
+    /**
+     * @param tasks         точки перебора; идентификаторы — номера в списке
+     * @param resultsFile   файл, в который дописываются результаты
+     * @param taskTimeoutMs время ожидания результата одного задания; 0 — без ограничения
+     */
+    public SweepCoordinator(List<SweepTask> tasks, Path resultsFile, long taskTimeoutMs) {
+        this.tasks = tasks;
+        this.resultsFile = resultsFile;
+        this.taskTimeoutMs = taskTimeoutMs;
+        this.attempts = new int[tasks.size()];
+        this.accuracies = new double[tasks.size()];
+        this.modelHandles = new String[tasks.size()];
+        this.completed = new boolean[tasks.size()];
+        this.remaining = new CountDownLatch(tasks.size());
+        Arrays.fill(accuracies, Double.NaN);
+        pending.addAll(tasks);
+    }
+
+    /**
+     * Открывает порт на loopback и начинает принимать исполнителей.
+     *
+     * @param port порт или 0 для свободного
+     * @return фактический порт
+     */
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "sweep-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Координатор перебора: " + tasks.size() + " заданий, порт " + serverSocket.getLocalPort());
+        return serverSocket.getLocalPort();
+    }
+
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return remaining.await(timeout, unit);
+    }
+
+    public boolean isComplete() {
+        return remaining.getCount() == 0;
+    }
+
+    public long getRemainingCount() {
+        return remaining.getCount();
+    }
+
+    /**
+     * Точность задания или {@code NaN}, если задание не выполнено.
+     */
+    public synchronized double getAccuracy(int taskId) {
+        return accuracies[taskId];
+    }
+
+    /**
+     * Путь к сохранённой модели задания или {@code null}.
+     */
+    public synchronized String getModelHandle(int taskId) {
+        return modelHandles[taskId];
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> serve(socket), "sweep-worker-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.log(Level.WARNING, "Ошибка приёма подключения исполнителя", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String workerName = socket.getRemoteSocketAddress().toString();
+        SweepTask current = null;
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, taskTimeoutMs));
+            String hello = in.readLine();
+            if (hello == null || !hello.startsWith("HELLO ")) {
+                logger.warning("Неизвестный клиент " + workerName + ": " + hello);
+                return;
+            }
+            workerName = hello.substring("HELLO ".length()) + " (" + workerName + ")";
+            logger.info("Подключился исполнитель " + workerName);
+
+            while (true) {
+                current = nextTask();
+                if (current == null) {
+                    out.println("DONE");
+                    return;
+                }
+                out.println(current.toProtocolLine());
+
+                String reply = in.readLine();
+                if (reply == null) {
+                    throw new EOFException("соединение закрыто");
+                }
+                handleReply(current, reply, workerName);
+                current = null;
+            }
+        } catch (SocketTimeoutException e) {
+            logger.warning("Исполнитель " + workerName + " не ответил за " + taskTimeoutMs + " мс");
+        } catch (IOException e) {
+            if (!closed) {
+                logger.warning("Потерян исполнитель " + workerName + ": " + e.getMessage());
+            }
+        } finally {
+            if (current != null) {
+                reassign(current);
+            }
+        }
+    }
+
+    // Ждёт задание, пока перебор не завершён: задания потерянных исполнителей возвращаются в очередь
+    private SweepTask nextTask() {
+        try {
+            while (!isComplete() && !closed) {
+                SweepTask task = pending.poll(200, TimeUnit.MILLISECONDS);
+                if (task != null && !isCompleted(task)) {
+                    return task;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private void handleReply(SweepTask task, String reply, String workerName) throws IOException {
+        String[] parts = reply.split(" ", 4);
+        if (parts.length >= 3 && "FAILED".equals(parts[0]) && Integer.parseInt(parts[1]) == task.getId()) {
+            logger.warning("Задание " + task + " упало у " + workerName + ": " + reply.substring(parts[0].length() + parts[1].length() + 2));
+            retryOrFail(task);
+            return;
+        }
+        if (parts.length != 4 || !"RESULT".equals(parts[0]) || Integer.parseInt(parts[1]) != task.getId()) {
+            throw new IOException("Неожиданный ответ исполнителя: " + reply);
+        }
+
+        double accuracy = Double.parseDouble(parts[2]);
+        String modelHandle = "-".equals(parts[3]) ? null : parts[3];
+        if (complete(task, accuracy, modelHandle)) {
+            logger.info(String.format(Locale.ROOT, "%s | Точность: %.2f%% | %s | осталось %d",
+                    task, accuracy, workerName, remaining.getCount()));
+            appendResult(task, accuracy, modelHandle);
+        }
+    }
+
+    private synchronized boolean isCompleted(SweepTask task) {
+        return completed[task.getId()];
+    }
+
+    private synchronized boolean complete(SweepTask task, double accuracy, String modelHandle) {
+        if (completed[task.getId()]) {
+            return false; // Задание уже выполнил другой исполнитель после переназначения
+        }
+        completed[task.getId()] = true;
+        accuracies[task.getId()] = accuracy;
+        modelHandles[task.getId()] = modelHandle;
+        remaining.countDown();
+        return true;
+    }
+
+    private void reassign(SweepTask task) {
+        if (!isCompleted(task) && !closed) {
+            logger.info("Задание " + task + " возвращено в очередь");
+            retryOrFail(task);
+        }
+    }
+
+    private void retryOrFail(SweepTask task) {
+        int attempt;
+        synchronized (this) {
+            attempt = ++attempts[task.getId()];
+        }
+        if (attempt < MAX_ATTEMPTS) {
+            pending.addFirst(task);
+        } else if (complete(task, Double.NaN, null)) {
+            logger.warning("Задание " + task + " не выполнено за " + MAX_ATTEMPTS + " попытки");
+            appendRow(task, "FAILED", null);
+        }
+    }
+
+    private void appendResult(SweepTask task, double accuracy, String modelHandle) {
+        appendRow(task, String.format(Locale.ROOT, "%.4f", accuracy), modelHandle);
+    }
+
+    private synchronized void appendRow(SweepTask task, String outcome, String modelHandle) {
+        String line = String.format(Locale.ROOT, "%d\t%s\t%s\t%s\t%d\t%s\t%s%n", task.getId(),
+                task.getInputWeight(), task.getLearningRate(), task.getHiddenWeight(), task.getHiddenSize(),
+                outcome, modelHandle != null ? modelHandle : "-");
+        try {
+            Files.writeString(resultsFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось записать результат в " + resultsFile, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+    }
+}
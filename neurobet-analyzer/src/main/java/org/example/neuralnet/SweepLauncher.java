@@ -0,0 +1,163 @@
+package org.example.neuralnet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.*;
+
+/**
+ * Запуск распределённого перебора на одной машине: координатор в этом процессе
+ * и {@code N} исполнителей в отдельных JVM.
+ *
+ * <p>Сетка — параметры {@link NeuralNetworkTrainer}, умноженные на перечень размеров скрытого слоя.
+ * Упавший процесс исполнителя перезапускается, пока перебор не завершён; его задание координатор
+ * к этому моменту уже отдал другому исполнителю.</p>
+ *
+ * <p>Параметры запуска: {@code <выборка> [--workers N] [--hidden 299,150] [--cycles N]
+ * [--results файл] [--models каталог] [--task-timeout-min M] [--legacy | --optimizer имя]}.</p>
+ */
+public class SweepLauncher {
+
+    private static final Logger LOGGER = Logger.getLogger(SweepLauncher.class.getName());
+
+    // Каталог моделей перебора по умолчанию; парсер за ним не наблюдает, развёртывание — через ModelPromoter
+    static final String MODEL_DIRECTORY = "C:/sweep-models";
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            LOGGER.warning("Использование: SweepLauncher <выборка> [--workers N] [--hidden 299,150] [--cycles N]"
+                    + " [--results файл] [--models каталог] [--task-timeout-min M]"
+                    + " [--legacy | --optimizer legacy|sgd|momentum|adam]");
+            return;
+        }
+
+        Path dataset = Paths.get(args[0]);
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        int[] hiddenSizes = {299};
+        int cycles = NeuralNetworkTrainer.TRAINING_CYCLES;
+        Path resultsFile = Paths.get("C:/sweep-results.tsv");
+        String modelDirectory = MODEL_DIRECTORY;
+        long taskTimeoutMs = 0;
+        boolean legacy = false;
+        String optimizerName = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workers" -> workerCount = Integer.parseInt(args[++i]);
+                case "--hidden" -> hiddenSizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                case "--cycles" -> cycles = Integer.parseInt(args[++i]);
+                case "--results" -> resultsFile = Paths.get(args[++i]);
+                case "--models" -> modelDirectory = args[++i];
+                case "--task-timeout-min" -> taskTimeoutMs = TimeUnit.MINUTES.toMillis(Long.parseLong(args[++i]));
+                case "--legacy" -> legacy = true;
+                case "--optimizer" -> optimizerName = args[++i];
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        List<SweepTask> tasks = buildGrid(hiddenSizes, cycles);
+        long start = System.currentTimeMillis();
+
+        try (SweepCoordinator coordinator = new SweepCoordinator(tasks, resultsFile, taskTimeoutMs)) {
+            int port = coordinator.start(0);
+
+            List<String> workerCommand = new ArrayList<>(List.of(
+                    Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    SweepWorker.class.getName(),
+                    String.valueOf(port), dataset.toString(), "--models", modelDirectory));
+            if (legacy) {
+                workerCommand.add("--legacy");
+            }
+            if (optimizerName != null) {
+                workerCommand.add("--optimizer");
+                workerCommand.add(optimizerName);
+            }
+
+            Process[] workers = new Process[workerCount];
+            for (int w = 0; w < workerCount; w++) {
+                workers[w] = spawn(workerCommand, w);
+            }
+
+            int restarts = 0;
+            int maxRestarts = workerCount * 3;
+            while (!coordinator.awaitCompletion(1, TimeUnit.SECONDS)) {
+                for (int w = 0; w < workerCount; w++) {
+                    if (workers[w].isAlive()) continue;
+                    if (restarts == maxRestarts) {
+                        LOGGER.severe("Исполнители падают слишком часто, перебор остановлен; осталось заданий: "
+                                + coordinator.getRemainingCount());
+                        destroyAll(workers);
+                        return;
+                    }
+                    LOGGER.warning("Исполнитель " + w + " завершился с кодом " + workers[w].exitValue() + ", перезапуск");
+                    workers[w] = spawn(workerCommand, w);
+                    restarts++;
+                }
+            }
+
+            // Получив DONE, исполнители завершаются сами
+            for (Process worker : workers) {
+                if (!worker.waitFor(30, TimeUnit.SECONDS)) {
+                    worker.destroy();
+                }
+            }
+
+            logBest(tasks, coordinator);
+        }
+
+        long minutes = (System.currentTimeMillis() - start) / 60_000;
+        LOGGER.info(String.format("⏱ Перебор из %d точек на %d исполнителях: %d мин", tasks.size(), workerCount, minutes));
+    }
+
+    static List<SweepTask> buildGrid(int[] hiddenSizes, int cycles) {
+        List<SweepTask> tasks = new ArrayList<>();
+        for (int hiddenSize : hiddenSizes) {
+            for (double inputWeight : NeuralNetworkTrainer.POSSIBLE_INITIAL_WEIGHTS) {
+                for (double learningRate : NeuralNetworkTrainer.POSSIBLE_LEARNING_RATES) {
+                    for (double hiddenWeight : NeuralNetworkTrainer.POSSIBLE_HIDDEN_TO_OUTPUT_WEIGHTS) {
+                        tasks.add(new SweepTask(tasks.size(), inputWeight, learningRate, hiddenWeight, hiddenSize, cycles));
+                    }
+                }
+            }
+        }
+        return tasks;
+    }
+
+    private static Process spawn(List<String> command, int index) throws IOException {
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(new File("sweep-worker-" + index + ".log")))
+                .start();
+    }
+
+    private static void destroyAll(Process[] workers) {
+        for (Process worker : workers) {
+            worker.destroy();
+        }
+    }
+
+    private static void logBest(List<SweepTask> tasks, SweepCoordinator coordinator) {
+        List<SweepTask> ranked = new ArrayList<>(tasks);
+        ranked.removeIf(task -> Double.isNaN(coordinator.getAccuracy(task.getId())));
+        ranked.sort(Comparator.comparingDouble((SweepTask task) -> coordinator.getAccuracy(task.getId())).reversed());
+
+        LOGGER.info("🎉 Лучшие результаты:");
+        for (SweepTask task : ranked.subList(0, Math.min(10, ranked.size()))) {
+            String model = coordinator.getModelHandle(task.getId());
+            LOGGER.info(String.format(Locale.ROOT, "  %.2f%% %s%s", coordinator.getAccuracy(task.getId()), task,
+                    model != null ? " → " + model : ""));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.neuralnet;
+
+import java.util.Locale;
+
+/**
+ * Одна точка перебора гиперпараметров и её текстовое представление в протоколе
+ * координатор ↔ исполнитель: {@code TASK <id> <входной вес> <скорость> <скрытый→выходной> <скрытых> <циклов>}.
+ */
+public final class SweepTask {
+
+    private final int id;
+    private final double inputWeight;
+    private final double learningRate;
+    private final double hiddenWeight;
+    private final int hiddenSize;
+    private final int trainingCycles;
+
+    public SweepTask(int id, double inputWeight, double learningRate, double hiddenWeight,
+                     int hiddenSize, int trainingCycles) {
+        this.id = id;
+        this.inputWeight = inputWeight;
+        this.learningRate = learningRate;
+        this.hiddenWeight = hiddenWeight;
+        this.hiddenSize = hiddenSize;
+        this.trainingCycles = trainingCycles;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getInputWeight() {
+        return inputWeight;
+    }
+
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    public double getHiddenWeight() {
+        return hiddenWeight;
+    }
+
+    public int getHiddenSize() {
+        return hiddenSize;
+    }
+
+    public int getTrainingCycles() {
+        return trainingCycles;
+    }
+
+    /**
+     * Имя файла модели, как у {@link NeuralNetworkTrainer}, с размером скрытого слоя.
+     */
+    public String modelName(double accuracy) {
+        return String.format(Locale.ROOT, "model-%.2f-%.3f-%.3f-%.3f-h%d",
+                accuracy, inputWeight, learningRate, hiddenWeight, hiddenSize);
+    }
+
+    String toProtocolLine() {
+        return String.format(Locale.ROOT, "TASK %d %s %s %s %d %d",
+                id, inputWeight, learningRate, hiddenWeight, hiddenSize, trainingCycles);
+    }
+
+    static SweepTask parse(String line) {
+        String[] parts = line.split(" ");
+        if (parts.length != 7 || !"TASK".equals(parts[0])) {
+            throw new IllegalArgumentException("Некорректная строка задания: " + line);
+        }
+        return new SweepTask(Integer.parseInt(parts[1]), Double.parseDouble(parts[2]), Double.parseDouble(parts[3]),
+                Double.parseDouble(parts[4]), Integer.parseInt(parts[5]), Integer.parseInt(parts[6]));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "#%d (входной вес %.3f, скорость %.3f, скрытый→выходной %.3f, скрытых %d)",
+                id, inputWeight, learningRate, hiddenWeight, hiddenSize);
+    }
+}
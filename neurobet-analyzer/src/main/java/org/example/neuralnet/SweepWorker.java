@@ -0,0 +1,149 @@
+package org.example.neuralnet;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.*;
+
+/**
+ * Исполнитель распределённого перебора: получает точки от {@link SweepCoordinator},
+ * обучает сеть, оценивает точность и возвращает результат с путём к сохранённой модели.
+ *
+ * <p>Выборка читается один раз при старте через отображение файла в память ({@link CompactedDataset})
+ * и обучение идёт в взвешенном режиме; с {@code --legacy} — построчно, как {@link NeuralNetworkTrainer}.
+ * С {@code --optimizer} взвешенное обучение идёт через {@link DenseNetwork} с выбранным правилом
+ * ({@link Optimizer#forName(String)}).
+ * Точность считается на той же выборке, как и в {@link NeuralNetworkTrainer}, замороженной float32-копией
+ * сети через {@link Backtester}.</p>
+ *
+ * <p>Параметры запуска: {@code <порт координатора> <выборка> [--models каталог] [--legacy | --optimizer имя]}.
+ * Модели сохраняются в каталог перебора, а не в наблюдаемый парсером; в работу их разворачивает {@link ModelPromoter}.</p>
+ */
+public class SweepWorker {
+
+    private static final Logger LOGGER = Logger.getLogger(SweepWorker.class.getName());
+
+    static {
+        ConsoleHandler handler = new ConsoleHandler();
+        handler.setLevel(Level.ALL);
+        handler.setFormatter(new SimpleFormatter());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(handler);
+        LOGGER.setLevel(Level.INFO);
+    }
+
+    private final Path datasetPath;
+    private final Path modelDirectory;
+    private final boolean legacyTraining;
+    private final String optimizerName;
+    private final CompactedDataset dataset;
+
+    /**
+     * @param optimizerName правило обновления весов для взвешенного обучения или {@code null} для
+     *                      {@link NeuralNetwork#trainingWeighted(CompactedDataset)}
+     */
+    public SweepWorker(Path datasetPath, Path modelDirectory, boolean legacyTraining,
+                       String optimizerName) throws IOException {
+        if (legacyTraining && optimizerName != null) {
+            throw new IllegalArgumentException("Параметры --legacy и --optimizer несовместимы.");
+        }
+        this.datasetPath = datasetPath;
+        this.modelDirectory = modelDirectory;
+        this.legacyTraining = legacyTraining;
+        this.optimizerName = optimizerName;
+        if (legacyTraining) {
+            this.dataset = null;
+        } else {
+            this.dataset = new CompactedDataset();
+            dataset.addSegment(datasetPath);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            LOGGER.warning("Использование: SweepWorker <порт координатора> <выборка> [--models каталог] "
+                    + "[--legacy | --optimizer legacy|sgd|momentum|adam]");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        Path modelDirectory = Paths.get(SweepLauncher.MODEL_DIRECTORY);
+        boolean legacy = false;
+        String optimizerName = null;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--models" -> modelDirectory = Paths.get(args[++i]);
+                case "--legacy" -> legacy = true;
+                case "--optimizer" -> optimizerName = args[++i];
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        new SweepWorker(Paths.get(args[1]), modelDirectory, legacy, optimizerName).serve(port);
+    }
+
+    /**
+     * Выполняет задания координатора, пока тот не ответит {@code DONE} или не закроет соединение.
+     */
+    public void serve(int port) throws IOException {
+        String name = "worker-" + ProcessHandle.current().pid();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+
+            out.println("HELLO " + name);
+            String line;
+            while ((line = in.readLine()) != null && !"DONE".equals(line)) {
+                SweepTask task = SweepTask.parse(line);
+                try {
+                    out.println(execute(task));
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Задание " + task + " упало", e);
+                    out.println("FAILED " + task.getId() + " " + e);
+                }
+            }
+        }
+        LOGGER.info(name + ": перебор завершён");
+    }
+
+    private String execute(SweepTask task) throws IOException {
+        long start = System.currentTimeMillis();
+
+        NeuralNetwork network = new NeuralNetwork();
+        network.setInitialWeight(task.getInputWeight());
+        network.setLearningRate(task.getLearningRate());
+        network.setInitialHiddenWeight(task.getHiddenWeight());
+        network.setHiddenSize(task.getHiddenSize());
+        network.setNumTrainingCycles(task.getTrainingCycles());
+        network.initializeNeuralNetwork();
+        if (legacyTraining) {
+            network.training(datasetPath.toString());
+        } else if (optimizerName != null) {
+            network.trainingWeighted(dataset, Optimizer.forName(optimizerName));
+        } else {
+            network.trainingWeighted(dataset);
+        }
+
+        FloatInferenceModel model = FloatInferenceModel.fromNetwork(network);
+        double accuracy = new Backtester(model, new double[]{0.5}, 1.9, 1)
+                .run(List.of(datasetPath))
+                .getAccuracy(0);
+
+        String modelHandle = "-";
+        if (accuracy > NeuralNetworkTrainer.SAVE_ACCURACY_THRESHOLD) {
+            Files.createDirectories(modelDirectory);
+            Path target = modelDirectory.resolve(task.modelName(accuracy) + ModelFiles.EXTENSION);
+            ModelFiles.save(model, target);
+            modelHandle = target.toAbsolutePath().toString();
+        }
+
+        LOGGER.info(String.format(Locale.ROOT, "%s | Точность: %.2f%% | %d мс",
+                task, accuracy, System.currentTimeMillis() - start));
+        return String.format(Locale.ROOT, "RESULT %d %.4f %s", task.getId(), accuracy, modelHandle);
+    }
+}
@@ -1,10 +1,19 @@
 package org.example.parser;
 
+import org.example.metrics.Counter;
+import org.example.metrics.FlightRecording;
+import org.example.metrics.MetricsExporter;
+import org.example.metrics.MetricsRegistry;
+import org.example.neuralnet.ModelRegistry;
+import org.example.neuralnet.OnlineTrainer;
 import org.json.JSONObject;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -15,57 +24,275 @@ public class ApplicationEntryPoint {
 
     private static final Logger logger = Logger.getLogger(ApplicationEntryPoint.class.getName());
 
-    private static final int MIN_DELAY_MS = 3000; // Минимальная задержка между запросами (3 сек)
-    private static final int MAX_DELAY_MS = 5000; // Максимальная задержка между запросами (5 сек)
+    private static final String MODEL_DIRECTORY = "C:/models"; // Каталог моделей для горячей замены
+    private static final String SIGNALS_PATH = "C:/signals.txt"; // Файл сигналов живой оценки
+    private static final int METRICS_PORT = 9464; // Локальный эндпоинт http://127.0.0.1:9464/metrics
+    private static final String STATE_DIRECTORY = "C:/state"; // Снимки и журнал состояния игр
+    private static final String FLIGHT_RECORDING = "C:/parser.jfr"; // Запись JFR, сбрасывается при завершении
+    private static final long ONLINE_PUBLISH_INTERVAL_MS = 10 * 60 * 1000; // Период публикации дообученной модели
 
-    private final ResultWriter resultWriter = new ResultWriter();
+    private static final Counter UNCHANGED_RESPONSES = MetricsRegistry.global().counter("feed.responses.skipped");
+    private static final Counter EMPTY_RESPONSES = MetricsRegistry.global().counter("feed.responses.empty");
+
+    private final ResultWriter resultWriter;
+    private final GameSignalHandler signalHandler;
     private final HttpConnectionManager connectionManager = new HttpConnectionManager();
 
     private final Map<Integer, double[]> oddsMap = new HashMap<>();
 
     private final GameDataExtractor gameDataExtractor = new GameDataExtractor(connectionManager.getLinkProcessor(), oddsMap);
-    private final JsonGameMapper jsonGameMapper = new JsonGameMapper(gameDataExtractor);
+
+    private FeedSource feedSource;
+    private final ResponseChangeDetector responseChangeDetector = new ResponseChangeDetector();
+    private final PollScheduler pollScheduler = new PollScheduler();
 
     private final List<Game> games = new ArrayList<>();
 
+    private final ModelRegistry modelRegistry = new ModelRegistry();
+    private final LiveScoringStage scoringStage;
+    private final JsonGameMapper jsonGameMapper;
+
+    private GameStateJournal journal; // Необязательное сохранение состояния между перезапусками
+    private Path modelDirectory = Paths.get(MODEL_DIRECTORY); // null — реестр не наблюдает за каталогом
+    private int metricsPort = METRICS_PORT; // Отрицательный — эндпоинт метрик не открывается
+
+    public ApplicationEntryPoint(SignalSink signalSink) {
+        this(null, signalSink);
+    }
+
+    /**
+     * @param feedSource источник ответов ленты; {@code null} — живой HTTP-клиент.
+     * @param signalSink получатель сигналов живой оценки.
+     */
+    public ApplicationEntryPoint(FeedSource feedSource, SignalSink signalSink) {
+        this(feedSource, signalSink, new ResultWriter());
+    }
+
+    /**
+     * @param feedSource   источник ответов ленты; {@code null} — живой HTTP-клиент.
+     * @param signalSink   получатель сигналов живой оценки.
+     * @param resultWriter запись результатов; инструменты и замеры передают свой файл вместо рабочей выборки.
+     */
+    public ApplicationEntryPoint(FeedSource feedSource, SignalSink signalSink, ResultWriter resultWriter) {
+        this.resultWriter = resultWriter;
+        this.signalHandler = new GameSignalHandler(resultWriter);
+        this.feedSource = feedSource != null ? feedSource : connectionManager;
+        this.scoringStage = new LiveScoringStage(modelRegistry, signalSink);
+        this.jsonGameMapper = new JsonGameMapper(gameDataExtractor, scoringStage);
+    }
+
+    /**
+     * Параметры запуска:
+     * <ul>
+     *     <li>без параметров — живая лента;</li>
+     *     <li>{@code --capture <файл>} — живая лента с записью каждого ответа;</li>
+     *     <li>{@code --replay <файл> [--speed <N|max>]} — воспроизведение записи вместо HTTP;</li>
+     *     <li>{@code --online <файл модели>} — онлайн-дообучение на завершённых играх, начиная с сохранённой модели
+     *     (имя файла в формате {@code NeuralNetworkTrainer}: из него берутся параметры обучения);
+     *     модель, развёрнутая в каталог через {@code ModelPromoter}, имеет приоритет, и дообучение продолжается от неё.</li>
+     * </ul>
+     */
     public static void main(String[] args) throws IOException, InterruptedException, TelegramApiException {
-        ApplicationEntryPoint app = new ApplicationEntryPoint();
+        ParserLogging.configure();
+        FlightRecording.startContinuous(Paths.get(FLIGHT_RECORDING));
+
+        FeedSource feedSource = null;
+        String capturePath = null;
+        String replayPath = null;
+        String onlineModelPath = null;
+        double speed = 1.0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--capture" -> capturePath = args[i + 1];
+                case "--replay" -> replayPath = args[i + 1];
+                case "--online" -> onlineModelPath = args[i + 1];
+                case "--speed" -> speed = "max".equals(args[i + 1])
+                        ? FeedReplaySource.AS_FAST_AS_POSSIBLE : Double.parseDouble(args[i + 1]);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        if (replayPath != null) {
+            feedSource = new FeedReplaySource(replayPath, speed);
+        }
+
+        ApplicationEntryPoint app = new ApplicationEntryPoint(feedSource, new FileSignalSink(SIGNALS_PATH));
+        if (capturePath != null) {
+            app.enableCapture(new FeedCaptureWriter(capturePath));
+        }
+        if (replayPath == null) {
+            app.enableJournal(Paths.get(STATE_DIRECTORY));
+        }
+        if (onlineModelPath != null) {
+            OnlineTrainer onlineTrainer = OnlineTrainer.fromModelFile(Paths.get(onlineModelPath), app.getModelRegistry(),
+                    ONLINE_PUBLISH_INTERVAL_MS);
+            onlineTrainer.start();
+            app.setOnlineTrainer(onlineTrainer);
+        }
         app.run();
     }
 
+    /**
+     * Включает запись каждого полученного ответа ленты для последующего воспроизведения.
+     */
+    public void enableCapture(FeedCaptureWriter captureWriter) {
+        this.feedSource = new CapturingFeedSource(feedSource, captureWriter);
+    }
+
+    /**
+     * Восстанавливает игры и ссылки из снимка и журнала в каталоге и включает их ведение.
+     * Вызывается до {@link #run()}.
+     */
+    public void enableJournal(Path stateDirectory) throws IOException {
+        journal = new GameStateJournal(stateDirectory);
+        GameStateJournal.RecoveredState state = journal.recover();
+        games.addAll(state.getGames());
+        connectionManager.getLinkProcessor().restoreLinks(state.getLinks());
+        jsonGameMapper.setJournal(journal);
+        signalHandler.setJournal(journal);
+    }
+
+    /**
+     * Включает онлайн-дообучение: векторы каждой завершённой игры передаются в фоновый тренер.
+     *
+     * @param onlineTrainer запущенный тренер или {@code null}, чтобы отключить режим.
+     */
+    public void setOnlineTrainer(OnlineTrainer onlineTrainer) {
+        signalHandler.setOnlineTrainer(onlineTrainer);
+    }
+
+    /**
+     * Каталог, из которого {@link #run()} разворачивает модели. Вызывается до {@link #run()}.
+     *
+     * @param modelDirectory наблюдаемый каталог или {@code null}, чтобы не наблюдать ни за каким.
+     */
+    public void setModelDirectory(Path modelDirectory) {
+        this.modelDirectory = modelDirectory;
+    }
+
+    /**
+     * Порт эндпоинта метрик, который открывает {@link #run()}. Вызывается до {@link #run()}.
+     *
+     * @param metricsPort локальный порт или отрицательное число, чтобы не открывать эндпоинт.
+     */
+    public void setMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+    }
+
+    /**
+     * Реестр моделей процесса. Новые версии подхватываются из каталога моделей без остановки цикла.
+     */
+    public ModelRegistry getModelRegistry() {
+        return modelRegistry;
+    }
+
     /**
      * Основной цикл сбора данных и записи результата.
      */
     public void run() throws IOException, InterruptedException, TelegramApiException {
         logger.info("Логика парсера запущена");
 
-        resultWriter.writeStartLog(); // Отладочная запись старта программы
+        resultWriter.logStartupMarker(); // Метка старта в лог, заголовок схемы в новый файл выборки
+        if (modelDirectory != null) {
+            modelRegistry.watch(modelDirectory);
+        }
+        if (metricsPort >= 0) {
+            new MetricsExporter(MetricsRegistry.global()).startHttp(metricsPort);
+        }
 
         while (true) {
+            long delay;
             try {
-                JSONObject gameJson = connectionManager.fetchGameJson();
-
-                // Маппим JSON в список игр
-                jsonGameMapper.mapJsonToGames(gameJson, games);
-
+                String body = feedSource.fetchBody();
+                if (body == null) {
+                    logger.info("Источник ленты исчерпан, цикл парсера остановлен");
+                    shutdown();
+                    return;
+                }
+                handleBody(body, feedSource.getLastResponseNanos());
                 connectionManager.disconnect();
 
-            } catch (java.net.ConnectException e) {
-                logger.warning("Ошибка подключения: " + e.getMessage());
-                Thread.sleep(60 * 1000); // Подождать минуту перед повтором
-            }
+                // Пустое тело — сервер ответил ошибкой
+                delay = body.isEmpty() ? pollScheduler.afterError() : pollScheduler.afterPoll(games);
 
-            // Выводим отладочную информацию
-            for (Game game : games) {
-                logger.info(game.toString());
+            } catch (IOException e) {
+                if (!feedSource.isLive()) {
+                    // Повтор чтения записи даст ту же ошибку — останавливаемся, а не крутим цикл
+                    logger.severe("Ошибка чтения записанной ленты: " + e.getMessage() + ", цикл парсера остановлен");
+                    shutdown();
+                    return;
+                }
+                delay = pollScheduler.afterError();
+                logger.warning("Ошибка подключения: " + e.getMessage() + ", повтор через " + delay + " мс (ошибок подряд: "
+                        + pollScheduler.getConsecutiveErrors() + ")");
             }
 
+            logGames();
+
             // Обрабатываем сигналы на запись результатов
             handleSignal();
 
-            // Задержка между итерациями
-            int delay = new Random().nextInt(MAX_DELAY_MS - MIN_DELAY_MS + 1) + MIN_DELAY_MS;
-            Thread.sleep(delay);
+            if (journal != null) {
+                journal.endPoll();
+                journal.maybeSnapshot(games, connectionManager.getLinkProcessor());
+            }
+
+            // Следующий опрос — к ближайшей границе игровой минуты (воспроизведение задаёт темп само)
+            if (feedSource.isLive()) {
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    /**
+     * Закрывает источник ленты и журнал состояния.
+     */
+    private void shutdown() throws IOException {
+        feedSource.close();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Обрабатывает тело ответа ленты. Пустые ответы и ответы, идентичные предыдущему,
+     * отбрасываются до разбора JSON.
+     *
+     * @return {@code true}, если ответ был разобран и применён
+     */
+    boolean handleBody(String body, long responseNanos) {
+        if (body.isEmpty()) {
+            EMPTY_RESPONSES.increment(); // ошибка сервера, а не повтор ответа
+            return false;
+        }
+        if (!responseChangeDetector.hasChanged(body)) {
+            UNCHANGED_RESPONSES.increment();
+            return false;
+        }
+        processPoll(new JSONObject(body), responseNanos);
+        return true;
+    }
+
+    /**
+     * Обрабатывает один ответ сервера: маппит JSON в список игр, заполненные минуты сразу оцениваются моделью.
+     *
+     * @param gameJson      ответ сервера
+     * @param responseNanos момент получения ответа по {@link System#nanoTime()}
+     */
+    void processPoll(JSONObject gameJson, long responseNanos) {
+        scoringStage.beginPoll(responseNanos);
+        jsonGameMapper.mapJsonToGames(gameJson, games);
+        scoringStage.endPoll();
+    }
+
+    /**
+     * Выводит отладочную информацию об играх (только на уровне FINE — toString() на каждую игру дорог).
+     */
+    void logGames() {
+        if (logger.isLoggable(Level.FINE)) {
+            for (Game game : games) {
+                logger.fine(game.toString());
+            }
         }
     }
 
@@ -74,19 +301,6 @@ public class ApplicationEntryPoint {
      * Удаляет устаревшие игры.
      */
     public void handleSignal() {
-        logger.info("Запущена проверка сигналов для записи результатов");
-        logger.info("Количество игр в очереди: " + games.size());
-
-        Iterator<Game> iterator = games.iterator();
-        while (iterator.hasNext()) {
-            Game game = iterator.next();
-
-            if (game.isReadyToWrite()) {
-                resultWriter.writeGameResult(game);
-                game.markProcessed();
-            } else if (game.isExpired()) {
-                iterator.remove();
-            }
-        }
+        signalHandler.handle(games);
     }
 }
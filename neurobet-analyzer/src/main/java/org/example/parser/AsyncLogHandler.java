@@ -0,0 +1,119 @@
+package org.example.parser;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Асинхронный обработчик логов на кольцевом буфере.
+ *
+ * <p>Поток, который логирует (цикл опроса), только занимает слот в буфере и никогда не ждёт
+ * консоль или диск: при переполнении запись отбрасывается и учитывается в {@link #getDroppedCount()}.
+ * Форматирование и вывод выполняет отдельный поток-демон через вложенный {@link Handler}.</p>
+ *
+ * <p>Класс-источник записи заменяется именем логгера: автоматическое определение вызывающего
+ * метода обходит стек и в фоновом потоке дало бы неверный результат.</p>
+ */
+public class AsyncLogHandler extends Handler {
+
+    private static final long IDLE_PARK_NANOS = 1_000_000; // 1 мс
+
+    private final Handler delegate;
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<LogRecord> slots;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong readSequence = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final Thread drainThread;
+    private volatile boolean running = true;
+
+    /**
+     * @param delegate     обработчик, выполняющий фактический вывод
+     * @param capacityPow2 ёмкость буфера, степень двойки
+     */
+    public AsyncLogHandler(Handler delegate, int capacityPow2) {
+        if (Integer.bitCount(capacityPow2) != 1) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть степенью двойки: " + capacityPow2);
+        }
+        this.delegate = delegate;
+        this.capacity = capacityPow2;
+        this.mask = capacityPow2 - 1;
+        this.slots = new AtomicReferenceArray<>(capacityPow2);
+
+        this.drainThread = new Thread(this::drainLoop, "async-log-handler");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !isLoggable(record)) return;
+        record.setSourceClassName(record.getLoggerName());
+        record.setSourceMethodName(null);
+
+        while (true) {
+            long sequence = writeSequence.get();
+            if (sequence - readSequence.get() >= capacity) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            if (writeSequence.compareAndSet(sequence, sequence + 1)) {
+                slots.set((int) (sequence & mask), record);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        while (readSequence.get() < writeSequence.get() && running) {
+            Thread.onSpinWait();
+        }
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        drainThread.interrupt();
+        delegate.close();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            long sequence = readSequence.get();
+            int index = (int) (sequence & mask);
+            LogRecord record = slots.get(index);
+
+            if (record == null) {
+                // Буфер пуст либо производитель занял слот, но ещё не записал запись
+                if (sequence == writeSequence.get()) {
+                    delegate.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+
+            slots.set(index, null);
+            readSequence.lazySet(sequence + 1);
+            try {
+                delegate.publish(record);
+            } catch (RuntimeException e) {
+                reportError(e.getMessage(), e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.parser;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+/**
+ * Обёртка над источником ленты, которая сохраняет каждый ответ через {@link FeedCaptureWriter}.
+ * Ошибка записи не прерывает сбор данных.
+ */
+public class CapturingFeedSource implements FeedSource {
+
+    private static final Logger logger = Logger.getLogger(CapturingFeedSource.class.getName());
+
+    private final FeedSource delegate;
+    private final FeedCaptureWriter captureWriter;
+
+    public CapturingFeedSource(FeedSource delegate, FeedCaptureWriter captureWriter) {
+        this.delegate = delegate;
+        this.captureWriter = captureWriter;
+    }
+
+    @Override
+    public String fetchBody() throws IOException {
+        String body = delegate.fetchBody();
+        if (body != null) {
+            try {
+                captureWriter.append(System.currentTimeMillis(), body);
+            } catch (IOException e) {
+                logger.warning("Не удалось записать ответ в файл захвата: " + e.getMessage());
+            }
+        }
+        return body;
+    }
+
+    @Override
+    public long getLastResponseNanos() {
+        return delegate.getLastResponseNanos();
+    }
+
+    @Override
+    public boolean isLive() {
+        return delegate.isLive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            captureWriter.close();
+        } finally {
+            delegate.close();
+        }
+    }
+}
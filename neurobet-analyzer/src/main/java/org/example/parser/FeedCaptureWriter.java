@@ -0,0 +1,99 @@
+package org.example.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+
+/**
+ * Запись сырых ответов ленты в сжатый файл только на дозапись.
+ *
+ * <p>Каждая запись сжимается отдельно и не зависит от соседних: время получения (мс, {@code long}),
+ * длина тела в байтах ({@code int}), длина сжатых данных ({@code int}) и тело, сжатое deflate.
+ * Запись уходит в файл целиком сразу после получения ответа.</p>
+ *
+ * <p>Если прошлый запуск завершился аварийно посреди записи, при открытии файла оборванный хвост
+ * отрезается, и новые записи продолжают файл с последней целой записи.</p>
+ */
+public class FeedCaptureWriter implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(FeedCaptureWriter.class.getName());
+
+    static final int RECORD_HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED); // Запись идёт в цикле опроса
+    private byte[] compressed = new byte[64 * 1024];
+
+    public FeedCaptureWriter(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validEnd = lastRecordEnd(channel);
+        if (validEnd < channel.size()) {
+            logger.warning("Файл захвата оборван на " + validEnd + " из " + channel.size()
+                    + " байт, неполная запись отброшена: " + path);
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+    }
+
+    public synchronized void append(long timestampMillis, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        header.putLong(timestampMillis).putInt(bytes.length).putInt(length).flip();
+        ByteBuffer data = ByteBuffer.wrap(compressed, 0, length);
+        while (header.hasRemaining() || data.hasRemaining()) {
+            channel.write(new ByteBuffer[]{header, data});
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        deflater.end();
+        channel.close();
+    }
+
+    /**
+     * Конец последней целой записи файла: заголовок прочитан и все сжатые данные на месте.
+     */
+    private static long lastRecordEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        while (position + RECORD_HEADER_BYTES <= size) {
+            header.clear();
+            while (header.hasRemaining()) {
+                if (channel.read(header, position + header.position()) < 0) {
+                    return position;
+                }
+            }
+            header.flip();
+            header.getLong();
+            int rawLength = header.getInt();
+            int compressedLength = header.getInt();
+            if (rawLength < 0 || compressedLength < 0 || position + RECORD_HEADER_BYTES + compressedLength > size) {
+                break;
+            }
+            position += RECORD_HEADER_BYTES + compressedLength;
+        }
+        return position;
+    }
+}
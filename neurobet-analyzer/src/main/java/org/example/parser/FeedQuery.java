@@ -0,0 +1,112 @@
+package org.example.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запрос к ленте {@code Get1x2_VZip}: вид спорта, число событий, дополнительные фильтры
+ * и название периода, по которому {@link GameDataExtractor} отбирает игры и тоталы.
+ *
+ * <p>Список запросов задаётся текстовым файлом, по одному запросу в строке:
+ * {@code имя;спорт;количество;период;фильтры}. Пустые строки и строки с {@code #} пропускаются.
+ * Пример:
+ * <pre>
+ * basketball;3;50;1-я Четверть;antisports=188&amp;mode=4
+ * hockey;2;100;1-й Период;mode=4
+ * </pre></p>
+ */
+public final class FeedQuery {
+
+    static final String FEED_PATH = "/LiveFeed/Get1x2_VZip";
+
+    /** Исходный запрос парсера: баскетбол, 50 событий, первая четверть. */
+    public static final FeedQuery BASKETBALL = new FeedQuery("basketball", 3, 50, "1-я Четверть", "antisports=188&mode=4");
+
+    private final String name;
+    private final int sportId;
+    private final int count;
+    private final String periodName;
+    private final String filters;
+
+    /**
+     * @param name       имя запроса в логах и статусе шардов
+     * @param sportId    параметр {@code sports}
+     * @param count      параметр {@code count}
+     * @param periodName название периода в ответе ({@code NF}, {@code CPS}, {@code PN})
+     * @param filters    дополнительные параметры запроса без ведущего {@code &}, может быть пустым
+     */
+    public FeedQuery(String name, int sportId, int count, String periodName, String filters) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Число событий должно быть положительным: " + count);
+        }
+        this.name = name;
+        this.sportId = sportId;
+        this.count = count;
+        this.periodName = periodName;
+        this.filters = filters;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSportId() {
+        return sportId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getPeriodName() {
+        return periodName;
+    }
+
+    public String getFilters() {
+        return filters;
+    }
+
+    /**
+     * Путь запроса с параметрами, без хоста.
+     */
+    public String toPath() {
+        return FEED_PATH + "?sports=" + sportId + "&count=" + count + (filters.isEmpty() ? "" : "&" + filters);
+    }
+
+    /**
+     * Разбирает строку {@code имя;спорт;количество;период;фильтры}; фильтры можно опустить.
+     */
+    public static FeedQuery parse(String line) {
+        String[] parts = line.split(";", -1);
+        if (parts.length < 4 || parts.length > 5) {
+            throw new IllegalArgumentException("Некорректная строка запроса ленты: " + line);
+        }
+        return new FeedQuery(parts[0].trim(), Integer.parseInt(parts[1].trim()), Integer.parseInt(parts[2].trim()),
+                parts[3].trim(), parts.length == 5 ? parts[4].trim() : "");
+    }
+
+    /**
+     * Читает список запросов из файла.
+     */
+    public static List<FeedQuery> load(Path file) throws IOException {
+        List<FeedQuery> queries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            queries.add(parse(trimmed));
+        }
+        if (queries.isEmpty()) {
+            throw new IOException("В файле нет запросов ленты: " + file);
+        }
+        return queries;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + toPath() + ", период «" + periodName + "»)";
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.parser;
+
+import org.example.metrics.Counter;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.neuralnet.ModelRegistry;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Logger;
+
+/**
+ * Опрос одного запроса ленты {@link FeedQuery} для его шардов {@link IngestionShard}:
+ * один HTTP-запрос на цикл, строки ответа раздаются шардам по {@link IngestionShard#shardOf(int, int)}.
+ *
+ * <p>Параметр {@code subGames} берётся по очереди из {@link LinkProcessor} шардов, так что подробный
+ * ответ получают игры всех шардов. Шарды обрабатывают свои строки параллельно; следующий опрос
+ * назначается, когда все они закончили, поэтому шард по-прежнему обрабатывается не более чем
+ * одним потоком одновременно.</p>
+ */
+final class FeedQueryPoller {
+
+    private static final Logger logger = Logger.getLogger(FeedQueryPoller.class.getName());
+
+    private static final double RATE_SMOOTHING = 0.2; // Вес нового интервала в скользящем среднем
+
+    private final FeedQuery query;
+    private final List<IngestionShard> shards;
+    private final HttpConnectionManager connectionManager;
+    private final ResponseChangeDetector responseChangeDetector = new ResponseChangeDetector();
+    private final PollScheduler pollScheduler = new PollScheduler();
+
+    private final Counter fetchCounter;
+    private final LatencyHistogram lagHistogram;
+
+    private int linkCursor;
+    private long lastPollStartMillis;
+
+    // Поля статуса пишет поток опроса, читает поток статуса
+    private volatile double pollIntervalMs;
+    private volatile long schedulingLagMs;
+    private volatile long lastFetchMs;
+
+    /**
+     * @param query         запрос ленты
+     * @param shardCount    число шардов запроса
+     * @param feedHost      схема и хост ленты
+     * @param modelRegistry общий реестр моделей
+     * @param signalSink    общий получатель сигналов (потокобезопасный)
+     * @param resultWriter  общая запись завершённых игр
+     */
+    FeedQueryPoller(FeedQuery query, int shardCount, String feedHost, ModelRegistry modelRegistry,
+                    SignalSink signalSink, ResultWriter resultWriter) {
+        this.query = query;
+        List<IngestionShard> created = new ArrayList<>(shardCount);
+        for (int index = 0; index < shardCount; index++) {
+            created.add(new IngestionShard(query, index, modelRegistry, signalSink, resultWriter));
+        }
+        this.shards = Collections.unmodifiableList(created);
+        this.connectionManager = new HttpConnectionManager(feedHost, query, this::nextLink);
+
+        MetricsRegistry metrics = MetricsRegistry.global();
+        this.fetchCounter = metrics.counter("ingest." + query.getName() + ".fetches");
+        this.lagHistogram = metrics.histogram("ingest." + query.getName() + ".scheduling.lag.ms");
+    }
+
+    FeedQuery getQuery() {
+        return query;
+    }
+
+    List<IngestionShard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Один цикл: запрос ленты и раздача строк шардам; шарды обрабатывают их в {@code executor}.
+     *
+     * @param schedulingLagMs на сколько опрос начался позже назначенного
+     * @return задержка до следующего опроса, мс; готова, когда все шарды обработали ответ
+     */
+    CompletableFuture<Long> poll(long schedulingLagMs, Executor executor) {
+        long start = System.currentTimeMillis();
+        this.schedulingLagMs = schedulingLagMs;
+        lagHistogram.record(schedulingLagMs);
+        if (lastPollStartMillis > 0) {
+            long interval = start - lastPollStartMillis;
+            pollIntervalMs = pollIntervalMs == 0 ? interval : pollIntervalMs + RATE_SMOOTHING * (interval - pollIntervalMs);
+        }
+        lastPollStartMillis = start;
+
+        String failure = null;
+        JSONObject[] rows = null;
+        long responseNanos = 0;
+        try {
+            String body = connectionManager.fetchBody();
+            if (body.isEmpty()) {
+                failure = "пустой ответ";
+            } else {
+                responseNanos = connectionManager.getLastResponseNanos();
+                if (responseChangeDetector.hasChanged(body)) {
+                    rows = dispatch(new JSONObject(body));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e.toString();
+        } finally {
+            connectionManager.disconnect();
+            fetchCounter.increment();
+            lastFetchMs = System.currentTimeMillis() - start;
+        }
+
+        CompletableFuture<?>[] work = new CompletableFuture<?>[shards.size()];
+        for (int i = 0; i < work.length; i++) {
+            IngestionShard shard = shards.get(i);
+            if (failure != null) {
+                work[i] = CompletableFuture.runAsync(shard::fetchFailed, executor);
+            } else {
+                JSONObject shardRows = rows != null ? rows[i] : null;
+                long nanos = responseNanos;
+                work[i] = CompletableFuture.runAsync(() -> shard.process(shardRows, nanos), executor);
+            }
+        }
+
+        String reason = failure;
+        return CompletableFuture.allOf(work).thenApply(ignored -> reason != null ? failed(reason) : nextDelay());
+    }
+
+    /**
+     * Статус шардов запроса; частота, задержка запуска и ошибки подряд — общие для запроса.
+     */
+    void collectStatus(List<ShardStatus> status) {
+        double interval = pollIntervalMs;
+        double pollsPerMinute = interval > 0 ? 60_000 / interval : 0;
+        for (IngestionShard shard : shards) {
+            status.add(shard.getStatus(pollScheduler.getConsecutiveErrors(), pollsPerMinute, schedulingLagMs, lastFetchMs));
+        }
+    }
+
+    void close() {
+        connectionManager.close();
+    }
+
+    // Строки ответа по шардам; разбору нужен только массив Value
+    private JSONObject[] dispatch(JSONObject response) {
+        JSONArray[] parts = new JSONArray[shards.size()];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new JSONArray();
+        }
+        JSONArray gameList = response.optJSONArray("Value");
+        if (gameList != null) {
+            for (int i = 0; i < gameList.length(); i++) {
+                JSONObject gameObject = gameList.getJSONObject(i);
+                parts[IngestionShard.shardOf(gameObject.optInt("I"), parts.length)].put(gameObject);
+            }
+        }
+        JSONObject[] rows = new JSONObject[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            rows[i] = new JSONObject().put("Value", parts[i]);
+        }
+        return rows;
+    }
+
+    // Ближайший срок среди игр всех шардов
+    private long nextDelay() {
+        List<Game> games = new ArrayList<>();
+        for (IngestionShard shard : shards) {
+            games.addAll(shard.getGames());
+        }
+        return pollScheduler.afterPoll(games);
+    }
+
+    private long failed(String reason) {
+        long delay = pollScheduler.afterError();
+        logger.warning("Запрос " + query.getName() + ": ошибка опроса (" + reason + "), повтор через " + delay + " мс");
+        return delay;
+    }
+
+    // subGames по очереди из ссылок шардов; шард без ссылок пропускается
+    private String nextLink() {
+        for (int i = 0; i < shards.size(); i++) {
+            String link = shards.get(linkCursor).getLinkProcessor().getLink();
+            linkCursor = (linkCursor + 1) % shards.size();
+            if (!link.isEmpty()) {
+                return link;
+            }
+        }
+        return "";
+    }
+}
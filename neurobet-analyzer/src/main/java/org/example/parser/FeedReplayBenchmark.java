@@ -0,0 +1,57 @@
+package org.example.parser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Сквозной замер пропускной способности цикла парсера на записанной ленте без сети:
+ * разбор JSON → {@code GameDataExtractor} → {@code JsonGameMapper} → живая оценка → {@code ResultWriter}.
+ *
+ * <p>Параметры запуска: {@code <файл захвата> [количество проходов]}. Результаты пишутся во временный файл,
+ * который удаляется после замера.</p>
+ */
+public class FeedReplayBenchmark {
+
+    private static final Logger logger = Logger.getLogger(FeedReplayBenchmark.class.getName());
+
+    public static void main(String[] args) throws IOException {
+        ParserLogging.configure(Level.INFO, true);
+
+        if (args.length < 1) {
+            logger.warning("Использование: FeedReplayBenchmark <файл захвата> [проходов]");
+            return;
+        }
+        String capturePath = args[0];
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path outputFile = Files.createTempFile("feed-replay-benchmark", ".txt");
+        long polls = 0;
+        long bytes = 0;
+        long start = System.nanoTime();
+
+        for (int pass = 0; pass < passes; pass++) {
+            ApplicationEntryPoint app = new ApplicationEntryPoint(null, new InMemorySignalSink(),
+                    new ResultWriter(outputFile.toString()));
+            try (FeedReplaySource source = new FeedReplaySource(capturePath, FeedReplaySource.AS_FAST_AS_POSSIBLE)) {
+                String body;
+                while ((body = source.fetchBody()) != null) {
+                    app.handleBody(body, source.getLastResponseNanos());
+                    app.handleSignal();
+                    polls++;
+                    bytes += body.length();
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info(String.format(Locale.ROOT,
+                "Проходов: %d, опросов: %d за %.2f с — %.0f опросов/с, %.1f МБ/с JSON",
+                passes, polls, seconds, polls / seconds, bytes / seconds / (1024 * 1024)));
+
+        Files.deleteIfExists(outputFile);
+    }
+}
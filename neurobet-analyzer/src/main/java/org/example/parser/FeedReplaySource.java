@@ -0,0 +1,145 @@
+package org.example.parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Детерминированное воспроизведение записи {@link FeedCaptureWriter} вместо HTTP-клиента.
+ *
+ * <p>Скорость задаётся множителем: {@code 1.0} — реальное время (паузы как при записи),
+ * {@code N} — в N раз быстрее, {@link #AS_FAST_AS_POSSIBLE} — без пауз.</p>
+ *
+ * <p>Оборванная или повреждённая запись считается концом данных: воспроизведение завершается
+ * на последней целой записи, а не ошибкой чтения.</p>
+ */
+public class FeedReplaySource implements FeedSource {
+
+    private static final Logger logger = Logger.getLogger(FeedReplaySource.class.getName());
+
+    // Защита от мусорной длины в повреждённом заголовке
+    private static final int MAX_BODY_BYTES = 256 * 1024 * 1024;
+
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    private final DataInputStream in;
+    private final double speed;
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[64 * 1024];
+
+    private long previousTimestamp = -1;
+    private long previousWallNanos;
+    private long lastResponseNanos;
+    private long replayedCount;
+
+    /**
+     * @param path  файл захвата
+     * @param speed множитель скорости (больше нуля) или {@link #AS_FAST_AS_POSSIBLE}
+     */
+    public FeedReplaySource(String path, double speed) throws IOException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Скорость воспроизведения должна быть больше нуля: " + speed);
+        }
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 64 * 1024));
+        this.speed = speed;
+    }
+
+    @Override
+    public String fetchBody() throws IOException {
+        long timestamp;
+        byte[] body;
+        try {
+            timestamp = in.readLong();
+            int rawLength = in.readInt();
+            int compressedLength = in.readInt();
+            if (rawLength < 0 || rawLength > MAX_BODY_BYTES || compressedLength < 0 || compressedLength > MAX_BODY_BYTES) {
+                return corrupted("неверные длины в заголовке");
+            }
+            if (compressedLength > compressed.length) {
+                compressed = new byte[compressedLength];
+            }
+            in.readFully(compressed, 0, compressedLength);
+            body = inflate(compressedLength, rawLength);
+        } catch (EOFException e) {
+            return null; // конец записи (или оборванная последняя запись)
+        } catch (DataFormatException e) {
+            return corrupted(e.getMessage());
+        }
+        if (body == null) {
+            return corrupted("длина тела не совпадает с заголовком");
+        }
+
+        pace(timestamp);
+
+        lastResponseNanos = System.nanoTime();
+        replayedCount++;
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public long getLastResponseNanos() {
+        return lastResponseNanos;
+    }
+
+    @Override
+    public boolean isLive() {
+        return false;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    /**
+     * @return тело ответа или {@code null}, если распакованные данные не совпали по длине с заголовком
+     */
+    private byte[] inflate(int compressedLength, int rawLength) throws DataFormatException {
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        byte[] body = new byte[rawLength];
+        int length = 0;
+        while (!inflater.finished()) {
+            int inflated = inflater.inflate(body, length, rawLength - length);
+            if (inflated == 0 && !inflater.finished()
+                    && (length == rawLength || inflater.needsInput() || inflater.needsDictionary())) {
+                return null;
+            }
+            length += inflated;
+        }
+        return length == rawLength ? body : null;
+    }
+
+    private String corrupted(String reason) {
+        logger.warning("Повреждённая запись захвата после " + replayedCount + " ответов (" + reason
+                + "), воспроизведение завершено");
+        return null;
+    }
+
+    /**
+     * Выдерживает паузу между записями, пропорциональную записанной, с учётом множителя скорости.
+     */
+    private void pace(long timestamp) throws IOException {
+        if (speed != AS_FAST_AS_POSSIBLE && previousTimestamp >= 0) {
+            long targetNanos = previousWallNanos + (long) ((timestamp - previousTimestamp) * 1_000_000L / speed);
+            long waitNanos = targetNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Воспроизведение прервано");
+                }
+            }
+        }
+        previousTimestamp = timestamp;
+        previousWallNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.parser;
+
+import java.io.IOException;
+
+/**
+ * Источник ответов ленты {@code Get1x2_VZip}: живой HTTP-клиент или воспроизведение записи.
+ */
+public interface FeedSource extends AutoCloseable {
+
+    /**
+     * Получает очередной ответ.
+     *
+     * @return тело ответа (JSON) или {@code null}, если источник исчерпан
+     */
+    String fetchBody() throws IOException;
+
+    /**
+     * Момент получения последнего ответа по {@link System#nanoTime()}.
+     */
+    long getLastResponseNanos();
+
+    /**
+     * {@code true} для живой ленты: между запросами нужна пауза, иначе источник задаёт темп сам.
+     */
+    default boolean isLive() {
+        return true;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.parser;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Записывает сигналы построчно в локальный файл. Файл открывается один раз,
+ * буфер сбрасывается на диск в конце каждого опроса. Методы синхронизированы:
+ * в режиме {@link ShardedIngestion} в файл пишут несколько шардов.
+ */
+public class FileSignalSink implements SignalSink, AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(FileSignalSink.class.getName());
+
+    private final BufferedWriter writer;
+
+    public FileSignalSink(String path) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(path, true));
+    }
+
+    @Override
+    public synchronized void accept(ScoringSignal signal) {
+        try {
+            writer.write(String.format(Locale.ROOT, "%d;%d;%d;%d:%d;%.1f;%.4f;%s;%s",
+                    System.currentTimeMillis(), signal.getGameId(), signal.getMinute(),
+                    signal.getScoreTeamOne(), signal.getScoreTeamTwo(), signal.getBookmakerTotal(),
+                    signal.getProbability(), signal.isBet() ? "Ставим" : "Отказываемся от ставки",
+                    signal.getModelId()));
+            writer.newLine();
+        } catch (IOException e) {
+            logger.severe("Ошибка записи сигнала: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            logger.severe("Ошибка сброса файла сигналов: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -1,5 +1,8 @@
 package org.example.parser;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -32,6 +35,9 @@ public class Game {
     private boolean readyToWrite = false;
     private long selfDestructTimestamp = 2_000_000_000_000L;
 
+    private long feedFingerprint = -1; // Отпечаток (TS, S1, S2, тотал) последнего применённого события ленты
+    private int lastScoredMinute; // Последняя минута, переданная на живую оценку (0 — ещё ни одной)
+
     public Game(int gameId) {
         this.gameId = gameId;
     }
@@ -128,6 +134,22 @@ public class Game {
         this.selfDestructTimestamp = selfDestructTimestamp;
     }
 
+    public long getFeedFingerprint() {
+        return feedFingerprint;
+    }
+
+    public void setFeedFingerprint(long feedFingerprint) {
+        this.feedFingerprint = feedFingerprint;
+    }
+
+    public int getLastScoredMinute() {
+        return lastScoredMinute;
+    }
+
+    public void setLastScoredMinute(int lastScoredMinute) {
+        this.lastScoredMinute = lastScoredMinute;
+    }
+
     public long getLastUpdateTimestamp() {
         return lastUpdateTimestamp;
     }
@@ -136,6 +158,83 @@ public class Game {
         this.lastUpdateTimestamp = System.currentTimeMillis();
     }
 
+    /**
+     * Независимая копия игры для снимка состояния, снимается в потоке опроса.
+     */
+    Game copy() {
+        Game copy = new Game(gameId);
+        copy.teamOne = teamOne;
+        copy.teamTwo = teamTwo;
+        copy.gameTimeInSeconds = gameTimeInSeconds;
+        copy.lastUpdateTimestamp = lastUpdateTimestamp;
+        copy.teamOneScores = teamOneScores.clone();
+        copy.teamTwoScores = teamTwoScores.clone();
+        copy.bookmakerTotals = bookmakerTotals.clone();
+        copy.lockMinute = lockMinute.clone();
+        copy.finalTotalScore = finalTotalScore;
+        copy.finalTotalLocked = finalTotalLocked;
+        copy.readyToWrite = readyToWrite;
+        copy.selfDestructTimestamp = selfDestructTimestamp;
+        copy.feedFingerprint = feedFingerprint;
+        copy.lastScoredMinute = lastScoredMinute;
+        return copy;
+    }
+
+    /**
+     * Двоичная сериализация полного состояния игры для снимков и журнала.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(gameId);
+        out.writeUTF(teamOne != null ? teamOne : "");
+        out.writeUTF(teamTwo != null ? teamTwo : "");
+        out.writeInt(gameTimeInSeconds);
+        out.writeLong(lastUpdateTimestamp);
+
+        int lockBits = 0;
+        for (int minute = 0; minute < 9; minute++) {
+            out.writeShort(teamOneScores[minute]);
+            out.writeShort(teamTwoScores[minute]);
+            out.writeFloat((float) bookmakerTotals[minute]); // тоталы кратны 0.5 — float точен
+            if (lockMinute[minute]) lockBits |= 1 << minute;
+        }
+        out.writeShort(lockBits);
+
+        out.writeInt(finalTotalScore);
+        out.writeByte((finalTotalLocked ? 1 : 0) | (readyToWrite ? 2 : 0));
+        out.writeLong(selfDestructTimestamp);
+        out.writeLong(feedFingerprint);
+        out.writeByte(lastScoredMinute);
+    }
+
+    static Game readFrom(DataInput in) throws IOException {
+        Game game = new Game(in.readInt());
+        String teamOne = in.readUTF();
+        String teamTwo = in.readUTF();
+        game.teamOne = teamOne.isEmpty() ? null : teamOne;
+        game.teamTwo = teamTwo.isEmpty() ? null : teamTwo;
+        game.gameTimeInSeconds = in.readInt();
+        game.lastUpdateTimestamp = in.readLong();
+
+        for (int minute = 0; minute < 9; minute++) {
+            game.teamOneScores[minute] = in.readShort();
+            game.teamTwoScores[minute] = in.readShort();
+            game.bookmakerTotals[minute] = in.readFloat();
+        }
+        int lockBits = in.readShort();
+        for (int minute = 0; minute < 9; minute++) {
+            game.lockMinute[minute] = (lockBits & (1 << minute)) != 0;
+        }
+
+        game.finalTotalScore = in.readInt();
+        int flags = in.readByte();
+        game.finalTotalLocked = (flags & 1) != 0;
+        game.readyToWrite = (flags & 2) != 0;
+        game.selfDestructTimestamp = in.readLong();
+        game.feedFingerprint = in.readLong();
+        game.lastScoredMinute = in.readByte();
+        return game;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -1,5 +1,9 @@
 package org.example.parser;
 
+import org.example.metrics.Counter;
+import org.example.metrics.JsonExtractionEvent;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -7,6 +11,7 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntPredicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,12 +23,29 @@ public class GameDataExtractor {
 
     private static final Logger LOGGER = Logger.getLogger(GameDataExtractor.class.getName());
 
+    private static final LatencyHistogram PARSE_LATENCY = MetricsRegistry.global().histogram("extractor.parse.latency.ns");
+    private static final LatencyHistogram EVENTS_PER_POLL = MetricsRegistry.global().histogram("extractor.events.per.poll");
+    private static final Counter EVENTS = MetricsRegistry.global().counter("extractor.events");
+
     private final LinkProcessor linkProcessor;
     private final Map<Integer, double[]> coefficientMap;
+    private final String periodName;
+    private final IntPredicate gameFilter;
 
     public GameDataExtractor(LinkProcessor linkProcessor, Map<Integer, double[]> coefficientMap) {
+        this(linkProcessor, coefficientMap, FeedQuery.BASKETBALL.getPeriodName(), gameId -> true);
+    }
+
+    /**
+     * @param periodName название отслеживаемого периода (например, «1-я Четверть»)
+     * @param gameFilter отбор игр по идентификатору; остальные игры ответа пропускаются без разбора
+     */
+    public GameDataExtractor(LinkProcessor linkProcessor, Map<Integer, double[]> coefficientMap,
+                             String periodName, IntPredicate gameFilter) {
         this.linkProcessor = linkProcessor;
         this.coefficientMap = coefficientMap;
+        this.periodName = periodName;
+        this.gameFilter = gameFilter;
     }
 
     /**
@@ -33,78 +55,91 @@ public class GameDataExtractor {
      * @return Список игр, каждая из которых представлена списком параметров
      */
     public List<List<String>> processJson(JSONObject jsonObject) {
+        JsonExtractionEvent extractionEvent = new JsonExtractionEvent();
+        extractionEvent.begin();
+        long parseStart = System.nanoTime();
         List<List<String>> allGameData = new ArrayList<>();
-        int gameTime = 0;
-
         JSONArray gameList = jsonObject.optJSONArray("Value");
-        if (gameList != null) {
-            for (int i = 0; i < gameList.length(); i++) {
-                JSONObject gameObject = gameList.getJSONObject(i);
-                List<String> gameData = new ArrayList<>();
-
-                // Счёт команд
-                String teamOneScore = gameObject.optString("O1", "0");
-                String teamTwoScore = gameObject.optString("O2", "0");
-                gameData.add(teamOneScore);
-                gameData.add(teamTwoScore);
-
-                JSONObject scObject = gameObject.optJSONObject("SC");
-                boolean totalExtracted = false;
-                int s1 = 0, s2 = 0;
-
-                if (scObject != null) {
-                    JSONArray periodScores = scObject.optJSONArray("PS");
-                    if (periodScores != null) {
-                        for (int j = 0; j < periodScores.length(); j++) {
-                            JSONObject psObj = periodScores.getJSONObject(j);
-                            String periodName = psObj.optString("NF", "");
-                            s1 = psObj.optInt("S1", 100);
-                            s2 = psObj.optInt("S2", 100);
-
-                            if ("1-я Четверть".equals(periodName)) {
-                                gameData.add(String.valueOf(s1));
-                                gameData.add(String.valueOf(s2));
-                                break;
+        try {
+            int gameTime = 0;
+
+            if (gameList != null) {
+                for (int i = 0; i < gameList.length(); i++) {
+                    JSONObject gameObject = gameList.getJSONObject(i);
+                    int gameId = gameObject.optInt("I");
+                    if (!gameFilter.test(gameId)) continue;
+
+                    List<String> gameData = new ArrayList<>();
+
+                    // Счёт команд
+                    String teamOneScore = gameObject.optString("O1", "0");
+                    String teamTwoScore = gameObject.optString("O2", "0");
+                    gameData.add(teamOneScore);
+                    gameData.add(teamTwoScore);
+
+                    JSONObject scObject = gameObject.optJSONObject("SC");
+                    boolean totalExtracted = false;
+                    int s1 = 0, s2 = 0;
+
+                    if (scObject != null) {
+                        JSONArray periodScores = scObject.optJSONArray("PS");
+                        if (periodScores != null) {
+                            for (int j = 0; j < periodScores.length(); j++) {
+                                JSONObject psObj = periodScores.getJSONObject(j);
+                                String scoreName = psObj.optString("NF", "");
+                                s1 = psObj.optInt("S1", 100);
+                                s2 = psObj.optInt("S2", 100);
+
+                                if (periodName.equals(scoreName)) {
+                                    gameData.add(String.valueOf(s1));
+                                    gameData.add(String.valueOf(s2));
+                                    break;
+                                }
                             }
                         }
-                    }
 
-                    String ts = scObject.optString("TS", "1500");
-                    gameData.add(ts);
-                    gameTime = Integer.parseInt(ts);
+                        String ts = scObject.optString("TS", "1500");
+                        gameData.add(ts);
+                        gameTime = Integer.parseInt(ts);
 
-                    JSONObject fullScore = scObject.optJSONObject("FS");
-                    if (fullScore != null) {
-                        s1 = fullScore.optInt("S1", 100);
-                        s2 = fullScore.optInt("S2", 100);
-                        gameData.add(String.valueOf(s1));
-                        gameData.add(String.valueOf(s2));
-                    }
+                        JSONObject fullScore = scObject.optJSONObject("FS");
+                        if (fullScore != null) {
+                            s1 = fullScore.optInt("S1", 100);
+                            s2 = fullScore.optInt("S2", 100);
+                            gameData.add(String.valueOf(s1));
+                            gameData.add(String.valueOf(s2));
+                        }
 
-                    int serialKey = extractSerialKey(gameObject);
-                    gameData.add(String.valueOf(serialKey));
+                        int serialKey = extractSerialKey(gameObject);
+                        gameData.add(String.valueOf(serialKey));
 
-                    totalExtracted = extractTotalFromJson(gameObject, gameData, gameTime);
-                }
+                        totalExtracted = extractTotalFromJson(gameObject, gameData, gameTime);
+                    }
 
-                // Условия добавления игры в итоговый список
-                String currentPeriod = scObject != null ? scObject.optString("CPS", "") : "";
-                if ("1-я Четверть".equals(currentPeriod) && gameTime > 60) {
-                    if (totalExtracted && s1 != 100 && s2 != 100) {
+                    // Условия добавления игры в итоговый список
+                    String currentPeriod = scObject != null ? scObject.optString("CPS", "") : "";
+                    if (periodName.equals(currentPeriod) && gameTime > 60) {
+                        if (totalExtracted && s1 != 100 && s2 != 100) {
+                            allGameData.add(gameData);
+                        }
+                    } else if (gameTime >= 600 && gameTime < 720 && s1 != 100 && s2 != 100) {
+                        gameData.add("14.3");
                         allGameData.add(gameData);
                     }
-                } else if (gameTime >= 600 && gameTime < 720 && s1 != 100 && s2 != 100) {
-                    gameData.add("14.3");
-                    allGameData.add(gameData);
+
+                    // Обработка URL игры
+                    linkProcessor.prepareUrl(gameId);
                 }
 
-                // Обработка URL игры
-                int gameId = gameObject.optInt("I");
-                linkProcessor.prepareUrl(gameId);
+                EVENTS.add(gameList.length());
+                EVENTS_PER_POLL.record(gameList.length());
             }
-        }
 
-        return allGameData;
+            PARSE_LATENCY.recordSince(parseStart);
+            return allGameData;
+        } finally {
+            extractionEvent.finish(gameList != null ? gameList.length() : 0, allGameData.size());
+        }
     }
 
     /**
@@ -129,7 +164,7 @@ public class GameDataExtractor {
                     double total = eObj.getDouble("C");
                     int type = eObj.getInt("T");
 
-                    if ("1-я Четверть".equals(quarterName) && type == 9 && timestamp > 60 && timestamp <= 600) {
+                    if (periodName.equals(quarterName) && type == 9 && timestamp > 60 && timestamp <= 600) {
                         gameData.add(String.valueOf(total));
                         return true;
                     } else if (timestamp >= 600 && timestamp < 720) {
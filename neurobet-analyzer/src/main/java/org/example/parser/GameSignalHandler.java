@@ -0,0 +1,78 @@
+package org.example.parser;
+
+import org.example.metrics.GameStateTransitionEvent;
+import org.example.neuralnet.OnlineTrainer;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Обработка сигналов на запись результатов по реестру игр: завершённые игры записываются
+ * в {@link ResultWriter} (и передаются в онлайн-дообучение), устаревшие удаляются;
+ * каждое изменение отражается в журнале состояния, если он включён.
+ *
+ * <p>Общая для {@link ApplicationEntryPoint} и шардов {@link ShardedIngestion}. У каждого реестра игр
+ * свой обработчик; {@link ResultWriter} и {@link OnlineTrainer} потокобезопасны и могут быть общими.</p>
+ */
+public class GameSignalHandler {
+
+    private static final Logger logger = Logger.getLogger(GameSignalHandler.class.getName());
+
+    private final ResultWriter resultWriter;
+
+    private OnlineTrainer onlineTrainer; // Необязательное онлайн-дообучение на завершённых играх
+    private GameStateJournal journal; // Необязательное сохранение состояния между перезапусками
+
+    public GameSignalHandler(ResultWriter resultWriter) {
+        this.resultWriter = resultWriter;
+    }
+
+    /**
+     * @param onlineTrainer запущенный тренер или {@code null}, чтобы отключить режим.
+     */
+    public void setOnlineTrainer(OnlineTrainer onlineTrainer) {
+        this.onlineTrainer = onlineTrainer;
+    }
+
+    /**
+     * @param journal журнал состояния игр или {@code null}, чтобы не вести его.
+     */
+    public void setJournal(GameStateJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Обрабатывает игры, удовлетворяющие условиям, и сохраняет результат.
+     * Удаляет устаревшие игры.
+     *
+     * @param games реестр игр; устаревшие игры удаляются из него
+     */
+    public void handle(List<Game> games) {
+        logger.fine("Запущена проверка сигналов для записи результатов");
+        logger.fine(() -> "Количество игр в очереди: " + games.size());
+
+        Iterator<Game> iterator = games.iterator();
+        while (iterator.hasNext()) {
+            Game game = iterator.next();
+
+            if (game.isReadyToWrite()) {
+                resultWriter.writeGameResult(game);
+                if (onlineTrainer != null) {
+                    onlineTrainer.submit(resultWriter.encodeGame(game));
+                }
+                game.markProcessed();
+                GameStateTransitionEvent.emit(game.getGameId(), GameStateTransitionEvent.WRITTEN, game.getGameTimeInSeconds());
+                if (journal != null) {
+                    journal.recordUpdate(game);
+                }
+            } else if (game.isExpired()) {
+                iterator.remove();
+                GameStateTransitionEvent.emit(game.getGameId(), GameStateTransitionEvent.EXPIRED, game.getGameTimeInSeconds());
+                if (journal != null) {
+                    journal.recordRemoval(game.getGameId());
+                }
+            }
+        }
+    }
+}
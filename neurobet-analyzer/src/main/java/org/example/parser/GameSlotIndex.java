@@ -0,0 +1,109 @@
+package org.example.parser;
+
+/**
+ * Отображение {@code gameId → слот} на открытой адресации с линейным пробированием,
+ * без упаковки ключей в {@link Integer}. Удаление — обратным сдвигом, без надгробий.
+ * Не потокобезопасно.
+ */
+final class GameSlotIndex {
+
+    private static final int NO_SLOT = -1;
+
+    private int[] keys;
+    private int[] slots; // Номер слота + 1; 0 — пустая ячейка
+    private int mask;
+    private int size;
+
+    GameSlotIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int get(int gameId) {
+        for (int i = hash(gameId) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == gameId) {
+                return slots[i] - 1;
+            }
+        }
+        return NO_SLOT;
+    }
+
+    void put(int gameId, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length << 1);
+        }
+        int i = hash(gameId) & mask;
+        while (slots[i] != 0) {
+            if (keys[i] == gameId) {
+                slots[i] = slot + 1;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = gameId;
+        slots[i] = slot + 1;
+        size++;
+    }
+
+    /**
+     * @return освобождённый слот или {@value #NO_SLOT}
+     */
+    int remove(int gameId) {
+        int i = hash(gameId) & mask;
+        while (slots[i] != 0) {
+            if (keys[i] == gameId) {
+                int slot = slots[i] - 1;
+                shiftBack(i);
+                size--;
+                return slot;
+            }
+            i = (i + 1) & mask;
+        }
+        return NO_SLOT;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Сдвигает следующие записи цепочки на освободившуюся ячейку, чтобы поиск не обрывался
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (slots[i] == 0) {
+                break;
+            }
+            int home = hash(keys[i]) & mask;
+            // Запись можно перенести, если её исходная ячейка не лежит между дырой и текущей позицией
+            boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                keys[hole] = keys[i];
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldSlots = slots;
+        keys = new int[capacity];
+        slots = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                put(oldKeys[i], oldSlots[i] - 1);
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9; // Фибоначчиево перемешивание: идентификаторы игр идут почти подряд
+        return h ^ (h >>> 16);
+    }
+}
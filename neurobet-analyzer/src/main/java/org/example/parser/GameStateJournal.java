@@ -0,0 +1,329 @@
+package org.example.parser;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Переживающее падение процесса хранилище состояния живых игр.
+ *
+ * <p>Состояние складывается из периодического двоичного снимка ({@code snapshot.bin}: все игры
+ * и активные ссылки {@link LinkProcessor}) и журнала изменений между снимками
+ * ({@code wal-N.log}: полное состояние каждой изменённой игры или её удаление).
+ * Запись журнала сбрасывается на диск один раз за опрос.</p>
+ *
+ * <p>Снимок снимается в потоке опроса копированием игр, а пишется в фоновом потоке
+ * во временный файл с атомарной заменой. Перед копированием журнал переключается на новый
+ * сегмент; после записи снимка сегменты, вошедшие в него, удаляются. При старте
+ * {@link #recover()} читает снимок и доигрывает оставшиеся сегменты. Оборванная при
+ * падении последняя запись журнала отбрасывается.</p>
+ *
+ * <p>Ссылки хранятся только в снимках: лента и так перерегистрирует их на каждом опросе.</p>
+ *
+ * <p>Снимок и каждый сегмент журнала начинаются с версии формата игры. Состояние другой версии
+ * не восстанавливается (с предупреждением): игры заново наберутся из ленты.</p>
+ */
+public class GameStateJournal implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(GameStateJournal.class.getName());
+
+    private static final int SNAPSHOT_MAGIC = 0x4E425353; // "NBSS"
+    private static final int SNAPSHOT_VERSION = 2; // 2 — в игре сохраняется последняя оценённая минута
+    private static final int WAL_MAGIC = 0x4E42574C; // "NBWL"
+
+    private static final byte RECORD_UPSERT = 1;
+    private static final byte RECORD_REMOVE = 2;
+
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MS = 30_000;
+
+    private final Path directory;
+    private final long snapshotIntervalMs;
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-state-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private DataOutputStream wal;
+    private long walSegment;
+    private long lastSnapshotMillis = System.currentTimeMillis();
+
+    public GameStateJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SNAPSHOT_INTERVAL_MS);
+    }
+
+    /**
+     * @param directory          каталог снимков и журнала
+     * @param snapshotIntervalMs минимальный интервал между снимками
+     */
+    public GameStateJournal(Path directory, long snapshotIntervalMs) throws IOException {
+        this.directory = directory;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Восстановленное состояние: игры в порядке добавления и ссылки с временем регистрации.
+     */
+    public static final class RecoveredState {
+        private final List<Game> games;
+        private final Map<Integer, Long> links;
+
+        RecoveredState(List<Game> games, Map<Integer, Long> links) {
+            this.games = games;
+            this.links = links;
+        }
+
+        public List<Game> getGames() {
+            return games;
+        }
+
+        public Map<Integer, Long> getLinks() {
+            return links;
+        }
+    }
+
+    /**
+     * Восстанавливает состояние из снимка и журнала и открывает новый сегмент журнала.
+     * Вызывается один раз при старте до первой записи.
+     */
+    public RecoveredState recover() throws IOException {
+        long startTime = System.nanoTime();
+        Map<Integer, Game> games = new LinkedHashMap<>();
+        Map<Integer, Long> links = new HashMap<>();
+        long firstSegment = 0;
+
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotPath)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) {
+                    throw new IOException("Неизвестный формат снимка: " + snapshotPath);
+                }
+                int version = in.readInt();
+                if (version != SNAPSHOT_VERSION) {
+                    logger.warning("Снимок состояния версии " + version + " не восстановлен (ожидается "
+                            + SNAPSHOT_VERSION + ")");
+                } else {
+                    firstSegment = in.readLong();
+                    int gameCount = in.readInt();
+                    for (int i = 0; i < gameCount; i++) {
+                        Game game = Game.readFrom(in);
+                        games.put(game.getGameId(), game);
+                    }
+                    int linkCount = in.readInt();
+                    for (int i = 0; i < linkCount; i++) {
+                        links.put(in.readInt(), in.readLong());
+                    }
+                }
+            }
+        }
+
+        int replayed = 0;
+        long lastSegment = firstSegment - 1;
+        for (long segment : listSegments()) {
+            lastSegment = Math.max(lastSegment, segment);
+            if (segment < firstSegment) {
+                Files.deleteIfExists(segmentPath(segment)); // Уже вошёл в снимок
+                continue;
+            }
+            replayed += replaySegment(segmentPath(segment), games);
+        }
+
+        walSegment = lastSegment + 1;
+        openSegment(walSegment);
+
+        long elapsedMs = (System.nanoTime() - startTime) / 1_000_000;
+        logger.info("Состояние восстановлено: игр " + games.size() + ", ссылок " + links.size()
+                + ", записей журнала " + replayed + " за " + elapsedMs + " мс");
+        return new RecoveredState(new ArrayList<>(games.values()), links);
+    }
+
+    /**
+     * Записывает в журнал текущее состояние игры. Данные попадают на диск в {@link #endPoll()}.
+     */
+    public void recordUpdate(Game game) {
+        try {
+            wal.writeByte(RECORD_UPSERT);
+            game.writeTo(wal);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось записать игру в журнал", e);
+        }
+    }
+
+    /**
+     * Записывает в журнал удаление устаревшей игры.
+     */
+    public void recordRemoval(int gameId) {
+        try {
+            wal.writeByte(RECORD_REMOVE);
+            wal.writeInt(gameId);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось записать удаление игры в журнал", e);
+        }
+    }
+
+    /**
+     * Сбрасывает накопленные за опрос записи журнала на диск.
+     */
+    public void endPoll() {
+        try {
+            wal.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось сбросить журнал на диск", e);
+        }
+    }
+
+    /**
+     * Снимает снимок, если с предыдущего прошло больше интервала.
+     * Копирование выполняется в вызывающем потоке, запись на диск — в фоновом.
+     */
+    public void maybeSnapshot(List<Game> games, LinkProcessor linkProcessor) {
+        long now = System.currentTimeMillis();
+        if (now - lastSnapshotMillis < snapshotIntervalMs) {
+            return;
+        }
+        lastSnapshotMillis = now;
+
+        List<Game> gameCopies = new ArrayList<>(games.size());
+        for (Game game : games) {
+            gameCopies.add(game.copy());
+        }
+        Map<Integer, Long> links = linkProcessor != null ? linkProcessor.snapshotLinks() : Collections.emptyMap();
+
+        // Всё, что запишется после этой точки, пойдёт в новый сегмент и будет доиграно поверх снимка
+        long coveredSegment = walSegment;
+        try {
+            wal.close();
+            walSegment++;
+            openSegment(walSegment);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось переключить сегмент журнала", e);
+            return;
+        }
+
+        long firstSegment = walSegment;
+        snapshotExecutor.execute(() -> writeSnapshot(gameCopies, links, firstSegment, coveredSegment));
+    }
+
+    private void writeSnapshot(List<Game> games, Map<Integer, Long> links, long firstSegment, long coveredSegment) {
+        long startTime = System.nanoTime();
+        Path snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        Path tempPath = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(tempPath.toFile());
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(firstSegment);
+                out.writeInt(games.size());
+                for (Game game : games) {
+                    game.writeTo(out);
+                }
+                out.writeInt(links.size());
+                for (Map.Entry<Integer, Long> entry : links.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            for (long segment : listSegments()) {
+                if (segment <= coveredSegment) {
+                    Files.deleteIfExists(segmentPath(segment));
+                }
+            }
+            logger.fine(() -> "Снимок состояния записан: игр " + games.size()
+                    + " за " + (System.nanoTime() - startTime) / 1_000_000 + " мс");
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Не удалось записать снимок состояния", e);
+        }
+    }
+
+    private int replaySegment(Path path, Map<Integer, Game> games) throws IOException {
+        if (Files.size(path) == 0) {
+            return 0; // Сегмент открыт, но до падения в него ничего не сброшено
+        }
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != WAL_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                logger.warning("Сегмент журнала " + path + " другой версии формата пропущен");
+                return 0;
+            }
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                if (type == RECORD_UPSERT) {
+                    Game game = Game.readFrom(in);
+                    games.put(game.getGameId(), game);
+                } else if (type == RECORD_REMOVE) {
+                    games.remove(in.readInt());
+                } else {
+                    logger.warning("Повреждённая запись журнала в " + path + ", остаток сегмента пропущен");
+                    break;
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            logger.warning("Оборванная запись в конце " + path + " отброшена");
+        }
+        return records;
+    }
+
+    private void openSegment(long segment) throws IOException {
+        wal = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.APPEND),
+                1 << 16));
+        wal.writeInt(WAL_MAGIC);
+        wal.writeInt(SNAPSHOT_VERSION); // Записи журнала — игры в том же формате, что и в снимке
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(WAL_PREFIX + segment + WAL_SUFFIX);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, WAL_PREFIX + "*" + WAL_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(WAL_PREFIX.length(), name.length() - WAL_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warning("Посторонний файл в каталоге журнала: " + name);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    /**
+     * Сбрасывает журнал и дожидается записи последнего снимка.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (wal != null) {
+            wal.close();
+        }
+    }
+}
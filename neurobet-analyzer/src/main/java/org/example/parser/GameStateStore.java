@@ -0,0 +1,431 @@
+package org.example.parser;
+
+import org.example.neuralnet.FeatureEncoder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Компактное хранилище состояния игр в виде структуры массивов.
+ *
+ * <p>Вместо отдельного объекта {@link Game} с четырьмя массивами и строками на каждую игру
+ * все поля лежат в общих примитивных массивах, индексируемых номером слота. Поминутные
+ * счета и тоталы хранятся подряд ({@code slot * 9 + minuteIndex}), блокировки минут —
+ * девятибитной маской. Названия команд интернируются в общую таблицу, в слоте хранится
+ * только номер названия; у названия есть счётчик ссылок, и когда его перестаёт использовать
+ * последняя игра, номер освобождается для новых названий. Слот выдаётся по {@code gameId} через {@link GameSlotIndex},
+ * освобождённые слоты переиспользуются из списка свободных.</p>
+ *
+ * <p>Методы доступа повторяют {@link Game}, но принимают номер слота. Для пакетной оценки
+ * занятые слоты перебираются от 0 до {@link #getHighWaterMark()} с проверкой {@link #isActive(int)}.
+ * Хранилище не потокобезопасно.</p>
+ *
+ * <p>В парсер хранилище не подключено: реестром игр остаётся {@code List<Game>}. Класс — макет
+ * раскладки для {@link GameStateStoreBenchmark}, который сравнивает её со списком объектов по памяти
+ * и времени прохода; поэтому он закрыт в пакете и заполняется только через {@link #importGame(Game)}.</p>
+ */
+final class GameStateStore {
+
+    public static final int MINUTES = 9;
+    public static final int NO_SLOT = -1;
+
+    private static final int ALL_MINUTES_LOCKED = (1 << MINUTES) - 1;
+    private static final long DEFAULT_SELF_DESTRUCT = 2_000_000_000_000L; // Как в Game
+
+    private static final byte FLAG_ACTIVE = 1;
+    private static final byte FLAG_FINAL_TOTAL_LOCKED = 2;
+    private static final byte FLAG_READY_TO_WRITE = 4;
+
+    private final GameSlotIndex slotIndex;
+
+    // Поля игры по слотам
+    private int[] gameIds;
+    private int[] teamOneNames;
+    private int[] teamTwoNames;
+    private int[] gameTimeInSeconds;
+    private long[] lastUpdateTimestamps;
+    private short[] minuteLocks;
+    private int[] finalTotalScores;
+    private byte[] flags;
+    private long[] selfDestructTimestamps;
+    private long[] feedFingerprints;
+    private byte[] lastScoredMinutes;
+
+    // Поминутные значения, slot * MINUTES + minuteIndex
+    private short[] teamOneScores;
+    private short[] teamTwoScores;
+    private float[] bookmakerTotals; // Тоталы кратны 0.5 — float хранит их точно
+
+    private int[] freeSlots;
+    private int freeCount;
+    private int highWaterMark;
+    private int size;
+
+    // Таблица интернированных названий команд; 0 — название не задано
+    private String[] teamNames = new String[64];
+    private int[] teamNameRefs = new int[64];
+    private int teamNameHighWaterMark = 1;
+    private int[] freeTeamNameIds = new int[64];
+    private int freeTeamNameCount;
+    private final Map<String, Integer> teamNameIds = new HashMap<>();
+
+    public GameStateStore() {
+        this(1024);
+    }
+
+    /**
+     * @param initialCapacity ожидаемое число одновременных игр; при переполнении массивы удваиваются
+     */
+    public GameStateStore(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        slotIndex = new GameSlotIndex(capacity);
+        allocateArrays(capacity);
+    }
+
+    /**
+     * Возвращает слот игры, при необходимости занимая новый с начальным состоянием как у {@code new Game(gameId)}.
+     */
+    public int allocate(int gameId) {
+        int slot = slotIndex.get(gameId);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWaterMark == gameIds.length) {
+                grow(gameIds.length << 1);
+            }
+            slot = highWaterMark++;
+        }
+        reset(slot, gameId);
+        slotIndex.put(gameId, slot);
+        size++;
+        return slot;
+    }
+
+    /**
+     * @return слот игры или {@value #NO_SLOT}, если игра не отслеживается
+     */
+    public int slotOf(int gameId) {
+        return slotIndex.get(gameId);
+    }
+
+    /**
+     * Освобождает слот игры для повторного использования.
+     *
+     * @return {@code true}, если игра отслеживалась
+     */
+    public boolean release(int gameId) {
+        int slot = slotIndex.remove(gameId);
+        if (slot == NO_SLOT) {
+            return false;
+        }
+        flags[slot] = 0;
+        releaseTeamName(teamOneNames[slot]);
+        releaseTeamName(teamTwoNames[slot]);
+        teamOneNames[slot] = 0;
+        teamTwoNames[slot] = 0;
+        freeSlots[freeCount++] = slot;
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Верхняя граница занятых слотов: все активные слоты лежат в {@code [0, highWaterMark)}.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public boolean isActive(int slot) {
+        return (flags[slot] & FLAG_ACTIVE) != 0;
+    }
+
+    public int getGameId(int slot) {
+        return gameIds[slot];
+    }
+
+    public String getTeamOne(int slot) {
+        return teamNames[teamOneNames[slot]];
+    }
+
+    public void setTeamOne(int slot, String teamOne) {
+        int id = internTeamName(teamOne);
+        releaseTeamName(teamOneNames[slot]);
+        teamOneNames[slot] = id;
+    }
+
+    public String getTeamTwo(int slot) {
+        return teamNames[teamTwoNames[slot]];
+    }
+
+    public void setTeamTwo(int slot, String teamTwo) {
+        int id = internTeamName(teamTwo);
+        releaseTeamName(teamTwoNames[slot]);
+        teamTwoNames[slot] = id;
+    }
+
+    /**
+     * Количество различных названий команд, используемых отслеживаемыми играми.
+     */
+    public int getTeamNameCount() {
+        return teamNameIds.size();
+    }
+
+    public int getGameTimeInSeconds(int slot) {
+        return gameTimeInSeconds[slot];
+    }
+
+    public void setGameTimeInSeconds(int slot, int seconds) {
+        gameTimeInSeconds[slot] = seconds;
+    }
+
+    public int getScoreForTeamOneAtMinute(int slot, int minuteIndex) {
+        return teamOneScores[slot * MINUTES + minuteIndex];
+    }
+
+    public void setScoreForTeamOneAtMinute(int slot, int minuteIndex, int score) {
+        teamOneScores[slot * MINUTES + minuteIndex] = (short) score;
+    }
+
+    public int getScoreForTeamTwoAtMinute(int slot, int minuteIndex) {
+        return teamTwoScores[slot * MINUTES + minuteIndex];
+    }
+
+    public void setScoreForTeamTwoAtMinute(int slot, int minuteIndex, int score) {
+        teamTwoScores[slot * MINUTES + minuteIndex] = (short) score;
+    }
+
+    public double getBookmakerTotalAtMinute(int slot, int minuteIndex) {
+        return bookmakerTotals[slot * MINUTES + minuteIndex];
+    }
+
+    public void setBookmakerTotalAtMinute(int slot, int minuteIndex, double total) {
+        bookmakerTotals[slot * MINUTES + minuteIndex] = (float) total;
+    }
+
+    public boolean isMinuteLocked(int slot, int minuteIndex) {
+        return (minuteLocks[slot] & (1 << minuteIndex)) != 0;
+    }
+
+    public void unlockMinute(int slot, int minuteIndex) {
+        minuteLocks[slot] &= (short) ~(1 << minuteIndex);
+    }
+
+    public int getFinalTotalScore(int slot) {
+        return finalTotalScores[slot];
+    }
+
+    public void setFinalTotalScore(int slot, int finalTotalScore) {
+        finalTotalScores[slot] = finalTotalScore;
+    }
+
+    public boolean isFinalTotalLocked(int slot) {
+        return (flags[slot] & FLAG_FINAL_TOTAL_LOCKED) != 0;
+    }
+
+    public void unlockFinalTotal(int slot) {
+        flags[slot] &= ~FLAG_FINAL_TOTAL_LOCKED;
+    }
+
+    public boolean isReadyToWrite(int slot) {
+        return (flags[slot] & FLAG_READY_TO_WRITE) != 0;
+    }
+
+    public void setReadyToWrite(int slot, boolean readyToWrite) {
+        if (readyToWrite) {
+            flags[slot] |= FLAG_READY_TO_WRITE;
+        } else {
+            flags[slot] &= ~FLAG_READY_TO_WRITE;
+        }
+    }
+
+    public long getSelfDestructTimestamp(int slot) {
+        return selfDestructTimestamps[slot];
+    }
+
+    public void setSelfDestructTimestamp(int slot, long selfDestructTimestamp) {
+        selfDestructTimestamps[slot] = selfDestructTimestamp;
+    }
+
+    public long getFeedFingerprint(int slot) {
+        return feedFingerprints[slot];
+    }
+
+    public void setFeedFingerprint(int slot, long feedFingerprint) {
+        feedFingerprints[slot] = feedFingerprint;
+    }
+
+    public int getLastScoredMinute(int slot) {
+        return lastScoredMinutes[slot];
+    }
+
+    public void setLastScoredMinute(int slot, int lastScoredMinute) {
+        lastScoredMinutes[slot] = (byte) lastScoredMinute;
+    }
+
+    public long getLastUpdateTimestamp(int slot) {
+        return lastUpdateTimestamps[slot];
+    }
+
+    public void updateLastInteraction(int slot) {
+        lastUpdateTimestamps[slot] = System.currentTimeMillis();
+    }
+
+    /**
+     * Записывает активные входы минуты {@code minuteIndex + 1} в формате {@link FeatureEncoder#encodeActive}.
+     *
+     * @return количество записанных индексов
+     */
+    public int encodeMinute(int slot, int minuteIndex, int[] out, int offset) {
+        int cell = slot * MINUTES + minuteIndex;
+        return FeatureEncoder.encodeActive(teamOneScores[cell], teamTwoScores[cell],
+                bookmakerTotals[cell], minuteIndex + 1, out, offset);
+    }
+
+    /**
+     * Переносит состояние объекта {@link Game} в хранилище, занимая слот при необходимости.
+     */
+    public int importGame(Game game) {
+        int slot = allocate(game.getGameId());
+        setTeamOne(slot, game.getTeamOne());
+        setTeamTwo(slot, game.getTeamTwo());
+        gameTimeInSeconds[slot] = game.getGameTimeInSeconds();
+        lastUpdateTimestamps[slot] = game.getLastUpdateTimestamp();
+
+        int locks = 0;
+        for (int minute = 0; minute < MINUTES; minute++) {
+            setScoreForTeamOneAtMinute(slot, minute, game.getScoreForTeamOneAtMinute(minute));
+            setScoreForTeamTwoAtMinute(slot, minute, game.getScoreForTeamTwoAtMinute(minute));
+            setBookmakerTotalAtMinute(slot, minute, game.getBookmakerTotalAtMinute(minute));
+            if (game.isMinuteLocked(minute)) locks |= 1 << minute;
+        }
+        minuteLocks[slot] = (short) locks;
+
+        finalTotalScores[slot] = game.getFinalTotalScore();
+        byte slotFlags = FLAG_ACTIVE;
+        if (game.isFinalTotalLocked()) slotFlags |= FLAG_FINAL_TOTAL_LOCKED;
+        if (game.isReadyToWrite()) slotFlags |= FLAG_READY_TO_WRITE;
+        flags[slot] = slotFlags;
+        selfDestructTimestamps[slot] = game.getSelfDestructTimestamp();
+        feedFingerprints[slot] = game.getFeedFingerprint();
+        lastScoredMinutes[slot] = (byte) game.getLastScoredMinute();
+        return slot;
+    }
+
+    /**
+     * Оценка занимаемой памяти массивами хранилища и таблицей названий, байт.
+     */
+    public long estimateFootprintBytes() {
+        long perSlot = 4 * 5 + 8 * 3 + 2 + 1 + 1 + 4 // поля слота, включая список свободных
+                + (long) MINUTES * (2 + 2 + 4);    // поминутные массивы
+        long names = 4L * 3 * teamNames.length; // таблица, счётчики ссылок и свободные номера
+        for (int i = 1; i < teamNameHighWaterMark; i++) {
+            if (teamNames[i] != null) {
+                names += 40 + 2L * teamNames[i].length();
+            }
+        }
+        return perSlot * gameIds.length + names;
+    }
+
+    /**
+     * Возвращает номер названия, увеличивая его счётчик ссылок.
+     */
+    private int internTeamName(String name) {
+        if (name == null) {
+            return 0;
+        }
+        Integer id = teamNameIds.get(name);
+        if (id == null) {
+            if (freeTeamNameCount > 0) {
+                id = freeTeamNameIds[--freeTeamNameCount];
+            } else {
+                if (teamNameHighWaterMark == teamNames.length) {
+                    int capacity = teamNames.length << 1;
+                    teamNames = Arrays.copyOf(teamNames, capacity);
+                    teamNameRefs = Arrays.copyOf(teamNameRefs, capacity);
+                    freeTeamNameIds = Arrays.copyOf(freeTeamNameIds, capacity);
+                }
+                id = teamNameHighWaterMark++;
+            }
+            teamNames[id] = name;
+            teamNameIds.put(name, id);
+        }
+        teamNameRefs[id]++;
+        return id;
+    }
+
+    /**
+     * Уменьшает счётчик ссылок названия; неиспользуемое название удаляется из таблицы.
+     */
+    private void releaseTeamName(int id) {
+        if (id == 0 || --teamNameRefs[id] > 0) {
+            return;
+        }
+        teamNameIds.remove(teamNames[id]);
+        teamNames[id] = null;
+        freeTeamNameIds[freeTeamNameCount++] = id;
+    }
+
+    private void reset(int slot, int gameId) {
+        gameIds[slot] = gameId;
+        teamOneNames[slot] = 0;
+        teamTwoNames[slot] = 0;
+        gameTimeInSeconds[slot] = 0;
+        lastUpdateTimestamps[slot] = System.currentTimeMillis();
+        minuteLocks[slot] = ALL_MINUTES_LOCKED;
+        finalTotalScores[slot] = 0;
+        flags[slot] = FLAG_ACTIVE | FLAG_FINAL_TOTAL_LOCKED;
+        selfDestructTimestamps[slot] = DEFAULT_SELF_DESTRUCT;
+        feedFingerprints[slot] = -1;
+        lastScoredMinutes[slot] = 0;
+
+        int from = slot * MINUTES;
+        Arrays.fill(teamOneScores, from, from + MINUTES, (short) 0);
+        Arrays.fill(teamTwoScores, from, from + MINUTES, (short) 0);
+        Arrays.fill(bookmakerTotals, from, from + MINUTES, 0f);
+    }
+
+    private void allocateArrays(int capacity) {
+        gameIds = new int[capacity];
+        teamOneNames = new int[capacity];
+        teamTwoNames = new int[capacity];
+        gameTimeInSeconds = new int[capacity];
+        lastUpdateTimestamps = new long[capacity];
+        minuteLocks = new short[capacity];
+        finalTotalScores = new int[capacity];
+        flags = new byte[capacity];
+        selfDestructTimestamps = new long[capacity];
+        feedFingerprints = new long[capacity];
+        lastScoredMinutes = new byte[capacity];
+        teamOneScores = new short[capacity * MINUTES];
+        teamTwoScores = new short[capacity * MINUTES];
+        bookmakerTotals = new float[capacity * MINUTES];
+        freeSlots = new int[capacity];
+    }
+
+    private void grow(int capacity) {
+        gameIds = Arrays.copyOf(gameIds, capacity);
+        teamOneNames = Arrays.copyOf(teamOneNames, capacity);
+        teamTwoNames = Arrays.copyOf(teamTwoNames, capacity);
+        gameTimeInSeconds = Arrays.copyOf(gameTimeInSeconds, capacity);
+        lastUpdateTimestamps = Arrays.copyOf(lastUpdateTimestamps, capacity);
+        minuteLocks = Arrays.copyOf(minuteLocks, capacity);
+        finalTotalScores = Arrays.copyOf(finalTotalScores, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        selfDestructTimestamps = Arrays.copyOf(selfDestructTimestamps, capacity);
+        feedFingerprints = Arrays.copyOf(feedFingerprints, capacity);
+        lastScoredMinutes = Arrays.copyOf(lastScoredMinutes, capacity);
+        teamOneScores = Arrays.copyOf(teamOneScores, capacity * MINUTES);
+        teamTwoScores = Arrays.copyOf(teamTwoScores, capacity * MINUTES);
+        bookmakerTotals = Arrays.copyOf(bookmakerTotals, capacity * MINUTES);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.parser;
+
+import org.example.neuralnet.FeatureEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Сравнение списка объектов {@link Game} и {@link GameStateStore} на большом числе одновременных игр:
+ * занимаемая память и время полного прохода по всем минутам всех игр с кодированием входов модели.
+ *
+ * <p>Параметры запуска: {@code [количество игр] [количество проходов]}.</p>
+ */
+public class GameStateStoreBenchmark {
+
+    private static final Logger logger = Logger.getLogger(GameStateStoreBenchmark.class.getName());
+
+    private static final int TEAM_POOL = 500; // Команды повторяются между играми, как в реальной ленте
+
+    public static void main(String[] args) {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        long baseline = usedHeap();
+        List<Game> games = createGames(gameCount);
+        long gamesBytes = usedHeap() - baseline;
+
+        baseline = usedHeap();
+        GameStateStore store = new GameStateStore(gameCount);
+        for (Game game : games) {
+            store.importGame(game);
+        }
+        long storeBytes = usedHeap() - baseline;
+
+        int[] active = new int[FeatureEncoder.MAX_ACTIVE];
+        long checksum = 0;
+        for (int i = 0; i < passes / 10; i++) { // Прогрев JIT
+            checksum += scanGames(games, active) + scanStore(store, active);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < passes; i++) {
+            checksum += scanGames(games, active);
+        }
+        double gamesScanUs = (System.nanoTime() - start) / 1e3 / passes;
+
+        start = System.nanoTime();
+        for (int i = 0; i < passes; i++) {
+            checksum += scanStore(store, active);
+        }
+        double storeScanUs = (System.nanoTime() - start) / 1e3 / passes;
+
+        logger.info(String.format(Locale.ROOT,
+                "Игр: %d | List<Game>: %.1f байт/игра, проход %.1f мкс | GameStateStore: %.1f байт/игра"
+                        + " (оценка %.1f), проход %.1f мкс | контроль %d",
+                gameCount, (double) gamesBytes / gameCount, gamesScanUs,
+                (double) storeBytes / gameCount, (double) store.estimateFootprintBytes() / gameCount,
+                storeScanUs, checksum));
+    }
+
+    private static List<Game> createGames(int gameCount) {
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>(gameCount);
+        for (int i = 0; i < gameCount; i++) {
+            Game game = new Game(400_000_000 + i);
+            game.setTeamOne(new String("Команда " + random.nextInt(TEAM_POOL)));
+            game.setTeamTwo(new String("Команда " + random.nextInt(TEAM_POOL)));
+            int scoreOne = 0;
+            int scoreTwo = 0;
+            for (int minute = 0; minute < GameStateStore.MINUTES; minute++) {
+                scoreOne += random.nextInt(5);
+                scoreTwo += random.nextInt(5);
+                game.setScoreForTeamOneAtMinute(minute, scoreOne);
+                game.setScoreForTeamTwoAtMinute(minute, scoreTwo);
+                game.setBookmakerTotalAtMinute(minute, 40 + random.nextInt(60) * 0.5);
+                game.unlockMinute(minute);
+            }
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static long scanGames(List<Game> games, int[] active) {
+        long sum = 0;
+        for (Game game : games) {
+            for (int minute = 0; minute < GameStateStore.MINUTES; minute++) {
+                if (game.isMinuteLocked(minute)) continue;
+                int count = FeatureEncoder.encodeActive(game.getScoreForTeamOneAtMinute(minute),
+                        game.getScoreForTeamTwoAtMinute(minute), game.getBookmakerTotalAtMinute(minute),
+                        minute + 1, active, 0);
+                sum += active[count - 1];
+            }
+        }
+        return sum;
+    }
+
+    private static long scanStore(GameStateStore store, int[] active) {
+        long sum = 0;
+        for (int slot = 0; slot < store.getHighWaterMark(); slot++) {
+            if (!store.isActive(slot)) continue;
+            for (int minute = 0; minute < GameStateStore.MINUTES; minute++) {
+                if (store.isMinuteLocked(slot, minute)) continue;
+                int count = store.encodeMinute(slot, minute, active, 0);
+                sum += active[count - 1];
+            }
+        }
+        return sum;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
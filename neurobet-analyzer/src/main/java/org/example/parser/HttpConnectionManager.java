@@ -1,30 +1,109 @@
 package org.example.parser;
 
-import data.LinkProcessor;
+import org.example.metrics.Counter;
+import org.example.metrics.HttpPollEvent;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.LogRateLimiter;
+import org.example.metrics.MetricsRegistry;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Класс отвечает за установку HTTP-соединения, отправку запроса и получение JSON-ответа от сервера.
+ * Является живым {@link FeedSource} для цикла парсера.
  */
-public class HttpConnectionManager {
+public class HttpConnectionManager implements FeedSource {
 
     private static final Logger logger = Logger.getLogger(HttpConnectionManager.class.getName());
 
-    private static final String BASE_URL =
-            "https://1xstavka.ru/LiveFeed/Get1x2_VZip?sports=3&count=50&antisports=188&mode=4";
+    /** Системное свойство для подмены адреса ленты (например, на {@link StubFeedServer}). */
+    public static final String FEED_HOST_PROPERTY = "neurobet.feed.host";
+
+    private static final String DEFAULT_FEED_HOST = "https://1xstavka.ru";
     private static final String QUERY_PARAMS =
             "&country=1&partner=51&getEmpty=true&noFilterBlockEvent=true";
 
+    private static final MetricsRegistry METRICS = MetricsRegistry.global();
+    private static final LatencyHistogram REQUEST_LATENCY = METRICS.histogram("http.request.latency.ns");
+    private static final Counter RESPONSE_BYTES = METRICS.counter("http.response.bytes");
+    private static final Counter REQUESTS = METRICS.counter("http.requests");
+    private static final Counter STATUS_OK = METRICS.counter("http.status.200");
+    private static final Counter STATUS_NOT_MODIFIED = METRICS.counter("http.status.304");
+    private static final Counter STATUS_OTHER = METRICS.counter("http.status.other");
+
+    // Адресов с запомненным валидатором; тело ответа — сотни килобайт, поэтому кэш ограничен
+    private static final int VALIDATOR_CACHE_SIZE = 16;
+
+    // Тело ответа — сотни килобайт; в отладке пишем не чаще одного раза в минуту
+    private static final LogRateLimiter PAYLOAD_LOG_LIMITER = new LogRateLimiter(1, 60_000);
+
+    private final String baseUrl;
     private final LinkProcessor linkProcessor = new LinkProcessor();
+    private final Supplier<String> linkSource;
     private HttpURLConnection connection;
+    private long lastResponseNanos;
+
+    // Валидаторы по адресу: LinkProcessor чередует subGames от запроса к запросу, поэтому
+    // один «последний» ETag почти никогда не совпадал бы с адресом следующего запроса
+    private final Map<String, CachedResponse> validators = new LinkedHashMap<>(VALIDATOR_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > VALIDATOR_CACHE_SIZE;
+        }
+    };
+
+    private record CachedResponse(String eTag, String body) {
+    }
+
+    /**
+     * Лента по адресу из свойства {@value #FEED_HOST_PROPERTY} или с основного сайта.
+     */
+    public HttpConnectionManager() {
+        this(defaultFeedHost());
+    }
+
+    /**
+     * @param feedHost схема и хост ленты, например {@code http://127.0.0.1:8080}
+     */
+    public HttpConnectionManager(String feedHost) {
+        this(feedHost, FeedQuery.BASKETBALL);
+    }
+
+    /**
+     * @param feedHost схема и хост ленты
+     * @param query    вид спорта, число событий и фильтры запроса
+     */
+    public HttpConnectionManager(String feedHost, FeedQuery query) {
+        this(feedHost, query, null);
+    }
+
+    /**
+     * @param feedHost   схема и хост ленты
+     * @param query      вид спорта, число событий и фильтры запроса
+     * @param linkSource параметр {@code subGames} для каждого запроса (как {@link LinkProcessor#getLink()});
+     *                   {@code null} — собственный {@link LinkProcessor}
+     */
+    public HttpConnectionManager(String feedHost, FeedQuery query, Supplier<String> linkSource) {
+        this.baseUrl = feedHost + query.toPath();
+        this.linkSource = linkSource != null ? linkSource : linkProcessor::getLink;
+    }
+
+    /**
+     * Адрес ленты по умолчанию: из свойства {@value #FEED_HOST_PROPERTY} или основной сайт.
+     */
+    public static String defaultFeedHost() {
+        return System.getProperty(FEED_HOST_PROPERTY, DEFAULT_FEED_HOST);
+    }
 
     /**
      * Устанавливает соединение с сервером и возвращает JSON-объект с ответом.
@@ -33,33 +112,75 @@ public class HttpConnectionManager {
      * @throws IOException если возникли проблемы с сетевым подключением.
      */
     public JSONObject connectAndGetJson() throws IOException {
-        URL fullUrl = new URL(BASE_URL + linkProcessor.getLink() + QUERY_PARAMS);
-        connection = (HttpURLConnection) fullUrl.openConnection();
+        return new JSONObject(fetchBody());
+    }
 
-        connection.setRequestMethod("GET");
-        connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+    /**
+     * Выполняет запрос и возвращает сырое тело ответа.
+     *
+     * Если сервер поддерживает ETag, валидатор и тело запоминаются для каждого адреса
+     * (не более {@value #VALIDATOR_CACHE_SIZE} последних адресов). Если ответ по адресу не изменился (304),
+     * возвращается тело, запомненное для этого адреса, без повторной загрузки. Ответы без ETag
+     * не запоминаются: повторы таких ответов отсекает {@link ResponseChangeDetector}.
+     *
+     * @return тело ответа (пустая строка, если сервер вернул ошибку).
+     * @throws IOException если возникли проблемы с сетевым подключением.
+     */
+    @Override
+    public String fetchBody() throws IOException {
+        HttpPollEvent pollEvent = new HttpPollEvent();
+        pollEvent.begin();
+        long requestStart = System.nanoTime();
+        String url = baseUrl + linkSource.get() + QUERY_PARAMS;
+        int polledStatus = -1; // -1 — запрос оборвался до разобранного ответа
+        long bodyBytes = 0;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
 
-        int responseCode = connection.getResponseCode();
-        logger.info("Ответ сервера: " + responseCode);
+            connection.setRequestMethod("GET");
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            CachedResponse cached = validators.get(url);
+            if (cached != null) {
+                connection.setRequestProperty("If-None-Match", cached.eTag());
+            }
 
-        StringBuilder responseBuilder = new StringBuilder();
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            try (InputStream inputStream = connection.getInputStream();
-                 BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
+            int responseCode = connection.getResponseCode();
+            lastResponseNanos = System.nanoTime();
+            logger.fine(() -> "Ответ сервера: " + responseCode);
+            REQUESTS.increment();
 
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    responseBuilder.append(line);
+            String responseString = "";
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                STATUS_OK.increment();
+                try (InputStream inputStream = connection.getInputStream()) {
+                    byte[] body = inputStream.readAllBytes();
+                    bodyBytes = body.length;
+                    RESPONSE_BYTES.add(body.length);
+                    responseString = new String(body, StandardCharsets.UTF_8);
+                }
+                String eTag = connection.getHeaderField("ETag");
+                if (eTag != null) {
+                    validators.put(url, new CachedResponse(eTag, responseString));
+                } else {
+                    validators.remove(url);
                 }
+            } else if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                STATUS_NOT_MODIFIED.increment();
+                responseString = cached.body();
+            } else {
+                STATUS_OTHER.increment();
+                logger.warning("Не удалось получить ответ от сервера, код " + responseCode);
+            }
+            REQUEST_LATENCY.recordSince(requestStart);
+            polledStatus = responseCode;
 
+            if (logger.isLoggable(Level.FINE) && PAYLOAD_LOG_LIMITER.tryAcquire()) {
+                logger.fine("Ответ сервера (JSON): " + responseString);
             }
-        } else {
-            logger.warning("Не удалось получить ответ от сервера");
+            return responseString;
+        } finally {
+            pollEvent.finish(url, polledStatus, bodyBytes, polledStatus == HttpURLConnection.HTTP_NOT_MODIFIED);
         }
-
-        String responseString = responseBuilder.toString();
-        logger.info("Ответ сервера (JSON): " + responseString);
-        return new JSONObject(responseString);
     }
 
     /**
@@ -71,6 +192,20 @@ public class HttpConnectionManager {
         }
     }
 
+    @Override
+    public void close() {
+        disconnect();
+    }
+
+    /**
+     * Момент получения ответа последнего запроса по {@link System#nanoTime()}.
+     * Отсчётная точка для измерения задержки «байты ответа → решение».
+     */
+    @Override
+    public long getLastResponseNanos() {
+        return lastResponseNanos;
+    }
+
     /**
      * Возвращает обработчик ссылок.
      *
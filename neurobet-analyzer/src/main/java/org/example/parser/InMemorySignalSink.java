@@ -0,0 +1,25 @@
+package org.example.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накопитель сигналов в памяти — заглушка для тестов и локальных прогонов.
+ */
+public class InMemorySignalSink implements SignalSink {
+
+    private final List<ScoringSignal> signals = new ArrayList<>();
+
+    @Override
+    public synchronized void accept(ScoringSignal signal) {
+        signals.add(signal);
+    }
+
+    public synchronized List<ScoringSignal> getSignals() {
+        return new ArrayList<>(signals);
+    }
+
+    public synchronized void clear() {
+        signals.clear();
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.parser;
+
+import org.example.metrics.Counter;
+import org.example.metrics.MetricsRegistry;
+import org.example.neuralnet.ModelRegistry;
+import org.example.neuralnet.OnlineTrainer;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Шард приёма ленты: доля игр одного запроса {@link FeedQuery}, выбранная стабильным хешем
+ * идентификатора игры ({@link #shardOf(int, int)}).
+ *
+ * <p>Ленту запрашивает {@link FeedQueryPoller} — один раз на запрос — и раздаёт шардам их строки ответа.
+ * Шард владеет изменяемым состоянием своих игр — {@link LinkProcessor}, разбором, реестром игр и стадией
+ * оценки — и обрабатывается не более чем одним потоком одновременно, поэтому обходится без блокировок.
+ * Общие с другими шардами только потокобезопасные {@link ModelRegistry}, {@link SignalSink},
+ * {@link ResultWriter} и {@link OnlineTrainer}.</p>
+ */
+public class IngestionShard {
+
+    private static final Logger logger = Logger.getLogger(IngestionShard.class.getName());
+
+    private final String name;
+    private final LinkProcessor linkProcessor = new LinkProcessor();
+    private final LiveScoringStage scoringStage;
+    private final JsonGameMapper jsonGameMapper;
+    private final GameSignalHandler signalHandler;
+    private final List<Game> games = new ArrayList<>();
+
+    private final Counter pollCounter;
+    private final Counter errorCounter;
+
+    // Поля статуса пишет поток обработки, читает поток статуса
+    private volatile long polls;
+    private volatile long errors;
+    private volatile int gameCount;
+    private volatile long lastSuccessMillis;
+    private volatile long lastPollMs;
+
+    /**
+     * @param query         запрос ленты
+     * @param index         номер шарда в запросе
+     * @param modelRegistry общий реестр моделей
+     * @param signalSink    общий получатель сигналов (потокобезопасный)
+     * @param resultWriter  общая запись завершённых игр
+     */
+    public IngestionShard(FeedQuery query, int index, ModelRegistry modelRegistry, SignalSink signalSink,
+                          ResultWriter resultWriter) {
+        this.name = query.getName() + "-" + index;
+        // Строки чужих шардов сюда не попадают, поэтому отбор по идентификатору не нужен
+        GameDataExtractor extractor = new GameDataExtractor(linkProcessor, new HashMap<>(),
+                query.getPeriodName(), gameId -> true);
+        this.scoringStage = new LiveScoringStage(modelRegistry, signalSink);
+        this.jsonGameMapper = new JsonGameMapper(extractor, scoringStage);
+        this.signalHandler = new GameSignalHandler(resultWriter);
+
+        MetricsRegistry metrics = MetricsRegistry.global();
+        this.pollCounter = metrics.counter("ingest." + name + ".polls");
+        this.errorCounter = metrics.counter("ingest." + name + ".errors");
+    }
+
+    /**
+     * Номер шарда игры: перемешанный идентификатор по модулю числа шардов.
+     * Не зависит от процесса и запуска, поэтому игра всегда попадает в один и тот же шард.
+     */
+    public static int shardOf(int gameId, int shardCount) {
+        int h = gameId * 0x9E3779B9;
+        h ^= h >>> 16;
+        return Math.floorMod(h, shardCount);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Включает онлайн-дообучение на завершённых играх шарда. Вызывается до запуска опросов.
+     */
+    public void setOnlineTrainer(OnlineTrainer onlineTrainer) {
+        signalHandler.setOnlineTrainer(onlineTrainer);
+    }
+
+    /**
+     * Ссылки на игры шарда: из них {@link FeedQueryPoller} по очереди берёт {@code subGames}.
+     */
+    LinkProcessor getLinkProcessor() {
+        return linkProcessor;
+    }
+
+    List<Game> getGames() {
+        return games;
+    }
+
+    /**
+     * Обработка своей доли полученного ответа: разбор, оценка, запись завершённых игр.
+     *
+     * @param rows          ответ только с играми шарда или {@code null}, если ответ не изменился
+     * @param responseNanos момент получения ответа по {@link System#nanoTime()}
+     */
+    void process(JSONObject rows, long responseNanos) {
+        long start = System.currentTimeMillis();
+        try {
+            if (rows != null) {
+                scoringStage.beginPoll(responseNanos);
+                jsonGameMapper.mapJsonToGames(rows, games);
+                scoringStage.endPoll();
+            }
+            lastSuccessMillis = System.currentTimeMillis();
+        } catch (RuntimeException e) {
+            errors++;
+            errorCounter.increment();
+            logger.log(Level.WARNING, "Шард " + name + ": ошибка разбора ответа", e);
+        }
+        finishCycle(start);
+    }
+
+    /**
+     * Цикл без ответа (ошибка запроса): записываются готовые игры и удаляются устаревшие.
+     */
+    void fetchFailed() {
+        long start = System.currentTimeMillis();
+        errors++;
+        errorCounter.increment();
+        finishCycle(start);
+    }
+
+    /**
+     * @param consecutiveErrors ошибок запроса подряд
+     * @param pollsPerMinute    частота опросов запроса
+     * @param schedulingLagMs   задержка запуска последнего опроса запроса
+     * @param fetchMs           длительность последнего HTTP-запроса
+     */
+    ShardStatus getStatus(int consecutiveErrors, double pollsPerMinute, long schedulingLagMs, long fetchMs) {
+        long lastSuccess = lastSuccessMillis;
+        return new ShardStatus(name, gameCount, polls, errors, consecutiveErrors, pollsPerMinute,
+                lastSuccess > 0 ? System.currentTimeMillis() - lastSuccess : -1,
+                schedulingLagMs, fetchMs + lastPollMs);
+    }
+
+    private void finishCycle(long start) {
+        signalHandler.handle(games);
+
+        gameCount = games.size();
+        polls++;
+        pollCounter.increment();
+        lastPollMs = System.currentTimeMillis() - start;
+    }
+}
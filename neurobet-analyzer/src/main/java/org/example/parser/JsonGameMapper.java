@@ -1,5 +1,8 @@
 package org.example.parser;
 
+import org.example.metrics.Counter;
+import org.example.metrics.GameStateTransitionEvent;
+import org.example.metrics.MetricsRegistry;
 import org.json.JSONObject;
 import java.util.List;
 
@@ -9,14 +12,36 @@ import java.util.List;
  */
 public class JsonGameMapper {
 
+    private static final Counter GAMES_UPDATED = MetricsRegistry.global().counter("mapper.games.updated");
+    private static final Counter GAMES_CREATED = MetricsRegistry.global().counter("mapper.games.created");
+    private static final Counter GAMES_UNCHANGED = MetricsRegistry.global().counter("mapper.games.unchanged");
+
     private final GameDataExtractor gameDataExtractor;
+    private final LiveScoringStage scoringStage;
+    private GameStateJournal journal; // Журнал изменений состояния игр или null
 
     public JsonGameMapper(GameDataExtractor gameDataExtractor) {
+        this(gameDataExtractor, null);
+    }
+
+    /**
+     * @param scoringStage стадия живой оценки, вызываемая один раз на каждую новую минуту игры, или {@code null}.
+     */
+    public JsonGameMapper(GameDataExtractor gameDataExtractor, LiveScoringStage scoringStage) {
         this.gameDataExtractor = gameDataExtractor;
+        this.scoringStage = scoringStage;
+    }
+
+    /**
+     * Включает запись каждой изменённой игры в журнал состояния.
+     */
+    public void setJournal(GameStateJournal journal) {
+        this.journal = journal;
     }
 
     /**
      * Преобразует JSON-данные в список объектов {@link Game}.
+     * Игры, у которых с прошлого опроса не изменились время, счёт и тотал, не перезаписываются и не оцениваются.
      *
      * @param jsonObject JSON с матчами.
      * @param gameList   Список текущих матчей, который будет обновлён.
@@ -28,9 +53,21 @@ public class JsonGameMapper {
             int gameId = Integer.parseInt(dataRow.get(5));
             boolean isNewGame = true;
 
+            long fingerprint = fingerprint(dataRow);
+
             for (Game game : gameList) {
                 if (game.getGameId() == gameId) {
-                    updateGameFields(game, dataRow);
+                    if (game.getFeedFingerprint() == fingerprint) {
+                        GAMES_UNCHANGED.increment();
+                    } else {
+                        updateGameFields(game, dataRow);
+                        game.setFeedFingerprint(fingerprint);
+                        game.updateLastInteraction();
+                        if (journal != null) {
+                            journal.recordUpdate(game);
+                        }
+                        GAMES_UPDATED.increment();
+                    }
                     isNewGame = false;
                     break;
                 }
@@ -39,11 +76,29 @@ public class JsonGameMapper {
             if (isNewGame) {
                 Game newGame = new Game(gameId);
                 updateGameFields(newGame, dataRow);
+                newGame.setFeedFingerprint(fingerprint);
                 gameList.add(newGame);
+                GameStateTransitionEvent.emit(gameId, GameStateTransitionEvent.CREATED, newGame.getGameTimeInSeconds());
+                if (journal != null) {
+                    journal.recordUpdate(newGame);
+                }
+                GAMES_CREATED.increment();
             }
         }
     }
 
+    /**
+     * Отпечаток полей, от которых зависит состояние игры: время, счёт команд и тотал.
+     * Значения упакованы без потерь для реальных диапазонов (время до 2^20 с, счёт до 1023, тотал×2 до 2^24).
+     */
+    private long fingerprint(List<String> rawData) {
+        long time = Integer.parseInt(rawData.get(2)) & 0xFFFFFL;
+        long scoreTeam1 = Integer.parseInt(rawData.get(3)) & 0x3FFL;
+        long scoreTeam2 = Integer.parseInt(rawData.get(4)) & 0x3FFL;
+        long total = (long) (Double.parseDouble(rawData.get(6)) * 2) & 0xFFFFFFL;
+        return time << 44 | scoreTeam1 << 34 | scoreTeam2 << 24 | total;
+    }
+
     /**
      * Присваивает значения из строки данных объекту {@link Game}.
      *
@@ -76,8 +131,16 @@ public class JsonGameMapper {
                     game.setFinalScore(score1 + score2);
                     game.setReadyToWrite(true);
                     game.setAwaitingFinalResult(false);
+                    GameStateTransitionEvent.emit(game.getGameId(), GameStateTransitionEvent.RESULT_READY, time);
                 }
             }
         }
+
+        // Часы игры меняют отпечаток на каждом опросе — оцениваем только переход на новую минуту
+        int minute = time / 60;
+        if (scoringStage != null && minute >= 1 && minute <= 9 && minute > game.getLastScoredMinute()) {
+            game.setLastScoredMinute(minute);
+            scoringStage.onMinute(game, minute, scoreTeam1, scoreTeam2, proposedTotal);
+        }
     }
 }
@@ -27,7 +27,7 @@ public class LinkProcessor {
      * @param linkId идентификатор игры (ссылки).
      */
     public void registerLink(Integer linkId) {
-        logger.info("Получена ссылка: " + linkId);
+        logger.finest(() -> "Получена ссылка: " + linkId);
 
         if (linkId == null) {
             logger.warning("Передана null-ссылка. Пропуск.");
@@ -37,7 +37,7 @@ public class LinkProcessor {
         // Удаляем устаревшие ссылки старше 20 минут
         for (Map.Entry<Integer, Long> entry : linkMap.entrySet()) {
             if (System.currentTimeMillis() - entry.getValue() > 20 * 60 * 1000) {
-                logger.info("Удалена устаревшая ссылка: " + entry.getKey());
+                logger.fine(() -> "Удалена устаревшая ссылка: " + entry.getKey());
                 linkMap.remove(entry.getKey());
             }
         }
@@ -50,6 +50,27 @@ public class LinkProcessor {
     }
 
 
+    /**
+     * Копия активных ссылок с временем регистрации — для снимка состояния.
+     */
+    public Map<Integer, Long> snapshotLinks() {
+        return new HashMap<>(linkMap);
+    }
+
+    /**
+     * Восстанавливает ссылки из снимка, сохраняя исходное время регистрации
+     * (устаревшие ссылки будут удалены обычной очисткой).
+     */
+    public void restoreLinks(Map<Integer, Long> links) {
+        for (Map.Entry<Integer, Long> entry : links.entrySet()) {
+            if (linkMap.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                trackingArray[cursor] = entry.getKey();
+                cursor = (cursor + 1) % trackingArraySize;
+            }
+        }
+        iterator = null;
+    }
+
     /**
      * Возвращает строку запроса с одним идентификатором игры.
      * Автоматически реинициализирует итератор при завершении или очистке map.
@@ -57,7 +78,7 @@ public class LinkProcessor {
      * @return строка запроса вида "&subGames=12345" или пустая строка при отсутствии активных ссылок.
      */
     public String getLink() {
-        logger.info("Попытка извлечения активной ссылки из map...");
+        logger.finest("Попытка извлечения активной ссылки из map...");
 
         try {
             if (iterator == null || !iterator.hasNext()) {
@@ -67,7 +88,7 @@ public class LinkProcessor {
             if (iterator.hasNext()) {
                 Integer linkId = iterator.next();
                 String result = "&subGames=" + linkId;
-                logger.info("Возвращена активная ссылка: " + result);
+                logger.finest(() -> "Возвращена активная ссылка: " + result);
                 return result;
             }
 
@@ -75,7 +96,7 @@ public class LinkProcessor {
             logger.warning("Ошибка при попытке получить ссылку: " + e.getMessage());
         }
 
-        logger.info("Нет доступных ссылок для отправки.");
+        logger.finest("Нет доступных ссылок для отправки.");
         return "";
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package org.example.parser;
+
+import org.example.metrics.Counter;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.neuralnet.FeatureEncoder;
+import org.example.neuralnet.ModelRegistry;
+import org.example.neuralnet.SparseBatch;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Стадия живой оценки: запускает замороженную модель на заполненных минутах игр
+ * прямо в цикле опроса и передаёт результат в {@link SignalSink}.
+ *
+ * <p>Минута кодируется общим {@link FeatureEncoder} — тем же, что пишет выборку, — но без целевой
+ * ячейки и сразу в разреженном виде, перечнем активных индексов. Минуты всех игр опроса
+ * накапливаются в {@link SparseBatch} и оцениваются одним пакетным проходом в {@link #endPoll()}
+ * на одной версии модели из {@link ModelRegistry}.</p>
+ *
+ * <p>Для каждого опроса с сигналами задержка от получения байтов ответа до последнего решения
+ * записывается в гистограмму {@code scoring.poll.latency.ns}.</p>
+ */
+public class LiveScoringStage {
+
+    private static final Logger logger = Logger.getLogger(LiveScoringStage.class.getName());
+
+    private static final double DECISION_THRESHOLD = 0.5;
+
+    private static final LatencyHistogram POLL_LATENCY = MetricsRegistry.global().histogram("scoring.poll.latency.ns");
+    private static final Counter SIGNALS = MetricsRegistry.global().counter("scoring.signals");
+
+    private final ModelRegistry modelRegistry;
+    private final SignalSink signalSink;
+
+    private final int[] activeIndices = new int[FeatureEncoder.MAX_ACTIVE];
+
+    // Минуты текущего опроса в порядке поступления; строка i пакета соответствует элементу i массивов
+    private final SparseBatch batch = new SparseBatch();
+    private int[] pendingGameIds = new int[64];
+    private int[] pendingMinutes = new int[64];
+    private int[] pendingScoresOne = new int[64];
+    private int[] pendingScoresTwo = new int[64];
+    private double[] pendingTotals = new double[64];
+    private double[] probabilities = new double[64];
+
+    private long responseNanos;
+    private int signalsInPoll;
+    private boolean missingModelReported;
+
+    public LiveScoringStage(ModelRegistry modelRegistry, SignalSink signalSink) {
+        this.modelRegistry = modelRegistry;
+        this.signalSink = signalSink;
+    }
+
+    /**
+     * Начало опроса.
+     *
+     * @param responseNanos момент получения ответа сервера по {@link System#nanoTime()}
+     */
+    public void beginPoll(long responseNanos) {
+        this.responseNanos = responseNanos;
+        this.signalsInPoll = 0;
+        batch.clear();
+    }
+
+    /**
+     * Ставит новую минуту игры в пакет опроса. Вызывающий передаёт каждую минуту игры один раз —
+     * на первом опросе, в котором часы до неё дошли.
+     *
+     * @param minute номер минуты (1–9)
+     */
+    public void onMinute(Game game, int minute, int scoreTeamOne, int scoreTeamTwo, double bookmakerTotal) {
+        int row = batch.size();
+        if (row == pendingGameIds.length) {
+            growPending(row * 2);
+        }
+        int count = FeatureEncoder.encodeActive(scoreTeamOne, scoreTeamTwo, bookmakerTotal, minute, activeIndices, 0);
+        batch.add(activeIndices, count);
+
+        pendingGameIds[row] = game.getGameId();
+        pendingMinutes[row] = minute;
+        pendingScoresOne[row] = scoreTeamOne;
+        pendingScoresTwo[row] = scoreTeamTwo;
+        pendingTotals[row] = bookmakerTotal;
+    }
+
+    /**
+     * Завершение опроса: оценивает все накопленные минуты одним пакетом, передаёт сигналы и фиксирует задержку.
+     */
+    public void endPoll() {
+        if (!batch.isEmpty()) {
+            scoreBatch();
+            batch.clear();
+        }
+        signalSink.flush();
+
+        if (signalsInPoll > 0) {
+            long latencyNanos = System.nanoTime() - responseNanos;
+            POLL_LATENCY.record(latencyNanos);
+            SIGNALS.add(signalsInPoll);
+            logger.fine(() -> String.format("Живая оценка: %d сигналов, задержка ответ→решение %d мкс",
+                    signalsInPoll, latencyNanos / 1_000));
+        }
+    }
+
+    private void scoreBatch() {
+        if (!modelRegistry.hasModel()) {
+            if (!missingModelReported) {
+                logger.warning("Модель не загружена, живая оценка пропускается");
+                missingModelReported = true;
+            }
+            return;
+        }
+
+        try (ModelRegistry.Lease lease = modelRegistry.acquire()) {
+            lease.getModel().predictBatch(batch, probabilities);
+            String modelId = lease.getVersion().getId();
+            for (int row = 0; row < batch.size(); row++) {
+                double probability = probabilities[row];
+                signalSink.accept(new ScoringSignal(pendingGameIds[row], pendingMinutes[row],
+                        pendingScoresOne[row], pendingScoresTwo[row], pendingTotals[row],
+                        probability, probability > DECISION_THRESHOLD, modelId));
+            }
+        }
+        signalsInPoll += batch.size();
+    }
+
+    private void growPending(int capacity) {
+        pendingGameIds = Arrays.copyOf(pendingGameIds, capacity);
+        pendingMinutes = Arrays.copyOf(pendingMinutes, capacity);
+        pendingScoresOne = Arrays.copyOf(pendingScoresOne, capacity);
+        pendingScoresTwo = Arrays.copyOf(pendingScoresTwo, capacity);
+        pendingTotals = Arrays.copyOf(pendingTotals, capacity);
+        probabilities = Arrays.copyOf(probabilities, capacity);
+    }
+}
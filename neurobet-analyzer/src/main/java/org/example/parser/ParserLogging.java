@@ -0,0 +1,61 @@
+package org.example.parser;
+
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Настройка логирования парсера.
+ *
+ * <p>Все логгеры пакета {@code org.example} пишут через {@link AsyncLogHandler},
+ * поэтому вывод в консоль не блокирует цикл опроса. Объёмные сообщения
+ * (тела ответов, состояние каждой игры, работа со ссылками) пишутся на уровне {@code FINE}
+ * и по умолчанию даже не форматируются.</p>
+ *
+ * <p>Системные свойства: {@code neurobet.log.level} — уровень (по умолчанию {@code INFO}),
+ * {@code neurobet.log.async=false} — синхронный вывод, как раньше.</p>
+ */
+public final class ParserLogging {
+
+    private static final String ROOT_LOGGER = "org.example";
+    private static final int BUFFER_CAPACITY = 8192;
+
+    private ParserLogging() {
+    }
+
+    /**
+     * Настраивает логирование по системным свойствам.
+     */
+    public static void configure() {
+        Level level = Level.parse(System.getProperty("neurobet.log.level", "INFO"));
+        boolean async = Boolean.parseBoolean(System.getProperty("neurobet.log.async", "true"));
+        configure(level, async);
+    }
+
+    /**
+     * @param level уровень логгеров приложения
+     * @param async {@code true} — вывод через кольцевой буфер в фоновом потоке
+     */
+    public static void configure(Level level, boolean async) {
+        ConsoleHandler console = new ConsoleHandler();
+        console.setLevel(Level.ALL);
+        console.setFormatter(new SimpleFormatter());
+        install(async ? new AsyncLogHandler(console, BUFFER_CAPACITY) : console, level);
+    }
+
+    /**
+     * Заменяет обработчики логгера приложения на указанный.
+     */
+    public static void install(Handler handler, Level level) {
+        Logger root = Logger.getLogger(ROOT_LOGGER);
+        for (Handler existing : root.getHandlers()) {
+            root.removeHandler(existing);
+            existing.close();
+        }
+        root.setUseParentHandlers(false);
+        root.addHandler(handler);
+        root.setLevel(level);
+    }
+}
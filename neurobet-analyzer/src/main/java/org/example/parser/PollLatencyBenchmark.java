@@ -0,0 +1,87 @@
+package org.example.parser;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.logging.FileHandler;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Замер задержки обработки одного опроса при разных режимах логирования:
+ * <ul>
+ *     <li>INFO, синхронно — отладочные сообщения выключены;</li>
+ *     <li>FINE, синхронно — все отладочные сообщения, вывод в файл в потоке опроса;</li>
+ *     <li>FINE, асинхронно — те же сообщения через {@link AsyncLogHandler}.</li>
+ * </ul>
+ * Сеть не используется: ответы строит {@link SyntheticGameGenerator}, результаты пишутся во временный файл.
+ *
+ * <p>Параметры запуска: {@code [количество игр] [количество опросов]}.</p>
+ */
+public class PollLatencyBenchmark {
+
+    private static final Logger logger = Logger.getLogger(PollLatencyBenchmark.class.getName());
+
+    public static void main(String[] args) throws IOException {
+        int gameCount = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int polls = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        Path logFile = Files.createTempFile("poll-benchmark", ".log");
+        Path outputFile = Files.createTempFile("poll-benchmark", ".txt");
+
+        double infoSync = measure(gameCount, polls, Level.INFO, false, logFile, outputFile);
+        double fineSync = measure(gameCount, polls, Level.FINE, false, logFile, outputFile);
+        double fineAsync = measure(gameCount, polls, Level.FINE, true, logFile, outputFile);
+
+        ParserLogging.configure(Level.INFO, false);
+        logger.info(String.format(Locale.ROOT,
+                "Игр: %d, опросов: %d | INFO sync: %.1f мкс/опрос | FINE sync: %.1f мкс/опрос | FINE async: %.1f мкс/опрос",
+                gameCount, polls, infoSync, fineSync, fineAsync));
+
+        Files.deleteIfExists(logFile);
+        Files.deleteIfExists(outputFile);
+    }
+
+    private static double measure(int gameCount, int polls, Level level, boolean async, Path logFile,
+                                  Path outputFile) throws IOException {
+        FileHandler fileHandler = new FileHandler(logFile.toString(), false);
+        fileHandler.setLevel(Level.ALL);
+        fileHandler.setFormatter(new SimpleFormatter());
+        Handler handler = async ? new AsyncLogHandler(fileHandler, 8192) : fileHandler;
+        ParserLogging.install(handler, level);
+
+        ApplicationEntryPoint app = new ApplicationEntryPoint(null, new InMemorySignalSink(),
+                new ResultWriter(outputFile.toString()));
+        SyntheticGameGenerator generator = new SyntheticGameGenerator(gameCount, 42);
+
+        // Прогрев JIT
+        for (int i = 0; i < polls / 10; i++) {
+            runPoll(app, generator);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < polls; i++) {
+            runPoll(app, generator);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        handler.close();
+        return elapsed / 1_000.0 / polls;
+    }
+
+    private static void runPoll(ApplicationEntryPoint app, SyntheticGameGenerator generator) {
+        generator.advance(5); // ~5 секунд игрового времени между опросами
+        String body = generator.renderBody();
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Ответ сервера (JSON): " + body);
+        }
+        app.processPoll(new JSONObject(body), System.nanoTime());
+        app.logGames();
+        app.handleSignal();
+    }
+}
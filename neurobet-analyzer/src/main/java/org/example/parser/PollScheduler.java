@@ -0,0 +1,111 @@
+package org.example.parser;
+
+import org.example.metrics.Counter;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Планировщик опросов ленты по игровым часам.
+ *
+ * <p>Игре нужен один снимок на игровую минуту (корзина {@code time / 60} в {@link JsonGameMapper}),
+ * поэтому для каждой отслеживаемой игры вычисляется срок — сразу после ближайшей границы минуты,
+ * если часы идут, — и следующий опрос назначается на ближайший из сроков. Пока часы стоят у самой
+ * границы, срок остаётся близким и опросы идут часто; в середине минуты — редко. В окне конца
+ * четверти (600–720 с), где ловится итоговый счёт, опрос идёт с постоянным коротким интервалом.
+ * Если следить не за чем, лента опрашивается раз в {@link #DEFAULT_IDLE_INTERVAL_MS} мс,
+ * чтобы заметить новые игры.</p>
+ *
+ * <p>После ошибки интервал растёт экспоненциально со случайным разбросом (половина интервала
+ * плюс случайная добавка до второй половины), чтобы повторные запросы не шли строем; первый
+ * успешный опрос сбрасывает счётчик ошибок.</p>
+ */
+public class PollScheduler {
+
+    public static final long DEFAULT_MIN_INTERVAL_MS = 1_000;
+    public static final long DEFAULT_IDLE_INTERVAL_MS = 10_000;
+
+    private static final long BOUNDARY_MARGIN_MS = 500; // Запас после границы минуты на задержку ленты
+    private static final long END_OF_QUARTER_INTERVAL_MS = 2_000;
+    private static final int MINUTE_SNAPSHOT_END = 600; // Последняя поминутная граница — 9:00..10:00
+    private static final int QUARTER_END = 720;
+
+    private static final long BACKOFF_BASE_MS = 2_000;
+    private static final long BACKOFF_MAX_MS = 120_000;
+
+    private static final MetricsRegistry METRICS = MetricsRegistry.global();
+    private static final LatencyHistogram POLL_DELAY = METRICS.histogram("poll.delay.ms");
+    private static final Counter POLL_ERRORS = METRICS.counter("poll.errors");
+
+    private final long minIntervalMs;
+    private final long idleIntervalMs;
+    private final Random random;
+
+    private int consecutiveErrors;
+
+    public PollScheduler() {
+        this(DEFAULT_MIN_INTERVAL_MS, DEFAULT_IDLE_INTERVAL_MS, new Random());
+    }
+
+    /**
+     * @param minIntervalMs  минимальный интервал между опросами
+     * @param idleIntervalMs интервал, когда ни одной игре не нужен снимок раньше
+     * @param random         источник разброса интервалов отката
+     */
+    public PollScheduler(long minIntervalMs, long idleIntervalMs, Random random) {
+        this.minIntervalMs = minIntervalMs;
+        this.idleIntervalMs = idleIntervalMs;
+        this.random = random;
+    }
+
+    /**
+     * Задержка до следующего опроса после успешно обработанного ответа.
+     *
+     * @param games игры с игровым временем из только что полученного ответа
+     */
+    public long afterPoll(List<Game> games) {
+        consecutiveErrors = 0;
+
+        long delay = idleIntervalMs;
+        for (Game game : games) {
+            delay = Math.min(delay, delayFor(game.getGameTimeInSeconds()));
+        }
+        delay = Math.max(minIntervalMs, delay);
+        POLL_DELAY.record(delay);
+        return delay;
+    }
+
+    /**
+     * Задержка до повторного опроса после ошибки ленты.
+     */
+    public long afterError() {
+        POLL_ERRORS.increment();
+        int exponent = Math.min(consecutiveErrors, 16);
+        consecutiveErrors++;
+
+        long ceiling = Math.min(BACKOFF_MAX_MS, BACKOFF_BASE_MS << exponent);
+        long delay = ceiling / 2 + (long) (random.nextDouble() * (ceiling / 2));
+        POLL_DELAY.record(delay);
+        return delay;
+    }
+
+    public int getConsecutiveErrors() {
+        return consecutiveErrors;
+    }
+
+    /**
+     * Время до следующего полезного снимка игры при идущих часах.
+     */
+    long delayFor(int gameTimeInSeconds) {
+        if (gameTimeInSeconds < MINUTE_SNAPSHOT_END) {
+            int nextBoundary = (gameTimeInSeconds / 60 + 1) * 60;
+            return (nextBoundary - gameTimeInSeconds) * 1000L + BOUNDARY_MARGIN_MS;
+        }
+        if (gameTimeInSeconds < QUARTER_END) {
+            return END_OF_QUARTER_INTERVAL_MS;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.parser;
+
+/**
+ * Определяет, изменился ли ответ ленты с прошлого опроса, по 64-битному хешу FNV-1a и длине тела.
+ * Хеш считается за один проход по символам — на порядок дешевле разбора JSON.
+ */
+public class ResponseChangeDetector {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private long lastHash;
+    private int lastLength = -1;
+
+    /**
+     * @return {@code true}, если тело отличается от предыдущего (первый ответ всегда считается новым)
+     */
+    public boolean hasChanged(String body) {
+        long hash = hash(body);
+        boolean changed = body.length() != lastLength || hash != lastHash;
+        lastHash = hash;
+        lastLength = body.length();
+        return changed;
+    }
+
+    static long hash(String body) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < body.length(); i++) {
+            hash ^= body.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
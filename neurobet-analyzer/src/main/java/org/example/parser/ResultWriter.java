@@ -1,6 +1,13 @@
 package org.example.parser;
 
+import org.example.metrics.Counter;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.ResultFlushEvent;
+import org.example.neuralnet.FeatureEncoder;
+
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -19,7 +26,7 @@ import java.util.logging.Logger;
  * <ol>
  *     <li>В метод {@code writeGameResult(Game game)} поступает объект игры с заполненными параметрами (счета, тоталы, замки, результат и т.п.).</li>
  *     <li>Формируется строка-резюме об игре и записывается в лог.</li>
- *     <li>Для каждой минуты (1–9) вызывается {@code encodeMinute(...)} — метод формирует массив длиной 300 байт,
+ *     <li>Для каждой минуты (1–9) {@link FeatureEncoder} формирует строку из 300 ячеек прямо в буфер символов,
  *     где активированы ячейки, соответствующие:
  *         <ul>
  *             <li>Очкам команд</li>
@@ -43,10 +50,12 @@ import java.util.logging.Logger;
  * <p>Файл output.txt содержит:
  * <ul>
  *     <li>Лог событий с отметками времени</li>
+ *     <li>Заголовок с версией схемы признаков — в начале каждого запуска</li>
  *     <li>Векторные строки — одна на каждую минуту игры</li>
  * </ul>
  *
- * <p>Для каждого нового запуска программы метод {@link #logStartupMarker()} фиксирует время старта.
+ * <p>Для каждого нового запуска программы метод {@link #logStartupMarker()} пишет в лог время старта,
+ * а в файл — заголовок с версией схемы признаков.
  *
  * @author TG @DeciplineFX
  * @version 1.0
@@ -57,44 +66,98 @@ public class ResultWriter {
     private static final Logger logger = Logger.getLogger(ResultWriter.class.getName());
     private static final String OUTPUT_PATH = "C:/output.txt";
 
+    private static final LatencyHistogram WRITE_LATENCY = MetricsRegistry.global().histogram("writer.write.latency.ns");
+    private static final Counter ROWS_WRITTEN = MetricsRegistry.global().counter("writer.rows");
+
+    private final String outputPath;
+
+    // Переиспользуемый буфер строки выборки: без byte[300] и StringBuilder на каждую минуту
+    private final char[] rowBuffer = new char[FeatureEncoder.TEXT_ROW_LENGTH];
+
+    public ResultWriter() {
+        this(OUTPUT_PATH);
+    }
+
+    /**
+     * @param outputPath файл выборки; дописывается, а не перезаписывается
+     */
+    public ResultWriter(String outputPath) {
+        this.outputPath = outputPath;
+    }
+
     /**
      * Записывает результат игры в лог и сохраняет векторные представления в файл.
+     * Синхронизирован: буфер строки общий, а в режиме {@link ShardedIngestion} пишут несколько шардов.
      *
      * @param game объект Game с заполненными полями.
      */
-    public void writeGameResult(Game game) {
+    public synchronized void writeGameResult(Game game) {
         logger.info("Запись информации об игре...");
 
         String summary = buildSummaryString(game);
         writeToFile(getTimestamp() + " - " + summary);
 
         logger.info(summary);
-        logger.info("Начинается генерация строк для нейросети...");
-
-        String[] minuteData = new String[]{
-                byteArrayToString(encodeMinute(game.getTotalOne1(), game.getTotalTwo1(), game.getSuggestedTotal1Min(), 1, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne2(), game.getTotalTwo2(), game.getSuggestedTotal2Min(), 2, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne3(), game.getTotalTwo3(), game.getSuggestedTotal3Min(), 3, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne4(), game.getTotalTwo4(), game.getSuggestedTotal4Min(), 4, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne5(), game.getTotalTwo5(), game.getSuggestedTotal5Min(), 5, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne6(), game.getTotalTwo6(), game.getSuggestedTotal6Min(), 6, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne7(), game.getTotalTwo7(), game.getSuggestedTotal7Min(), 7, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne8(), game.getTotalTwo8(), game.getSuggestedTotal8Min(), 8, game.getFinalScore())),
-                byteArrayToString(encodeMinute(game.getTotalOne9(), game.getTotalTwo9(), game.getSuggestedTotal9Min(), 9, game.getFinalScore()))
-        };
-
-        for (String line : minuteData) {
-            writeToFile(line);
+        logger.fine("Начинается генерация строк для нейросети...");
+
+        ResultFlushEvent flushEvent = new ResultFlushEvent();
+        flushEvent.begin();
+        boolean flushed = false;
+        long writeStart = System.nanoTime();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath, true))) {
+            for (int minute = 0; minute < 9; minute++) {
+                int length = FeatureEncoder.encodeText(
+                        game.getScoreForTeamOneAtMinute(minute),
+                        game.getScoreForTeamTwoAtMinute(minute),
+                        game.getBookmakerTotalAtMinute(minute),
+                        minute + 1,
+                        game.getFinalTotalScore(),
+                        rowBuffer);
+                writer.write(rowBuffer, 0, length);
+                writer.newLine();
+            }
+            ROWS_WRITTEN.add(9);
+            writer.flush();
+            flushed = true;
+        } catch (IOException e) {
+            logger.severe("Ошибка записи в файл: " + e.getMessage());
         }
+        WRITE_LATENCY.recordSince(writeStart);
+        flushEvent.finish(game.getGameId(), 9, flushed);
 
-        logger.info("Формирование завершено");
+        logger.fine("Формирование завершено");
     }
 
     /**
-     * Выводит отладочную метку старта программы в лог.
+     * Формирует векторы всех 9 минут игры в том же виде, что и строки файла (без перевода в текст).
+     *
+     * @param game завершённая игра с известным итоговым тоталом.
+     * @return 9 массивов по 300 ячеек; последняя ячейка — целевой результат.
+     */
+    public byte[][] encodeGame(Game game) {
+        byte[][] rows = new byte[9][FeatureEncoder.ROW_SIZE];
+        for (int minute = 0; minute < 9; minute++) {
+            FeatureEncoder.encodeDense(
+                    game.getScoreForTeamOneAtMinute(minute),
+                    game.getScoreForTeamTwoAtMinute(minute),
+                    game.getBookmakerTotalAtMinute(minute),
+                    minute + 1,
+                    game.getFinalTotalScore(),
+                    rows[minute], 0);
+        }
+        return rows;
+    }
+
+    /**
+     * Выводит отладочную метку старта программы в лог, а заголовок схемы — в файл выборки.
+     * Заголовок пишется один раз, первой строкой нового файла: при повторных запусках
+     * файл дописывается без него, и заголовки не копятся среди строк выборки.
      */
     public void logStartupMarker() {
-        writeToFile(getTimestamp() + " - Программа запущена.");
+        logger.info(getTimestamp() + " - Программа запущена.");
+        if (new File(outputPath).length() == 0) {
+            writeToFile(FeatureEncoder.datasetHeader());
+        }
     }
 
     // —————————————————————————————————————————————— ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ ————————————————————————————————————————————— //
@@ -117,38 +180,8 @@ public class ResultWriter {
         );
     }
 
-    private byte[] encodeMinute(int t1, int t2, double suggested, int minute, int finalTotal) {
-        byte[] vector = new byte[300];
-
-        // Безопасная проверка границ (max 49 очков на команду, макс тотал 94.5)
-        if (isSafeIndex(t1, 0, 49)) vector[t1] = 1;
-        if (isSafeIndex(t2 + 50, 50, 99)) vector[t2 + 50] = 1;
-
-        int totalIndex = (int) (suggested * 2) + 100; // 0.5 шаг
-        if (isSafeIndex(totalIndex, 100, 289)) vector[totalIndex] = 1;
-
-        int minuteIndex = 289 + minute;
-        if (isSafeIndex(minuteIndex, 289, 297)) vector[minuteIndex] = 1;
-
-        vector[299] = (byte) (finalTotal < suggested ? 1 : 0);
-
-        return vector;
-    }
-
-    private boolean isSafeIndex(int index, int min, int max) {
-        return index >= min && index <= max;
-    }
-
-    private String byteArrayToString(byte[] array) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : array) {
-            sb.append(b).append(' ');
-        }
-        return sb.toString().trim();
-    }
-
     private void writeToFile(String content) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(OUTPUT_PATH, true))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(outputPath, true))) {
             writer.write(content);
             writer.newLine();
         } catch (IOException e) {
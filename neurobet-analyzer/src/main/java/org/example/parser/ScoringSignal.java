@@ -0,0 +1,76 @@
+package org.example.parser;
+
+/**
+ * Результат оценки одной минуты живой игры моделью.
+ */
+public final class ScoringSignal {
+
+    private final int gameId;
+    private final int minute;
+    private final int scoreTeamOne;
+    private final int scoreTeamTwo;
+    private final double bookmakerTotal;
+    private final double probability;
+    private final boolean bet;
+    private final String modelId;
+
+    public ScoringSignal(int gameId, int minute, int scoreTeamOne, int scoreTeamTwo, double bookmakerTotal,
+                         double probability, boolean bet, String modelId) {
+        this.gameId = gameId;
+        this.minute = minute;
+        this.scoreTeamOne = scoreTeamOne;
+        this.scoreTeamTwo = scoreTeamTwo;
+        this.bookmakerTotal = bookmakerTotal;
+        this.probability = probability;
+        this.bet = bet;
+        this.modelId = modelId;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getMinute() {
+        return minute;
+    }
+
+    public int getScoreTeamOne() {
+        return scoreTeamOne;
+    }
+
+    public int getScoreTeamTwo() {
+        return scoreTeamTwo;
+    }
+
+    public double getBookmakerTotal() {
+        return bookmakerTotal;
+    }
+
+    public double getProbability() {
+        return probability;
+    }
+
+    /**
+     * @return {@code true}, если модель рекомендует ставку («Ставим»)
+     */
+    public boolean isBet() {
+        return bet;
+    }
+
+    public String getModelId() {
+        return modelId;
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringSignal{" +
+                "gameId=" + gameId +
+                ", minute=" + minute +
+                ", score=" + scoreTeamOne + ":" + scoreTeamTwo +
+                ", bookmakerTotal=" + bookmakerTotal +
+                ", probability=" + probability +
+                ", bet=" + bet +
+                ", modelId='" + modelId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.parser;
+
+import java.util.Locale;
+
+/**
+ * Снимок состояния шарда приёма ленты для статуса {@link ShardedIngestion}.
+ */
+public final class ShardStatus {
+
+    private final String shardName;
+    private final int games;
+    private final long polls;
+    private final long errors;
+    private final int consecutiveErrors;
+    private final double pollsPerMinute;
+    private final long lagMs;
+    private final long schedulingLagMs;
+    private final long lastPollMs;
+
+    ShardStatus(String shardName, int games, long polls, long errors, int consecutiveErrors,
+                double pollsPerMinute, long lagMs, long schedulingLagMs, long lastPollMs) {
+        this.shardName = shardName;
+        this.games = games;
+        this.polls = polls;
+        this.errors = errors;
+        this.consecutiveErrors = consecutiveErrors;
+        this.pollsPerMinute = pollsPerMinute;
+        this.lagMs = lagMs;
+        this.schedulingLagMs = schedulingLagMs;
+        this.lastPollMs = lastPollMs;
+    }
+
+    public String getShardName() {
+        return shardName;
+    }
+
+    /**
+     * Игр в реестре шарда.
+     */
+    public int getGames() {
+        return games;
+    }
+
+    public long getPolls() {
+        return polls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public int getConsecutiveErrors() {
+        return consecutiveErrors;
+    }
+
+    /**
+     * Частота опросов по скользящему среднему интервала между ними.
+     */
+    public double getPollsPerMinute() {
+        return pollsPerMinute;
+    }
+
+    /**
+     * Возраст данных шарда: время с последнего успешного ответа, мс; -1 — ответов ещё не было.
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    /**
+     * Насколько последний опрос начался позже назначенного (все потоки пула были заняты), мс.
+     */
+    public long getSchedulingLagMs() {
+        return schedulingLagMs;
+    }
+
+    /**
+     * Длительность последнего опроса вместе с разбором и оценкой, мс.
+     */
+    public long getLastPollMs() {
+        return lastPollMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-20s игр %4d | опросов %6d (%5.1f/мин) | ошибок %4d (подряд %d) | "
+                        + "отставание %6d мс | задержка запуска %5d мс | опрос %5d мс",
+                shardName, games, polls, pollsPerMinute, errors, consecutiveErrors, lagMs, schedulingLagMs, lastPollMs);
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.parser;
+
+import org.example.metrics.FlightRecording;
+import org.example.metrics.MetricsExporter;
+import org.example.metrics.MetricsRegistry;
+import org.example.neuralnet.ModelRegistry;
+import org.example.neuralnet.OnlineTrainer;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Шардированный приём ленты: несколько запросов ({@link FeedQuery}, например разные виды спорта и лиги),
+ * каждый разделён на {@code N} шардов {@link IngestionShard} по стабильному хешу идентификатора игры.
+ *
+ * <p>Каждый запрос ленты выполняется один раз за цикл ({@link FeedQueryPoller}), и строки ответа
+ * раздаются шардам; нагрузка на ленту не зависит от числа шардов. Опросы и обработка шардов идут
+ * в пуле из {@code threads} потоков; следующий опрос запроса назначается по {@link PollScheduler}
+ * после того, как все его шарды обработали ответ, поэтому общих блокировок на пути опроса нет.
+ * Если потоков меньше, чем работы, опросы ждут свободного потока — это видно как задержка запуска
+ * в статусе.</p>
+ *
+ * <p>Статус шардов (игр, частота опросов, ошибки, отставание) доступен через {@link #getStatus()},
+ * на странице {@code /shards} эндпоинта метрик и периодически пишется в лог.</p>
+ *
+ * <p>Параметры запуска: {@code [--feeds файл] [--shards N] [--threads N] [--stub игр] [--status-sec S]
+ * [--metrics-port N] [--signals файл] [--output файл] [--online файл модели]}.
+ * Без {@code --feeds} опрашивается только {@link FeedQuery#BASKETBALL}; с {@code --stub} вместо сайта
+ * поднимается {@link StubFeedServer} с отдельным генератором на каждый вид спорта из списка.
+ * Порт метрик, файлы сигналов, выборки и записи JFR по умолчанию отличаются от {@link ApplicationEntryPoint},
+ * поэтому оба процесса можно запустить рядом; каталог моделей общий — он только читается.</p>
+ */
+public class ShardedIngestion implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ShardedIngestion.class.getName());
+
+    private static final String MODEL_DIRECTORY = "C:/models";
+    private static final String SIGNALS_PATH = "C:/signals-sharded.txt";
+    private static final String OUTPUT_PATH = "C:/output-sharded.txt";
+    private static final int METRICS_PORT = 9465;
+    private static final String FLIGHT_RECORDING = "C:/parser-sharded.jfr";
+    private static final long ONLINE_PUBLISH_INTERVAL_MS = 10 * 60 * 1000; // Как в ApplicationEntryPoint
+
+    private final List<FeedQueryPoller> pollers = new ArrayList<>();
+    private final List<IngestionShard> shards = new ArrayList<>();
+    private final int threads;
+
+    private ScheduledExecutorService executor;
+    private volatile boolean closed;
+
+    /**
+     * @param queries        запросы ленты
+     * @param shardsPerQuery число шардов каждого запроса
+     * @param threads        потоков опроса
+     * @param feedHost       схема и хост ленты
+     */
+    public ShardedIngestion(List<FeedQuery> queries, int shardsPerQuery, int threads, String feedHost,
+                            ModelRegistry modelRegistry, SignalSink signalSink, ResultWriter resultWriter) {
+        if (shardsPerQuery < 1 || threads < 1) {
+            throw new IllegalArgumentException("Число шардов и потоков должно быть положительным");
+        }
+        for (FeedQuery query : queries) {
+            FeedQueryPoller poller = new FeedQueryPoller(query, shardsPerQuery, feedHost, modelRegistry, signalSink, resultWriter);
+            pollers.add(poller);
+            shards.addAll(poller.getShards());
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Включает онлайн-дообучение на завершённых играх всех шардов. Вызывается до {@link #start()}.
+     */
+    public void setOnlineTrainer(OnlineTrainer onlineTrainer) {
+        for (IngestionShard shard : shards) {
+            shard.setOnlineTrainer(onlineTrainer);
+        }
+    }
+
+    /**
+     * Запускает опросы. Первые опросы запросов разнесены в пределах секунды.
+     */
+    public synchronized void start() {
+        if (executor != null) return;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ingest-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < pollers.size(); i++) {
+            schedule(pollers.get(i), i * 1_000L / pollers.size());
+        }
+        logger.info("Шардированный приём запущен: " + pollers.size() + " запросов, " + shards.size() + " шардов, "
+                + threads + " потоков");
+    }
+
+    public List<IngestionShard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    public List<ShardStatus> getStatus() {
+        List<ShardStatus> status = new ArrayList<>(shards.size());
+        for (FeedQueryPoller poller : pollers) {
+            poller.collectStatus(status);
+        }
+        return status;
+    }
+
+    /**
+     * Статус всех шардов, по строке на шард.
+     */
+    public String statusReport() {
+        StringBuilder report = new StringBuilder();
+        for (ShardStatus status : getStatus()) {
+            report.append(status).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        for (FeedQueryPoller poller : pollers) {
+            poller.close();
+        }
+    }
+
+    private void schedule(FeedQueryPoller poller, long delayMs) {
+        if (closed) return;
+        long plannedAt = System.currentTimeMillis() + delayMs;
+        executor.schedule(() -> run(poller, plannedAt), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(FeedQueryPoller poller, long plannedAt) {
+        CompletableFuture<Long> cycle;
+        try {
+            cycle = poller.poll(Math.max(0, System.currentTimeMillis() - plannedAt), executor);
+        } catch (Exception e) {
+            cycle = CompletableFuture.failedFuture(e);
+        }
+        cycle.whenComplete((delay, error) -> {
+            if (error != null) {
+                logger.log(Level.SEVERE, "Запрос " + poller.getQuery().getName() + ": необработанная ошибка опроса", error);
+            }
+            schedule(poller, error == null ? delay : PollScheduler.DEFAULT_IDLE_INTERVAL_MS);
+        });
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ParserLogging.configure();
+        FlightRecording.startContinuous(Paths.get(FLIGHT_RECORDING));
+
+        List<FeedQuery> queries = List.of(FeedQuery.BASKETBALL);
+        int shardsPerQuery = 4;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int stubGames = 0;
+        int statusSeconds = 60;
+        int metricsPort = METRICS_PORT;
+        String signalsPath = SIGNALS_PATH;
+        String outputPath = OUTPUT_PATH;
+        String onlineModelPath = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--feeds" -> queries = FeedQuery.load(Paths.get(args[++i]));
+                case "--shards" -> shardsPerQuery = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--stub" -> stubGames = Integer.parseInt(args[++i]);
+                case "--status-sec" -> statusSeconds = Integer.parseInt(args[++i]);
+                case "--metrics-port" -> metricsPort = Integer.parseInt(args[++i]);
+                case "--signals" -> signalsPath = args[++i];
+                case "--output" -> outputPath = args[++i];
+                case "--online" -> onlineModelPath = args[++i];
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+
+        String feedHost = HttpConnectionManager.defaultFeedHost();
+        SignalSink signalSink;
+        if (stubGames > 0) {
+            StubFeedServer server = new StubFeedServer(new SyntheticGameGenerator(stubGames, 42), 1.0, 50, 25, 0.01);
+            for (FeedQuery query : queries) {
+                server.addSport(query.getSportId(), new SyntheticGameGenerator(stubGames, 42 + query.getSportId(),
+                        query.getPeriodName(), "Перерыв", 600_000_000 + query.getSportId() * 1_000_000));
+            }
+            feedHost = server.start(0);
+            signalSink = new InMemorySignalSink();
+        } else {
+            signalSink = new FileSignalSink(signalsPath);
+        }
+
+        ModelRegistry modelRegistry = new ModelRegistry();
+        modelRegistry.watch(Paths.get(MODEL_DIRECTORY));
+        ResultWriter resultWriter = new ResultWriter(outputPath);
+        resultWriter.logStartupMarker();
+
+        ShardedIngestion ingestion = new ShardedIngestion(queries, shardsPerQuery, threads, feedHost,
+                modelRegistry, signalSink, resultWriter);
+        if (onlineModelPath != null) {
+            OnlineTrainer onlineTrainer = OnlineTrainer.fromModelFile(Paths.get(onlineModelPath), modelRegistry,
+                    ONLINE_PUBLISH_INTERVAL_MS);
+            onlineTrainer.start();
+            ingestion.setOnlineTrainer(onlineTrainer);
+        }
+        MetricsExporter exporter = new MetricsExporter(MetricsRegistry.global());
+        exporter.startHttp(metricsPort);
+        exporter.addTextEndpoint("/shards", ingestion::statusReport);
+        ingestion.start();
+
+        while (true) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(statusSeconds));
+            logger.info("Статус шардов:" + System.lineSeparator() + ingestion.statusReport());
+        }
+    }
+}
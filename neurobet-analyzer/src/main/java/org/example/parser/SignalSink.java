@@ -0,0 +1,16 @@
+package org.example.parser;
+
+/**
+ * Получатель сигналов живой оценки игр.
+ * Вызывается из потока опроса, поэтому реализация не должна надолго блокировать.
+ */
+public interface SignalSink {
+
+    void accept(ScoringSignal signal);
+
+    /**
+     * Вызывается в конце каждого опроса, после всех сигналов этого опроса.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.parser;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Встроенный HTTP-сервер-заглушка ленты {@code /LiveFeed/Get1x2_VZip} для нагрузочных
+ * и длительных тестов без реального сайта.
+ *
+ * <p>Ответы строит {@link SyntheticGameGenerator}; игровое время идёт в {@code timeScale} раз
+ * быстрее реального. Настраиваются задержка ответа (с разбросом) и доля ответов с ошибкой 503.
+ * Ответы помечаются ETag; на совпадающий {@code If-None-Match} сервер отвечает 304.</p>
+ *
+ * <p>Для проверки нескольких запросов ленты ({@link ShardedIngestion}) генераторам других видов спорта
+ * назначаются свои значения параметра {@code sports} ({@link #addSport}); параметр {@code count}
+ * ограничивает число игр в ответе.</p>
+ */
+public class StubFeedServer implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(StubFeedServer.class.getName());
+
+    static final String FEED_PATH = FeedQuery.FEED_PATH;
+
+    private final SyntheticGameGenerator generator;
+    private final Map<Integer, SyntheticGameGenerator> sports = new ConcurrentHashMap<>();
+    private final double timeScale;
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final double errorRate;
+
+    private final Random random = new Random(7);
+    private final AtomicLong servedRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private long lastAdvanceNanos;
+
+    /**
+     * @param generator       генератор игр
+     * @param timeScale       во сколько раз игровое время быстрее реального
+     * @param latencyMs       базовая задержка ответа
+     * @param latencyJitterMs случайная добавка к задержке (0..jitter)
+     * @param errorRate       доля ответов 503 (0..1)
+     */
+    public StubFeedServer(SyntheticGameGenerator generator, double timeScale,
+                          long latencyMs, long latencyJitterMs, double errorRate) {
+        this.generator = generator;
+        this.timeScale = timeScale;
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Запускает сервер на loopback-интерфейсе.
+     *
+     * @param port порт или 0 — любой свободный
+     * @return базовый адрес вида {@code http://127.0.0.1:port}
+     */
+    public synchronized String start(int port) throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext(FEED_PATH, this::handle);
+        executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "stub-feed-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        lastAdvanceNanos = System.nanoTime();
+        httpServer.start();
+
+        String baseUrl = "http://127.0.0.1:" + httpServer.getAddress().getPort();
+        logger.info("Заглушка ленты запущена: " + baseUrl + FEED_PATH + ", игр: " + generator.getGameCount());
+        return baseUrl;
+    }
+
+    /**
+     * Отдаёт ответы {@code generator} на запросы с {@code sports=sportId}; остальные запросы
+     * обслуживает основной генератор.
+     */
+    public void addSport(int sportId, SyntheticGameGenerator generator) {
+        sports.put(sportId, generator);
+    }
+
+    public long getServedRequests() {
+        return servedRequests.get();
+    }
+
+    public long getFailedRequests() {
+        return failedRequests.get();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            executor.shutdownNow();
+            httpServer = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            advanceClock();
+            simulateLatency();
+
+            if (nextDouble() < errorRate) {
+                failedRequests.incrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+
+            String query = exchange.getRequestURI().getRawQuery();
+            SyntheticGameGenerator source = sports.getOrDefault(intParameter(query, "sports", -1), generator);
+            String bodyString = source.renderBody(intParameter(query, "count", Integer.MAX_VALUE));
+            String etag = "\"" + Long.toHexString(ResponseChangeDetector.hash(bodyString)) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                servedRequests.incrementAndGet();
+                return;
+            }
+
+            byte[] body = bodyString.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            servedRequests.incrementAndGet();
+        }
+    }
+
+    private synchronized void advanceClock() {
+        long now = System.nanoTime();
+        double gameSeconds = (now - lastAdvanceNanos) / 1e9 * timeScale;
+        generator.advance(gameSeconds);
+        for (SyntheticGameGenerator sport : sports.values()) {
+            sport.advance(gameSeconds);
+        }
+        lastAdvanceNanos = now;
+    }
+
+    private static int intParameter(String query, String name, int defaultValue) {
+        if (query == null) return defaultValue;
+        for (String pair : query.split("&")) {
+            if (pair.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(pair.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private void simulateLatency() {
+        long delay = latencyMs + (latencyJitterMs > 0 ? (long) (nextDouble() * latencyJitterMs) : 0);
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Длительный прогон полного цикла {@link ApplicationEntryPoint} против заглушки.
+     *
+     * <p>Параметры: {@code [игр] [ускорение времени] [задержка мс] [доля ошибок]}.
+     * Результаты пишутся во временный каталог; каталог моделей, журнал состояния и эндпоинт метрик
+     * рабочего парсера не используются, поэтому прогон можно запускать рядом с ним.</p>
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, TelegramApiException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        double timeScale = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        long latency = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.01;
+
+        ParserLogging.configure();
+
+        StubFeedServer server = new StubFeedServer(new SyntheticGameGenerator(games, 42), timeScale,
+                latency, latency / 2, errorRate);
+        String baseUrl = server.start(0);
+        System.setProperty(HttpConnectionManager.FEED_HOST_PROPERTY, baseUrl);
+
+        Path workDirectory = Files.createTempDirectory("stub-feed");
+        ApplicationEntryPoint app = new ApplicationEntryPoint(null, new InMemorySignalSink(),
+                new ResultWriter(workDirectory.resolve("output.txt").toString()));
+        app.setModelDirectory(workDirectory.resolve("models"));
+        app.setMetricsPort(-1);
+        app.run();
+    }
+}
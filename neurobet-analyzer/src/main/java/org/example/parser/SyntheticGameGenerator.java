@@ -0,0 +1,190 @@
+package org.example.parser;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор синтетической ленты баскетбольных матчей в формате {@code Get1x2_VZip}.
+ *
+ * <p>Поддерживает заданное число одновременных игр. Каждая игра проходит первую четверть
+ * (0–600 с игрового времени, {@code CPS = "1-я Четверть"}), затем начало второй; после
+ * {@link #GAME_END_SECONDS} игра заменяется новой с другим идентификатором. Счёт растёт
+ * случайными бросками, тотал букмекера на первую четверть подстраивается под темп игры.
+ * Генератор детерминирован при одинаковом зерне.</p>
+ */
+public class SyntheticGameGenerator {
+
+    static final String FIRST_QUARTER = "1-я Четверть";
+    static final String SECOND_QUARTER = "2-я Четверть";
+
+    private static final int QUARTER_SECONDS = 600;
+    private static final int GAME_END_SECONDS = 900;
+
+    private final Random random;
+    private final String firstPeriod;
+    private final String secondPeriod;
+    private final List<SimulatedGame> games = new ArrayList<>();
+    private int nextGameId;
+    private double pendingSeconds;
+
+    /**
+     * @param gameCount количество одновременных игр
+     * @param seed      зерно генератора случайных чисел
+     */
+    public SyntheticGameGenerator(int gameCount, long seed) {
+        this(gameCount, seed, FIRST_QUARTER, SECOND_QUARTER, 500_000_000);
+    }
+
+    /**
+     * Генератор для другого вида спорта или лиги: свои названия периодов и свой диапазон идентификаторов,
+     * чтобы игры разных генераторов одной заглушки не совпадали.
+     *
+     * @param firstPeriod  название отслеживаемого периода
+     * @param secondPeriod название следующего периода
+     * @param firstGameId  идентификатор первой игры
+     */
+    public SyntheticGameGenerator(int gameCount, long seed, String firstPeriod, String secondPeriod, int firstGameId) {
+        this.random = new Random(seed);
+        this.firstPeriod = firstPeriod;
+        this.secondPeriod = secondPeriod;
+        this.nextGameId = firstGameId;
+        for (int i = 0; i < gameCount; i++) {
+            SimulatedGame game = newGame();
+            // Разносим игры по времени, чтобы минуты и концы четвертей не совпадали у всех сразу
+            game.advance(random.nextInt(GAME_END_SECONDS), random);
+            games.add(game);
+        }
+    }
+
+    /**
+     * Продвигает все игры на указанное количество секунд игрового времени.
+     */
+    public synchronized void advance(double gameSeconds) {
+        pendingSeconds += gameSeconds;
+        int whole = (int) pendingSeconds;
+        if (whole == 0) return;
+        pendingSeconds -= whole;
+
+        for (int i = 0; i < games.size(); i++) {
+            SimulatedGame game = games.get(i);
+            game.advance(whole, random);
+            if (game.clock >= GAME_END_SECONDS) {
+                games.set(i, newGame());
+            }
+        }
+    }
+
+    /**
+     * Текущее состояние всех игр как тело ответа {@code Get1x2_VZip}.
+     */
+    public synchronized String renderBody() {
+        return renderBody(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Тело ответа не более чем с {@code limit} играми, как при параметре {@code count} запроса.
+     */
+    public synchronized String renderBody(int limit) {
+        JSONArray value = new JSONArray();
+        for (int i = 0; i < games.size() && i < limit; i++) {
+            value.put(games.get(i).toJson(firstPeriod, secondPeriod));
+        }
+        return new JSONObject().put("Value", value).toString();
+    }
+
+    public synchronized int getGameCount() {
+        return games.size();
+    }
+
+    private SimulatedGame newGame() {
+        int id = nextGameId++;
+        return new SimulatedGame(id, "Team " + id + "A", "Team " + id + "B",
+                36.5 + random.nextInt(20), 0.6 + random.nextDouble() * 0.4);
+    }
+
+    private static final class SimulatedGame {
+
+        private final int id;
+        private final String teamOne;
+        private final String teamTwo;
+        private final double pace; // множитель темпа: ~2.8 * pace очков на команду за игровую минуту
+
+        private int clock;
+        private int quarterOne1, quarterOne2; // счёт первой четверти
+        private int score1, score2;           // полный счёт
+        private double bookmakerTotal;
+
+        SimulatedGame(int id, String teamOne, String teamTwo, double openingTotal, double pace) {
+            this.id = id;
+            this.teamOne = teamOne;
+            this.teamTwo = teamTwo;
+            this.bookmakerTotal = openingTotal;
+            this.pace = pace;
+        }
+
+        void advance(int seconds, Random random) {
+            for (int s = 0; s < seconds; s++) {
+                clock++;
+                // Бросок с вероятностью pace/45 в секунду, в среднем 2.1 очка за попадание
+                if (random.nextDouble() < pace / 45) {
+                    int points = shot(random);
+                    score1 += points;
+                    if (clock <= QUARTER_SECONDS) quarterOne1 += points;
+                }
+                if (random.nextDouble() < pace / 45) {
+                    int points = shot(random);
+                    score2 += points;
+                    if (clock <= QUARTER_SECONDS) quarterOne2 += points;
+                }
+                if (clock % 60 == 0 && clock < QUARTER_SECONDS) {
+                    rebalanceTotal();
+                }
+            }
+        }
+
+        private static int shot(Random random) {
+            double roll = random.nextDouble();
+            return roll < 0.15 ? 1 : roll < 0.75 ? 2 : 3;
+        }
+
+        /**
+         * Линия на четверть: набранное плюс темп на оставшееся время, с шагом 0.5.
+         */
+        private void rebalanceTotal() {
+            double projected = (quarterOne1 + quarterOne2) * (double) QUARTER_SECONDS / clock;
+            double line = 0.7 * bookmakerTotal + 0.3 * projected;
+            bookmakerTotal = Math.floor(line) + 0.5;
+        }
+
+        JSONObject toJson(String firstPeriod, String secondPeriod) {
+            boolean firstQuarter = clock <= QUARTER_SECONDS;
+
+            JSONObject fullScore = new JSONObject().put("S1", score1).put("S2", score2);
+            JSONArray periods = new JSONArray()
+                    .put(new JSONObject().put("NF", firstPeriod).put("S1", quarterOne1).put("S2", quarterOne2));
+            JSONObject sc = new JSONObject()
+                    .put("CPS", firstQuarter ? firstPeriod : secondPeriod)
+                    .put("TS", clock)
+                    .put("FS", fullScore)
+                    .put("PS", periods);
+
+            JSONArray events = new JSONArray()
+                    .put(new JSONObject().put("T", 9).put("C", bookmakerTotal))
+                    .put(new JSONObject().put("T", 10).put("C", bookmakerTotal));
+            JSONArray subGames = new JSONArray()
+                    .put(new JSONObject().put("PN", firstPeriod).put("E", events));
+
+            return new JSONObject()
+                    .put("I", id)
+                    .put("O1", teamOne)
+                    .put("O2", teamTwo)
+                    .put("O2IS", new JSONArray().put(id))
+                    .put("SC", sc)
+                    .put("SG", subGames);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        for (long value = 0; value < 128; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertEquals(value, index);
+            assertEquals(value, LatencyHistogram.bucketLowerBound(index));
+        }
+    }
+
+    @Test
+    void valueLiesInsideItsBucket() {
+        long[] values = {128, 129, 191, 192, 255, 256, 1_000, 65_535, 65_536, 1_000_000, 123_456_789,
+                (1L << 40) - 1};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            long upper = LatencyHistogram.bucketLowerBound(index + 1);
+            assertTrue(lower <= value && value < upper, value + " вне [" + lower + ", " + upper + ")");
+            assertTrue(upper - lower <= Math.max(1, lower / 64), "корзина шире 1/64 для " + value);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        int last = LatencyHistogram.bucketIndex((1L << 40) - 1);
+        for (int index = 0; index < last; index++) {
+            long lower = LatencyHistogram.bucketLowerBound(index);
+            long next = LatencyHistogram.bucketLowerBound(index + 1);
+            assertTrue(next > lower);
+            assertEquals(index, LatencyHistogram.bucketIndex(lower));
+            assertEquals(index, LatencyHistogram.bucketIndex(next - 1));
+        }
+    }
+
+    @Test
+    void valuesBeyondRangeGoToLastBucket() {
+        int last = LatencyHistogram.bucketIndex((1L << 40) - 1);
+        assertEquals(last, LatencyHistogram.bucketIndex(1L << 40));
+        assertEquals(last, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    void quantilesAreBucketLowerBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+        histogram.record(-5); // Считается нулём
+
+        assertEquals(1_001, histogram.getCount());
+        assertEquals(1_000, histogram.getMax());
+        assertEquals(0, histogram.getValueAtQuantile(0));
+        long median = histogram.getValueAtQuantile(0.5);
+        assertTrue(median <= 500 && median >= 500 - 500 / 64, "медиана " + median);
+        assertEquals(LatencyHistogram.bucketLowerBound(LatencyHistogram.bucketIndex(1_000)),
+                histogram.getValueAtQuantile(1.0));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.neuralnet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactedDatasetTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void addSegmentAbsorbsOnlyCompleteNewLines() throws IOException {
+        Path segment = directory.resolve("output.txt");
+        String first = row(10, 12, 40, 1, 30);
+        String second = row(10, 12, 40, 1, 50);
+        String third = row(20, 22, 45.5, 3, 30);
+        append(segment, FeatureEncoder.datasetHeader() + "\n" + first + "\n" + second + "\n"
+                + third.substring(0, 100)); // Строку ещё дописывают
+
+        CompactedDataset dataset = new CompactedDataset();
+        long absorbed = dataset.addSegment(segment);
+        assertEquals(Files.size(segment) - 100, absorbed);
+        assertEquals(2, dataset.getTotalRows());
+        assertEquals(1, dataset.size()); // Одинаковые входы, разные исходы
+        assertEquals(1, dataset.getNegatives(0));
+        assertEquals(1, dataset.getPositives(0));
+
+        append(segment, third.substring(100) + "\n12:00:00 - Программа запущена.\n" + first + "\n");
+        dataset.addSegment(segment);
+        assertEquals(4, dataset.getTotalRows());
+        assertEquals(2, dataset.size());
+        assertEquals(2, dataset.getPositives(0));
+        assertEquals(1, dataset.getRejectedRows()); // Строка журнала
+
+        assertEquals(0, dataset.addSegment(segment));
+        assertEquals(4, dataset.getTotalRows());
+    }
+
+    @Test
+    void savedDatasetContinuesFromAbsorbedOffset() throws IOException {
+        Path segment = directory.resolve("output.txt");
+        append(segment, row(1, 2, 40, 1, 30) + "\n");
+
+        CompactedDataset dataset = new CompactedDataset();
+        dataset.addSegment(segment);
+        Path saved = directory.resolve("dataset.nbc");
+        dataset.save(saved);
+
+        append(segment, row(3, 4, 41, 2, 50) + "\n");
+        CompactedDataset loaded = CompactedDataset.load(saved);
+        loaded.addSegment(segment);
+        assertEquals(2, loaded.getTotalRows());
+        assertEquals(2, loaded.size());
+
+        int[] active = new int[CompactedDataset.MAX_PACKED_ACTIVE];
+        int count = loaded.decode(1, active);
+        int[] expected = new int[FeatureEncoder.MAX_ACTIVE];
+        int expectedCount = FeatureEncoder.encodeActive(3, 4, 41, 2, expected, 0);
+        assertEquals(expectedCount, count);
+        Arrays.sort(active, 0, count);
+        Arrays.sort(expected, 0, expectedCount);
+        assertArrayEquals(Arrays.copyOf(expected, expectedCount), Arrays.copyOf(active, count));
+    }
+
+    @Test
+    void shrunkSegmentIsRejected() throws IOException {
+        Path segment = directory.resolve("output.txt");
+        append(segment, row(1, 2, 40, 1, 30) + "\n" + row(1, 2, 40, 2, 30) + "\n");
+        CompactedDataset dataset = new CompactedDataset();
+        dataset.addSegment(segment);
+
+        Files.writeString(segment, row(1, 2, 40, 1, 30) + "\n");
+        assertThrows(IOException.class, () -> dataset.addSegment(segment));
+    }
+
+    private static String row(int t1, int t2, double suggested, int minute, int finalTotal) {
+        char[] text = new char[FeatureEncoder.TEXT_ROW_LENGTH];
+        int length = FeatureEncoder.encodeText(t1, t2, suggested, minute, finalTotal, text);
+        return new String(text, 0, length);
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.neuralnet;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Совпадение {@link FeatureEncoder} с историческим {@code ResultWriter.encodeMinute} байт в байт.
+ */
+class FeatureEncoderTest {
+
+    private static final int[] SCORES = {-1, 0, 1, 25, 49, 50, 51};
+    private static final double[] TOTALS = {-0.5, 0, 0.5, 40, 40.5, 94, 94.5, 95, 120};
+    private static final int[] MINUTES = {0, 1, 5, 8, 9, 10};
+    private static final int[] FINAL_TOTALS = {0, 40, 94, 95, 200};
+
+    @Test
+    void allEncodingsMatchLegacyEncodeMinute() {
+        byte[] dense = new byte[FeatureEncoder.ROW_SIZE];
+        long[] bits = new long[FeatureEncoder.WORDS_PER_ROW];
+        char[] text = new char[FeatureEncoder.TEXT_ROW_LENGTH];
+        int[] active = new int[FeatureEncoder.MAX_ACTIVE];
+
+        for (int t1 : SCORES) {
+            for (int t2 : SCORES) {
+                for (double suggested : TOTALS) {
+                    for (int minute : MINUTES) {
+                        for (int finalTotal : FINAL_TOTALS) {
+                            byte[] legacy = legacyEncodeMinute(t1, t2, suggested, minute, finalTotal);
+                            String row = t1 + "/" + t2 + "/" + suggested + "/" + minute + "/" + finalTotal;
+
+                            FeatureEncoder.encodeDense(t1, t2, suggested, minute, finalTotal, dense, 0);
+                            assertArrayEquals(legacy, dense, row);
+
+                            FeatureEncoder.encodeBits(t1, t2, suggested, minute, finalTotal, bits, 0);
+                            for (int i = 0; i < FeatureEncoder.ROW_SIZE; i++) {
+                                assertEquals(legacy[i] == 1, FeatureEncoder.isBitSet(bits, 0, i), row + " ячейка " + i);
+                            }
+
+                            int length = FeatureEncoder.encodeText(t1, t2, suggested, minute, finalTotal, text);
+                            assertEquals(legacyToString(legacy), new String(text, 0, length), row);
+
+                            int count = FeatureEncoder.encodeActive(t1, t2, suggested, minute, active, 0);
+                            assertArrayEquals(setCells(legacy), sorted(active, count), row);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void ninthMinuteIsNotEncoded() {
+        byte[] dense = new byte[FeatureEncoder.ROW_SIZE];
+        FeatureEncoder.encodeDense(10, 12, 40, 9, 80, dense, 0);
+        assertEquals(0, dense[298]);
+
+        int[] active = new int[FeatureEncoder.MAX_ACTIVE];
+        int count = FeatureEncoder.encodeActive(10, 12, 40, 9, active, 0);
+        assertArrayEquals(new int[]{10, 62, 180}, sorted(active, count));
+    }
+
+    @Test
+    void sharedCell289IsActiveOnce() {
+        // Тотал 94.5 и «минута 0» попадают в одну ячейку 289
+        int[] active = new int[FeatureEncoder.MAX_ACTIVE];
+        int count = FeatureEncoder.encodeActive(3, 4, 94.5, 0, active, 0);
+        assertArrayEquals(new int[]{3, 54, 289}, sorted(active, count));
+
+        byte[] dense = new byte[FeatureEncoder.ROW_SIZE];
+        FeatureEncoder.encodeDense(3, 4, 94.5, 0, 80, dense, 0);
+        assertEquals(1, dense[289]);
+    }
+
+    // Исторический ResultWriter.encodeMinute без изменений
+    private static byte[] legacyEncodeMinute(int t1, int t2, double suggested, int minute, int finalTotal) {
+        byte[] vector = new byte[300];
+
+        if (isSafeIndex(t1, 0, 49)) vector[t1] = 1;
+        if (isSafeIndex(t2 + 50, 50, 99)) vector[t2 + 50] = 1;
+
+        int totalIndex = (int) (suggested * 2) + 100;
+        if (isSafeIndex(totalIndex, 100, 289)) vector[totalIndex] = 1;
+
+        int minuteIndex = 289 + minute;
+        if (isSafeIndex(minuteIndex, 289, 297)) vector[minuteIndex] = 1;
+
+        vector[299] = (byte) (finalTotal < suggested ? 1 : 0);
+
+        return vector;
+    }
+
+    private static boolean isSafeIndex(int index, int min, int max) {
+        return index >= min && index <= max;
+    }
+
+    private static String legacyToString(byte[] array) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : array) {
+            sb.append(b).append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    private static int[] setCells(byte[] vector) {
+        int[] cells = new int[FeatureEncoder.INPUT_SIZE];
+        int count = 0;
+        for (int i = 0; i < FeatureEncoder.INPUT_SIZE; i++) {
+            if (vector[i] == 1) cells[count++] = i;
+        }
+        return Arrays.copyOf(cells, count);
+    }
+
+    private static int[] sorted(int[] active, int count) {
+        int[] copy = Arrays.copyOf(active, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+}
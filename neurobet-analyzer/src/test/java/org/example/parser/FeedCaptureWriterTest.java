@@ -0,0 +1,92 @@
+package org.example.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Запись {@link FeedCaptureWriter} и воспроизведение {@link FeedReplaySource} повреждённых файлов.
+ */
+class FeedCaptureWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void truncatesTornRecordAndContinuesAfterIt() throws IOException {
+        Path capture = directory.resolve("capture.bin");
+        try (FeedCaptureWriter writer = new FeedCaptureWriter(capture.toString())) {
+            writer.append(1_000, "{\"first\":1}");
+            writer.append(2_000, "{\"second\":2}");
+            writer.append(3_000, "{\"third\":3}");
+        }
+        try (FileChannel channel = FileChannel.open(capture, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2); // Падение посреди третьей записи
+        }
+
+        try (FeedCaptureWriter writer = new FeedCaptureWriter(capture.toString())) {
+            writer.append(4_000, "{\"fourth\":4}");
+        }
+
+        assertEquals(List.of("{\"first\":1}", "{\"second\":2}", "{\"fourth\":4}"), replay(capture));
+    }
+
+    @Test
+    void replayStopsAtCorruptedRecord() throws IOException {
+        Path capture = directory.resolve("capture.bin");
+        try (FeedCaptureWriter writer = new FeedCaptureWriter(capture.toString())) {
+            writer.append(1_000, "{\"first\":1}");
+        }
+        long secondRecord = Files.size(capture);
+        try (FeedCaptureWriter writer = new FeedCaptureWriter(capture.toString())) {
+            writer.append(2_000, "{\"second\":2}");
+            writer.append(3_000, "{\"third\":3}");
+        }
+
+        // Портим сжатые данные второй записи, заголовок остаётся целым
+        try (FileChannel channel = FileChannel.open(capture, StandardOpenOption.WRITE)) {
+            byte[] garbage = new byte[4];
+            Arrays.fill(garbage, (byte) 0xFF);
+            channel.write(ByteBuffer.wrap(garbage), secondRecord + FeedCaptureWriter.RECORD_HEADER_BYTES);
+        }
+
+        assertEquals(List.of("{\"first\":1}"), replay(capture));
+    }
+
+    @Test
+    void replayStopsAtImpossibleLengthInHeader() throws IOException {
+        Path capture = directory.resolve("capture.bin");
+        try (FeedCaptureWriter writer = new FeedCaptureWriter(capture.toString())) {
+            writer.append(1_000, "{\"first\":1}");
+        }
+        try (FileChannel channel = FileChannel.open(capture, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(FeedCaptureWriter.RECORD_HEADER_BYTES)
+                    .putLong(2_000).putInt(-1).putInt(10).flip());
+            channel.write(ByteBuffer.allocate(10));
+        }
+
+        assertEquals(List.of("{\"first\":1}"), replay(capture));
+    }
+
+    private static List<String> replay(Path capture) throws IOException {
+        List<String> bodies = new ArrayList<>();
+        try (FeedReplaySource source = new FeedReplaySource(capture.toString(), FeedReplaySource.AS_FAST_AS_POSSIBLE)) {
+            String body;
+            while ((body = source.fetchBody()) != null) {
+                bodies.add(body);
+            }
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSlotIndexTest {
+
+    @Test
+    void removalKeepsCollidingKeysReachable() {
+        GameSlotIndex index = new GameSlotIndex(16);
+        Map<Integer, Integer> expected = new HashMap<>();
+        // Идентификаторы игр идут почти подряд — как в ленте
+        for (int i = 0; i < 12; i++) {
+            index.put(500_000_000 + i, i);
+            expected.put(500_000_000 + i, i);
+        }
+        for (int i = 0; i < 12; i += 3) {
+            assertEquals(i, index.remove(500_000_000 + i));
+            expected.remove(500_000_000 + i);
+            assertMatches(expected, index);
+        }
+        assertEquals(-1, index.remove(500_000_000));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        Random random = new Random(42);
+        GameSlotIndex index = new GameSlotIndex(16);
+        Map<Integer, Integer> expected = new HashMap<>();
+        List<Integer> keys = new ArrayList<>();
+
+        for (int step = 0; step < 50_000; step++) {
+            if (!keys.isEmpty() && random.nextInt(3) == 0) {
+                Integer key = keys.remove(random.nextInt(keys.size()));
+                assertEquals((int) expected.remove(key), index.remove(key));
+            } else {
+                int key = 400_000_000 + random.nextInt(5_000);
+                int slot = random.nextInt(1 << 20);
+                if (expected.put(key, slot) == null) {
+                    keys.add(key);
+                }
+                index.put(key, slot);
+            }
+            if (step % 1_000 == 0) {
+                assertMatches(expected, index);
+            }
+        }
+        assertMatches(expected, index);
+    }
+
+    private static void assertMatches(Map<Integer, Integer> expected, GameSlotIndex index) {
+        assertEquals(expected.size(), index.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), index.get(entry.getKey()), "игра " + entry.getKey());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysUpdatesAndRemovals() throws IOException {
+        try (GameStateJournal journal = new GameStateJournal(directory)) {
+            assertTrue(journal.recover().getGames().isEmpty());
+            Game game = new Game(7);
+            game.setTeamOne("Команда 1");
+            game.setLastScoredMinute(5);
+            journal.recordUpdate(game);
+            journal.recordUpdate(new Game(8));
+            journal.recordRemoval(8);
+            journal.endPoll();
+        }
+
+        List<Game> games = recover();
+        assertEquals(1, games.size());
+        assertEquals(7, games.get(0).getGameId());
+        assertEquals("Команда 1", games.get(0).getTeamOne());
+        assertEquals(5, games.get(0).getLastScoredMinute());
+    }
+
+    @Test
+    void dropsTornRecordAtTheEndOfWal() throws IOException {
+        try (GameStateJournal journal = new GameStateJournal(directory)) {
+            journal.recover();
+            journal.recordUpdate(new Game(1));
+            journal.recordUpdate(new Game(2));
+            journal.endPoll();
+        }
+        Path wal = directory.resolve("wal-0.log");
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3); // Падение посреди записи второй игры
+        }
+
+        List<Game> games = recover();
+        assertEquals(1, games.size());
+        assertEquals(1, games.get(0).getGameId());
+
+        // После восстановления журнал продолжается в новом сегменте, оборванный хвост не мешает
+        try (GameStateJournal journal = new GameStateJournal(directory)) {
+            journal.recover();
+            journal.recordUpdate(new Game(3));
+            journal.endPoll();
+        }
+        assertEquals(List.of(1, 3), gameIds(recover()));
+    }
+
+    @Test
+    void replaysWalOnTopOfSnapshot() throws IOException {
+        try (GameStateJournal journal = new GameStateJournal(directory, 0)) {
+            journal.recover();
+            List<Game> games = new ArrayList<>(List.of(new Game(1), new Game(2)));
+            journal.recordUpdate(games.get(0));
+            journal.recordUpdate(games.get(1));
+            journal.endPoll();
+            journal.maybeSnapshot(games, null);
+            journal.recordRemoval(1);
+            journal.recordUpdate(new Game(4));
+            journal.endPoll();
+        }
+
+        assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+        assertEquals(List.of(2, 4), gameIds(recover()));
+    }
+
+    private List<Game> recover() throws IOException {
+        try (GameStateJournal journal = new GameStateJournal(directory)) {
+            return journal.recover().getGames();
+        }
+    }
+
+    private static List<Integer> gameIds(List<Game> games) {
+        List<Integer> ids = new ArrayList<>();
+        for (Game game : games) {
+            ids.add(game.getGameId());
+        }
+        return ids;
+    }
+}